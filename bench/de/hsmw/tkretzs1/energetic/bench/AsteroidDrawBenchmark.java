@@ -0,0 +1,90 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.core.Game;
+import de.hsmw.tkretzs1.energetic.entities.Asteroid;
+import de.hsmw.tkretzs1.energetic.particles.QuadBatch;
+import de.hsmw.tkretzs1.energetic.utils.Circle;
+import de.hsmw.tkretzs1.energetic.utils.Math2D;
+import org.jsfml.graphics.RenderStates;
+import org.jsfml.system.Time;
+import org.jsfml.system.Vector2f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Misst das Zeichnen von n bewegten Asteroiden mit je 75 Fragmenten ohne Grafikkarte,
+ * entweder mit einem Aufruf je Asteroid oder gesammelt in einem QuadBatch mit einem Aufruf für alle.
+ * Die Fragmente liegen in lokalen Koordinaten. Einzeln gezeichnet kostet die Bewegung nur eine neue Transformation je Asteroid,
+ * im QuadBatch neue Eckpunkte in Weltkoordinaten. Gemessen wird nur die Java-Seite, nicht die eingesparten Aufrufe der Grafikkarte.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.particles.impl.AsteroidParticleSystem
+ */
+class AsteroidDrawBenchmark extends Benchmark {
+
+    /**
+     * Zeitschritt eines Updates
+     */
+    private static final Time DT = Time.getSeconds(1 / 60f);
+
+    /**
+     * gezeichnete Asteroiden
+     */
+    private List<GameObject> asteroids;
+
+    /**
+     * RenderTarget ohne Grafikkarte
+     */
+    private NullRenderTarget target;
+
+    /**
+     * Asteroiden in einem QuadBatch sammeln statt einzeln zeichnen
+     */
+    private final boolean batched;
+
+    /**
+     * QuadBatch für alle Asteroiden
+     */
+    private final QuadBatch batch = new QuadBatch();
+
+    /**
+     * Konstruktor.
+     * @param batched Asteroiden in einem QuadBatch sammeln statt einzeln zeichnen
+     */
+    AsteroidDrawBenchmark(boolean batched) {
+        super("Asteroid.draw (" + (batched ? "QuadBatch" : "einzeln") + ")");
+        this.batched = batched;
+    }
+
+    @Override
+    public void setup(int n) {
+        Circle worldBounds = Game.getInstance().getWorldBounds();
+        asteroids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Vector2f position = Vector2f.add(new Vector2f(worldBounds.position), Math2D.rndPointOnDisc(worldBounds.radius));
+            asteroids.add(new Asteroid(position, 75, new Vector2f(Math2D.randomInRange(-200, 200), Math2D.randomInRange(-200, 200))));
+        }
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        if(target == null)
+            target = new NullRenderTarget(blackhole);
+        for (GameObject asteroid : asteroids) {
+            asteroid.update(DT);
+        }
+        if (batched) {
+            batch.clear();
+            for (GameObject asteroid : asteroids) {
+                asteroid.addToBatch(batch, 0, 0);
+            }
+            target.draw(batch);
+            return;
+        }
+        for (GameObject asteroid : asteroids) {
+            target.draw(asteroid, RenderStates.DEFAULT);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+/**
+ * Basisklasse für Microbenchmarks.
+ * Ein Benchmark wird für jede Anzahl an Elementen (Parameter n) einmal vorbereitet und anschließend wiederholt ausgeführt.
+ * Ergebnisse, die sonst ungenutzt blieben, müssen an das Blackhole übergeben werden, damit die JVM die Berechnung nicht wegoptimiert.
+ *
+ * @see de.hsmw.tkretzs1.energetic.bench.BenchmarkRunner
+ * @author Tom Kretzschmar
+ */
+public abstract class Benchmark {
+
+    /**
+     * Name des Benchmarks
+     */
+    private final String name;
+
+    /**
+     * Konstruktor.
+     * @param name Name des Benchmarks
+     */
+    protected Benchmark(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Bereitet den Benchmark für die übergebene Anzahl an Elementen vor. Wird nicht gemessen.
+     * @param n Anzahl der Elemente (Spielobjekte, Partikel, Vektoren)
+     */
+    public abstract void setup(int n);
+
+    /**
+     * Führt eine gemessene Operation aus.
+     * @param blackhole Senke für Ergebnisse
+     */
+    public abstract void run(Blackhole blackhole);
+
+    /**
+     * Gibt den Namen des Benchmarks zurück.
+     * @return Name
+     */
+    public String getName() {
+        return name;
+    }
+}
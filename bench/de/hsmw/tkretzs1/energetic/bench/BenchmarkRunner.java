@@ -0,0 +1,210 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.core.Game;
+import de.hsmw.tkretzs1.energetic.core.ScriptedInput;
+import de.hsmw.tkretzs1.energetic.utils.Math2D;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Führt die Microbenchmarks für die Kollisionserkennung, die Partikelsysteme und Math2D aus.
+ * Jeder Benchmark wird für jede Anzahl an Elementen vorbereitet, in Aufwärmdurchläufen vom JIT-Compiler optimiert und anschließend gemessen.
+ * Ausgegeben wird die mittlere Zeit pro Operation mit Standardabweichung über die Messdurchläufe.
+ * Das Spiel läuft dabei headless, es wird weder Fenster noch Grafikkarte benötigt.
+ *
+ * Aufruf: BenchmarkRunner [-p 100,1000,10000,100000] [-wi Aufwärmdurchläufe] [-i Messdurchläufe] [-t Dauer eines Durchlaufs in ms] [Regex für Benchmarknamen]
+ *
+ * @author Tom Kretzschmar
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Standardwerte für die Anzahl der Elemente
+     */
+    private static final int[] DEFAULT_PARAMS = {100, 1000, 10000, 100000};
+
+    /**
+     * Startwert des Zufallsgenerators, damit jede Messung dieselben Testdaten verwendet
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Anzahlen der Elemente, für die jeder Benchmark ausgeführt wird
+     */
+    private int[] params = DEFAULT_PARAMS;
+
+    /**
+     * Anzahl der Aufwärmdurchläufe
+     */
+    private int warmupIterations = 3;
+
+    /**
+     * Anzahl der Messdurchläufe
+     */
+    private int measurementIterations = 5;
+
+    /**
+     * Dauer eines Durchlaufs in Millisekunden
+     */
+    private long iterationMillis = 1000;
+
+    /**
+     * Filter für die Namen der auszuführenden Benchmarks
+     */
+    private Pattern filter = Pattern.compile(".*");
+
+    /**
+     * Senke für die Ergebnisse aller Benchmarks
+     */
+    private final Blackhole blackhole = new Blackhole();
+
+    public static void main(String[] args) {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.parseArguments(args);
+
+        // Spiel ohne Fenster anlegen, die Benchmarks benötigen das Spielfeld und die Kollisionserkennung des ersten Levels
+        Math2D.setSeed(SEED);
+        Game.createHeadless(new ScriptedInput(), 1920, 1080);
+
+        runner.runAll(createBenchmarks());
+    }
+
+    /**
+     * Legt alle Benchmarks an.
+     * @return Liste der Benchmarks
+     */
+    private static List<Benchmark> createBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new QuadtreeInsertBenchmark());
+        benchmarks.add(new QuadtreeRetrieveBenchmark());
+        benchmarks.add(new GravityBenchmark(0.5f, "Barnes-Hut"));
+        benchmarks.add(new GravityBenchmark(0, "exakt"));
+        benchmarks.add(new BroadphaseBenchmark(BroadphaseBenchmark.Type.QUADTREE, "Quadtree"));
+        benchmarks.add(new BroadphaseBenchmark(BroadphaseBenchmark.Type.LOOSE_QUADTREE, "LooseQuadtree"));
+        benchmarks.add(new BroadphaseBenchmark(BroadphaseBenchmark.Type.GRID, "SpatialHashGrid"));
+        benchmarks.add(new BroadphaseBenchmark(BroadphaseBenchmark.Type.SWEEP_AND_PRUNE, "SweepAndPrune"));
+        benchmarks.add(new CollisionDetectionBenchmark(BroadphaseBenchmark.Type.QUADTREE, "Quadtree"));
+        benchmarks.add(new CollisionDetectionBenchmark(BroadphaseBenchmark.Type.LOOSE_QUADTREE, "LooseQuadtree"));
+        benchmarks.add(new CollisionDetectionBenchmark(BroadphaseBenchmark.Type.GRID, "SpatialHashGrid"));
+        benchmarks.add(new CollisionDetectionBenchmark(BroadphaseBenchmark.Type.SWEEP_AND_PRUNE, "SweepAndPrune"));
+        int threads = Runtime.getRuntime().availableProcessors();
+        benchmarks.add(new CollisionDetectionBenchmark(BroadphaseBenchmark.Type.GRID, "SpatialHashGrid", Math.max(2, threads)));
+        benchmarks.add(new CollisionDetectionBenchmark(BroadphaseBenchmark.Type.SWEEP_AND_PRUNE, "SweepAndPrune", Math.max(2, threads)));
+        benchmarks.add(new CircleIntersectBenchmark());
+        benchmarks.add(new PolygonIntersectBenchmark());
+        benchmarks.add(new CircleBatchBenchmark());
+        benchmarks.add(new ParticleVerticesBenchmark(false));
+        benchmarks.add(new ParticleVerticesBenchmark(true));
+        benchmarks.add(new AsteroidDrawBenchmark(false));
+        benchmarks.add(new AsteroidDrawBenchmark(true));
+        for (ParticleUpdateBenchmark.Type type : ParticleUpdateBenchmark.Type.values()) {
+            benchmarks.add(new ParticleUpdateBenchmark(type));
+        }
+        benchmarks.add(new Math2DBenchmark(Math2DBenchmark.Operation.ROTATE, "rotate"));
+        benchmarks.add(new Math2DBenchmark(Math2DBenchmark.Operation.NORMALIZE, "normalize"));
+        benchmarks.add(new Math2DBenchmark(Math2DBenchmark.Operation.GET_ANGLE, "getAngle"));
+        benchmarks.add(new Math2DBenchmark(Math2DBenchmark.Operation.GET_LENGTH, "getLength"));
+        return benchmarks;
+    }
+
+    /**
+     * Wertet die Kommandozeilenargumente aus.
+     * @param args Argumente
+     */
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-p":
+                    String[] values = args[++i].split(",");
+                    params = new int[values.length];
+                    for (int j = 0; j < values.length; j++) {
+                        params[j] = Integer.parseInt(values[j].trim());
+                    }
+                    break;
+                case "-wi":
+                    warmupIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-i":
+                    measurementIterations = Integer.parseInt(args[++i]);
+                    break;
+                case "-t":
+                    iterationMillis = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    filter = Pattern.compile(args[i]);
+            }
+        }
+    }
+
+    /**
+     * Führt alle Benchmarks, deren Name auf den Filter passt, für alle Parameter aus und gibt die Ergebnisse aus.
+     * @param benchmarks Benchmarks
+     */
+    private void runAll(List<Benchmark> benchmarks) {
+        System.out.println(String.format("%-40s %8s %14s %12s %10s", "Benchmark", "n", "us/op", "+-", "ops/s"));
+        for (Benchmark benchmark : benchmarks) {
+            if(!filter.matcher(benchmark.getName()).find())
+                continue;
+
+            for (int n : params) {
+                Math2D.setSeed(SEED);
+                benchmark.setup(n);
+
+                for (int i = 0; i < warmupIterations; i++) {
+                    runIteration(benchmark);
+                }
+
+                double[] results = new double[measurementIterations];
+                for (int i = 0; i < measurementIterations; i++) {
+                    results[i] = runIteration(benchmark);
+                }
+                printResult(benchmark.getName(), n, results);
+
+                // Testdaten des vorherigen Parameters freigeben
+                benchmark.setup(0);
+            }
+        }
+    }
+
+    /**
+     * Führt den Benchmark so oft aus, bis die Dauer eines Durchlaufs erreicht ist (mindestens einmal).
+     * @param benchmark Benchmark
+     * @return mittlere Zeit pro Operation in Nanosekunden
+     */
+    private double runIteration(Benchmark benchmark) {
+        long duration = iterationMillis * 1000000L;
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            benchmark.run(blackhole);
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < duration);
+        return (double) elapsed / ops;
+    }
+
+    /**
+     * Gibt das Ergebnis eines Benchmarks aus.
+     * @param name Name des Benchmarks
+     * @param n Anzahl der Elemente
+     * @param results mittlere Zeit pro Operation je Messdurchlauf in Nanosekunden
+     */
+    private static void printResult(String name, int n, double[] results) {
+        double mean = 0;
+        for (double result : results) {
+            mean += result;
+        }
+        mean /= results.length;
+
+        double variance = 0;
+        for (double result : results) {
+            variance += (result - mean) * (result - mean);
+        }
+        double deviation = results.length > 1 ? Math.sqrt(variance / (results.length - 1)) : 0;
+
+        System.out.println(String.format("%-40s %8d %14.3f %12.3f %10.1f", name, n, mean / 1000, deviation / 1000, 1e9 / mean));
+    }
+}
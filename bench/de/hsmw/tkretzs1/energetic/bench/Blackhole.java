@@ -0,0 +1,52 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+/**
+ * Senke für Benchmark-Ergebnisse.
+ * Verhindert, dass die JVM Berechnungen entfernt, deren Ergebnis nicht verwendet wird (Dead Code Elimination).
+ *
+ * @author Tom Kretzschmar
+ */
+public final class Blackhole {
+
+    /**
+     * Akkumulierter Wert aller konsumierten Ergebnisse. volatile, damit das Schreiben nicht entfallen kann.
+     */
+    private volatile int sink;
+
+    /**
+     * Zuletzt konsumiertes Objekt. Das Speichern auf dem Heap verhindert, dass das Objekt wegoptimiert wird.
+     */
+    private volatile Object last;
+
+    /**
+     * Konsumiert ein Objekt.
+     * @param o Objekt
+     */
+    public void consume(Object o) {
+        last = o;
+    }
+
+    /**
+     * Konsumiert eine Ganzzahl.
+     * @param i Zahl
+     */
+    public void consume(int i) {
+        sink += i;
+    }
+
+    /**
+     * Konsumiert eine Gleitkommazahl.
+     * @param f Zahl
+     */
+    public void consume(float f) {
+        sink += Float.floatToRawIntBits(f);
+    }
+
+    /**
+     * Konsumiert einen Wahrheitswert.
+     * @param b Wahrheitswert
+     */
+    public void consume(boolean b) {
+        sink += b ? 1 : 0;
+    }
+}
@@ -0,0 +1,94 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.LooseQuadtree;
+import de.hsmw.tkretzs1.energetic.collision.impl.Quadtree;
+import de.hsmw.tkretzs1.energetic.collision.impl.SpatialHashGrid;
+import de.hsmw.tkretzs1.energetic.collision.impl.SweepAndPrune;
+import de.hsmw.tkretzs1.energetic.core.Game;
+import org.jsfml.graphics.IntRect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Misst einen vollständigen Durchlauf einer Broadphase für n Asteroiden: Aktualisieren und Abfragen der Kandidaten für jedes Objekt.
+ *
+ * @author Tom Kretzschmar
+ */
+class BroadphaseBenchmark extends Benchmark {
+
+    /**
+     * Art der gemessenen Broadphase
+     */
+    enum Type {
+        QUADTREE, LOOSE_QUADTREE, GRID, SWEEP_AND_PRUNE;
+
+        /**
+         * Legt eine neue Broadphase dieser Art an.
+         * @param bounds Spielfeld
+         * @return Broadphase
+         */
+        Broadphase create(IntRect bounds) {
+            switch (this) {
+                case QUADTREE:
+                    return new Quadtree(0, bounds);
+                case LOOSE_QUADTREE:
+                    return new LooseQuadtree(bounds);
+                case GRID:
+                    return new SpatialHashGrid(bounds, 100);
+                default:
+                    return new SweepAndPrune();
+            }
+        }
+    }
+
+    /**
+     * Art der gemessenen Broadphase
+     */
+    private final Type type;
+
+    /**
+     * Asteroiden, die einsortiert werden
+     */
+    private List<GameObject> objects;
+
+    /**
+     * gemessene Broadphase
+     */
+    private Broadphase broadphase;
+
+    /**
+     * wiederverwendete Liste für die möglichen Kollisionspartner
+     */
+    private final List<GameObject> candidates = new ArrayList<>();
+
+    /**
+     * Konstruktor.
+     * @param type Art der gemessenen Broadphase
+     * @param name Name der Broadphase
+     */
+    BroadphaseBenchmark(Type type, String name) {
+        super("Broadphase." + name);
+        this.type = type;
+    }
+
+    @Override
+    public void setup(int n) {
+        objects = Fixtures.createAsteroids(n);
+        broadphase = type.create(Game.getInstance().getWorldBounds().getSurroundingRect());
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        broadphase.update(objects);
+        int count = 0;
+        for (GameObject object : objects) {
+            candidates.clear();
+            broadphase.retrieve(candidates, object);
+            count += candidates.size();
+        }
+        blackhole.consume(count);
+    }
+}
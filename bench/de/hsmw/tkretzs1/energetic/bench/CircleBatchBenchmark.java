@@ -0,0 +1,53 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.CircleBatch;
+import de.hsmw.tkretzs1.energetic.collision.impl.CollisionPairBuffer;
+
+import java.util.List;
+
+/**
+ * Misst die gebündelte Narrowphase für n Kandidatenpaare, dieselben Paare wie CircleIntersectBenchmark.
+ * Die Kreise werden einmalig in setup() geladen, gemessen wird nur das Füllen und Filtern des Paarpuffers.
+ *
+ * @author Tom Kretzschmar
+ * @see CircleIntersectBenchmark
+ */
+class CircleBatchBenchmark extends Benchmark {
+
+    /**
+     * Asteroiden, deren Kreise geprüft werden
+     */
+    private List<GameObject> objects;
+
+    /**
+     * geladene Kollisionskreise
+     */
+    private final CircleBatch circleBatch = new CircleBatch();
+
+    /**
+     * Kandidatenpaare, werden vor jedem Durchlauf neu gefüllt
+     */
+    private final CollisionPairBuffer collisionPairs = new CollisionPairBuffer();
+
+    CircleBatchBenchmark() {
+        super("CircleBatch.filter");
+    }
+
+    @Override
+    public void setup(int n) {
+        objects = Fixtures.createAsteroids(n);
+        circleBatch.load(objects);
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        int n = objects.size();
+        collisionPairs.clear();
+        for (int i = 0; i < n; i++) {
+            collisionPairs.add(i, (i + 1) % n);
+        }
+        circleBatch.filter(collisionPairs);
+        blackhole.consume(collisionPairs.size());
+    }
+}
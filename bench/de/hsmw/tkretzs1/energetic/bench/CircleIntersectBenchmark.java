@@ -0,0 +1,42 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+
+import java.util.List;
+
+/**
+ * Misst n Schnitttests zwischen Kreisen über den Visitor (IntersectVisit -> CircleCollider.Intersect), wie in der Kollisionserkennung.
+ *
+ * @author Tom Kretzschmar
+ */
+class CircleIntersectBenchmark extends Benchmark {
+
+    /**
+     * Kollisionskreise der Asteroiden
+     */
+    private CollisionShape[] shapes;
+
+    CircleIntersectBenchmark() {
+        super("CircleCollider.Intersect");
+    }
+
+    @Override
+    public void setup(int n) {
+        List<GameObject> objects = Fixtures.createAsteroids(n);
+        shapes = new CollisionShape[n];
+        for (int i = 0; i < n; i++) {
+            shapes[i] = objects.get(i).getCollisionShape();
+        }
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        int hits = 0;
+        for (int i = 0; i < shapes.length; i++) {
+            if(shapes[i].IntersectVisit(shapes[(i + 1) % shapes.length]))
+                hits++;
+        }
+        blackhole.consume(hits);
+    }
+}
@@ -0,0 +1,73 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.core.Game;
+import org.jsfml.system.Time;
+
+import java.util.List;
+
+/**
+ * Misst die vollständige Kollisionserkennung und -behandlung (Game.detectCollisions inkl. resolveCollisions) für n Asteroiden.
+ * Die Asteroiden werden vor jeder Messung einen Schritt weiterbewegt, damit Verfahren mit zeitlicher Kohärenz realistisch gemessen werden.
+ *
+ * @author Tom Kretzschmar
+ */
+class CollisionDetectionBenchmark extends Benchmark {
+
+    /**
+     * Zeitschritt der Bewegung
+     */
+    private static final Time DT = Time.getSeconds(1 / 60f);
+
+    /**
+     * verwendete Broadphase
+     */
+    private final BroadphaseBenchmark.Type type;
+
+    /**
+     * Anzahl der Threads der Kollisionserkennung
+     */
+    private final int threads;
+
+    /**
+     * Asteroiden, deren Kollisionen erkannt werden
+     */
+    private List<GameObject> objects;
+
+    /**
+     * Konstruktor.
+     * @param type verwendete Broadphase
+     * @param name Name der Broadphase
+     */
+    CollisionDetectionBenchmark(BroadphaseBenchmark.Type type, String name) {
+        this(type, name, 1);
+    }
+
+    /**
+     * Konstruktor.
+     * @param type verwendete Broadphase
+     * @param name Name der Broadphase
+     * @param threads Anzahl der Threads der Kollisionserkennung
+     */
+    CollisionDetectionBenchmark(BroadphaseBenchmark.Type type, String name, int threads) {
+        super("Game.detectCollisions/" + name + (threads > 1 ? "/" + threads + " threads" : ""));
+        this.type = type;
+        this.threads = threads;
+    }
+
+    @Override
+    public void setup(int n) {
+        objects = Fixtures.createAsteroids(n);
+        Game.getInstance().setBroadphase(type.create(Game.getInstance().getWorldBounds().getSurroundingRect()));
+        Game.getInstance().setCollisionThreads(threads);
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        for (GameObject object : objects) {
+            object.update(DT);
+        }
+        Game.getInstance().detectCollisions(objects);
+        blackhole.consume(objects.get(0).getVelocity());
+    }
+}
@@ -0,0 +1,51 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.core.Game;
+import de.hsmw.tkretzs1.energetic.entities.Asteroid;
+import de.hsmw.tkretzs1.energetic.utils.Circle;
+import de.hsmw.tkretzs1.energetic.utils.Math2D;
+import org.jsfml.system.Vector2f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hilfsmethoden zum Erzeugen von Testdaten für die Benchmarks.
+ *
+ * @author Tom Kretzschmar
+ */
+final class Fixtures {
+
+    private Fixtures() {}
+
+    /**
+     * Erzeugt Asteroiden, die zufällig auf dem Spielfeld des aktuellen Levels verteilt sind.
+     * Die Asteroiden besitzen nur ein Fragment, damit große Anzahlen nicht an der Speichergröße scheitern.
+     * @param n Anzahl der Asteroiden
+     * @return Liste der Asteroiden
+     */
+    static List<GameObject> createAsteroids(int n) {
+        Circle worldBounds = Game.getInstance().getWorldBounds();
+        List<GameObject> asteroids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Vector2f position = Vector2f.add(new Vector2f(worldBounds.position), Math2D.rndPointOnDisc(worldBounds.radius));
+            Vector2f velocity = new Vector2f(Math2D.randomInRange(-200, 200), Math2D.randomInRange(-200, 200));
+            asteroids.add(new Asteroid(position, 1, velocity));
+        }
+        return asteroids;
+    }
+
+    /**
+     * Erzeugt zufällige Vektoren mit Komponenten zwischen -1000 und 1000.
+     * @param n Anzahl der Vektoren
+     * @return Vektoren
+     */
+    static Vector2f[] createVectors(int n) {
+        Vector2f[] vectors = new Vector2f[n];
+        for (int i = 0; i < n; i++) {
+            vectors[i] = new Vector2f(Math2D.randomInRange(-1000, 1000), Math2D.randomInRange(-1000, 1000));
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,61 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.Quadtree;
+import de.hsmw.tkretzs1.energetic.core.Game;
+import de.hsmw.tkretzs1.energetic.entities.Planet;
+
+import java.util.List;
+
+/**
+ * Misst die Berechnung der Anziehung auf jeden von n Asteroiden und den Planeten über den Quadtree, einschließlich Aufbau und Schwerpunktberechnung.
+ * Mit theta = 0 wird jeder Knoten aufgelöst, das entspricht der exakten Summe über alle Paare in O(n²).
+ *
+ * @author Tom Kretzschmar
+ */
+class GravityBenchmark extends Benchmark {
+
+    /**
+     * Genauigkeit der Barnes-Hut-Näherung
+     */
+    private final float theta;
+
+    /**
+     * Asteroiden und Planet
+     */
+    private List<GameObject> objects;
+
+    /**
+     * gemessener Quadtree
+     */
+    private Quadtree quad;
+
+    /**
+     * Ergebnis der Anziehung, wird für alle Körper wiederverwendet
+     */
+    private final float[] acceleration = new float[2];
+
+    GravityBenchmark(float theta, String name) {
+        super("Quadtree.getGravity (" + name + ")");
+        this.theta = theta;
+    }
+
+    @Override
+    public void setup(int n) {
+        objects = Fixtures.createAsteroids(n);
+        objects.add(new Planet());
+        quad = new Quadtree(Game.getInstance().getWorldBounds().getSurroundingRect(), true);
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        quad.update(objects);
+        quad.computeMassDistribution();
+        float sum = 0;
+        for (GameObject object : objects) {
+            quad.getGravity(object, theta, 50, acceleration);
+            sum += acceleration[0];
+        }
+        blackhole.consume(sum);
+    }
+}
@@ -0,0 +1,78 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.utils.Math2D;
+import org.jsfml.system.Vector2f;
+
+/**
+ * Misst die Vektorfunktionen von Math2D für n zufällige Vektoren.
+ *
+ * @author Tom Kretzschmar
+ */
+class Math2DBenchmark extends Benchmark {
+
+    /**
+     * gemessene Funktion
+     */
+    enum Operation {
+        ROTATE, NORMALIZE, GET_ANGLE, GET_LENGTH
+    }
+
+    /**
+     * gemessene Funktion
+     */
+    private final Operation operation;
+
+    /**
+     * Eingabevektoren
+     */
+    private Vector2f[] vectors;
+
+    /**
+     * Konstruktor.
+     * @param operation gemessene Funktion
+     * @param name Name der Funktion
+     */
+    Math2DBenchmark(Operation operation, String name) {
+        super("Math2D." + name);
+        this.operation = operation;
+    }
+
+    @Override
+    public void setup(int n) {
+        vectors = Fixtures.createVectors(n);
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        switch (operation) {
+            case ROTATE:
+                float x = 0;
+                for (Vector2f vector : vectors) {
+                    x += Math2D.rotate(vector, 30).x;
+                }
+                blackhole.consume(x);
+                break;
+            case NORMALIZE:
+                float y = 0;
+                for (Vector2f vector : vectors) {
+                    y += Math2D.normalize(vector).y;
+                }
+                blackhole.consume(y);
+                break;
+            case GET_ANGLE:
+                float angle = 0;
+                for (Vector2f vector : vectors) {
+                    angle += Math2D.getAngle(vector);
+                }
+                blackhole.consume(angle);
+                break;
+            case GET_LENGTH:
+                float length = 0;
+                for (Vector2f vector : vectors) {
+                    length += Math2D.getLength(vector);
+                }
+                blackhole.consume(length);
+                break;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import org.jsfml.graphics.*;
+import org.jsfml.system.Vector2f;
+import org.jsfml.system.Vector2i;
+
+/**
+ * RenderTarget ohne Grafikkarte.
+ * Ruft die Zeichenmethoden der Drawables auf und übergibt die erzeugten Vertices an das Blackhole,
+ * sodass die Kosten auf der Java-Seite des Zeichnens (Vertexberechnung) ohne Fenster gemessen werden können.
+ *
+ * @author Tom Kretzschmar
+ */
+class NullRenderTarget implements RenderTarget {
+
+    /**
+     * Senke für die gezeichneten Vertices
+     */
+    private final Blackhole blackhole;
+
+    /**
+     * Konstruktor.
+     * @param blackhole Senke für die gezeichneten Vertices
+     */
+    NullRenderTarget(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void draw(Drawable drawable) {
+        draw(drawable, RenderStates.DEFAULT);
+    }
+
+    @Override
+    public void draw(Drawable drawable, RenderStates renderStates) {
+        drawable.draw(this, renderStates);
+    }
+
+    @Override
+    public void draw(Vertex[] vertices, PrimitiveType type) {
+        draw(vertices, type, RenderStates.DEFAULT);
+    }
+
+    @Override
+    public void draw(Vertex[] vertices, PrimitiveType type, RenderStates renderStates) {
+        blackhole.consume(vertices.length);
+        if(vertices.length > 0)
+            blackhole.consume(vertices[vertices.length - 1]);
+    }
+
+    @Override
+    public void clear(Color color) {}
+
+    @Override
+    public void setView(ConstView view) {}
+
+    @Override
+    public ConstView getView() {
+        return null;
+    }
+
+    @Override
+    public ConstView getDefaultView() {
+        return null;
+    }
+
+    @Override
+    public IntRect getViewport(ConstView view) {
+        return IntRect.EMPTY;
+    }
+
+    @Override
+    public Vector2f mapPixelToCoords(Vector2i point) {
+        return new Vector2f(point);
+    }
+
+    @Override
+    public Vector2f mapPixelToCoords(Vector2i point, ConstView view) {
+        return new Vector2f(point);
+    }
+
+    @Override
+    public Vector2i mapCoordsToPixel(Vector2f point) {
+        return new Vector2i(point);
+    }
+
+    @Override
+    public Vector2i mapCoordsToPixel(Vector2f point, ConstView view) {
+        return new Vector2i(point);
+    }
+
+    @Override
+    public Vector2i getSize() {
+        return Vector2i.ZERO;
+    }
+
+    @Override
+    public void pushGLStates() {}
+
+    @Override
+    public void popGLStates() {}
+
+    @Override
+    public void resetGLStates() {}
+}
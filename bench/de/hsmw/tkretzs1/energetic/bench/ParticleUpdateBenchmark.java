@@ -0,0 +1,114 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.particles.impl.AsteroidParticleSystem;
+import de.hsmw.tkretzs1.energetic.particles.impl.BackgroundParticleSystem;
+import de.hsmw.tkretzs1.energetic.particles.impl.EngineParticleSystem;
+import de.hsmw.tkretzs1.energetic.particles.impl.ExplosionParticleSystem;
+import org.jsfml.graphics.Color;
+import org.jsfml.system.Time;
+import org.jsfml.system.Vector2f;
+
+/**
+ * Misst einen Simulationsschritt (1/60 s) der Partikelsysteme mit etwa n Partikeln.
+ *
+ * @author Tom Kretzschmar
+ */
+class ParticleUpdateBenchmark extends Benchmark {
+
+    /**
+     * Art des gemessenen Partikelsystems
+     */
+    enum Type {
+        /** BackgroundParticleSystem.update mit n Sternen */
+        BACKGROUND,
+        /** EngineParticleSystem.update im eingeschwungenen Zustand mit n Partikeln */
+        ENGINE,
+        /** vollständiger Lebenszyklus (60 Updates) von n/100 Explosionen mit je etwa 100 Partikeln */
+        EXPLOSION,
+        /** AsteroidParticleSystem.setPosition mit n Fragmenten (update ist leer, die Bewegung erfolgt über setPosition) */
+        ASTEROID
+    }
+
+    /**
+     * Zeitschritt eines Updates
+     */
+    private static final Time DT = Time.getSeconds(1 / 60f);
+
+    /**
+     * Art des gemessenen Partikelsystems
+     */
+    private final Type type;
+
+    /**
+     * Anzahl der Elemente
+     */
+    private int n;
+
+    /**
+     * gemessene Partikelsysteme, je nach Art
+     */
+    private BackgroundParticleSystem background;
+    private EngineParticleSystem engine;
+    private AsteroidParticleSystem asteroid;
+
+    /**
+     * Konstruktor.
+     * @param type Art des gemessenen Partikelsystems
+     */
+    ParticleUpdateBenchmark(Type type) {
+        super(type.name().charAt(0) + type.name().substring(1).toLowerCase() + "ParticleSystem.update");
+        this.type = type;
+    }
+
+    @Override
+    public void setup(int n) {
+        this.n = n;
+        switch (type) {
+            case BACKGROUND:
+                background = new BackgroundParticleSystem(n);
+                background.fill();
+                break;
+            case ENGINE:
+                // Lebenszeit 1 s und n Partikel pro Sekunde - nach einer Sekunde sind n Partikel im System
+                engine = new EngineParticleSystem(n, new Vector2f(0, 0), 0, 3.5f, EngineParticleSystem.VELOCITY_BOOST, 100, Time.getSeconds(1), n, new Color(10, 80, 160));
+                for (int i = 0; i < 60; i++) {
+                    engine.update(DT);
+                }
+                break;
+            case ASTEROID:
+                asteroid = new AsteroidParticleSystem(new Vector2f(0, 0), n, new Color(170, 130, 90));
+                break;
+        }
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        switch (type) {
+            case BACKGROUND:
+                background.update(DT);
+                blackhole.consume(background);
+                break;
+            case ENGINE:
+                engine.update(DT);
+                blackhole.consume(engine);
+                break;
+            case EXPLOSION:
+                int count = Math.max(1, n / 100);
+                ExplosionParticleSystem[] explosions = new ExplosionParticleSystem[count];
+                for (int i = 0; i < count; i++) {
+                    explosions[i] = new ExplosionParticleSystem(new Vector2f(i, i), Time.getSeconds(1));
+                }
+                for (int tick = 0; tick < 60; tick++) {
+                    for (ExplosionParticleSystem explosion : explosions) {
+                        explosion.update(DT);
+                    }
+                }
+                blackhole.consume(explosions);
+                break;
+            case ASTEROID:
+                asteroid.setPosition(new Vector2f(1, 1));
+                blackhole.consume(asteroid.getPosition());
+                break;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.particles.ParticleSystem;
+import de.hsmw.tkretzs1.energetic.particles.impl.AsteroidParticleSystem;
+import de.hsmw.tkretzs1.energetic.particles.impl.BackgroundParticleSystem;
+import org.jsfml.graphics.Color;
+import org.jsfml.graphics.RenderStates;
+import org.jsfml.system.Vector2f;
+
+/**
+ * Misst das Zeichnen eines Partikelsystems mit n Partikeln ohne Grafikkarte,
+ * also die Berechnung der Vertices (ParticleSystem.computeVertices) und deren Übergabe an das RenderTarget.
+ * Gemessen werden ruhende Sterne des Hintergrundes, deren Vertices wiederverwendet werden,
+ * und ein bewegter Asteroid, dessen Fragmente in lokalen Koordinaten liegen und nur über die Transformation verschoben werden.
+ *
+ * @author Tom Kretzschmar
+ */
+class ParticleVerticesBenchmark extends Benchmark {
+
+    /**
+     * Asteroid zwischen zwei Frames bewegen statt ruhender Sterne zeichnen
+     */
+    private final boolean moving;
+
+    /**
+     * gezeichnetes Partikelsystem
+     */
+    private ParticleSystem particleSystem;
+
+    /**
+     * RenderTarget ohne Grafikkarte
+     */
+    private NullRenderTarget target;
+
+    /**
+     * Konstruktor.
+     * @param moving Asteroid zwischen zwei Frames bewegen statt ruhender Sterne zeichnen
+     */
+    ParticleVerticesBenchmark(boolean moving) {
+        super("ParticleSystem.computeVertices (" + (moving ? "Asteroid" : "Sterne") + ")");
+        this.moving = moving;
+    }
+
+    @Override
+    public void setup(int n) {
+        if (moving) {
+            particleSystem = new AsteroidParticleSystem(new Vector2f(0, 0), n, new Color(170, 130, 90));
+        } else {
+            BackgroundParticleSystem background = new BackgroundParticleSystem(n);
+            background.fill();
+            particleSystem = background;
+        }
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        if(target == null)
+            target = new NullRenderTarget(blackhole);
+        if(moving)
+            ((AsteroidParticleSystem) particleSystem).setPosition(new Vector2f(1, 1));
+        target.draw(particleSystem, RenderStates.DEFAULT);
+    }
+}
@@ -0,0 +1,119 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.PolygonCollider;
+import de.hsmw.tkretzs1.energetic.utils.Math2D;
+import org.jsfml.graphics.Drawable;
+import org.jsfml.graphics.RenderStates;
+import org.jsfml.graphics.RenderTarget;
+import org.jsfml.system.Time;
+import org.jsfml.system.Vector2f;
+
+import java.util.List;
+
+/**
+ * Misst n Schnitttests zwischen dem Dreieck des Spielers und Kreisen bzw. anderen Dreiecken über den Visitor (Separating Axis Theorem).
+ *
+ * @author Tom Kretzschmar
+ */
+class PolygonIntersectBenchmark extends Benchmark {
+
+    /**
+     * Kollisionskreise der Asteroiden
+     */
+    private CollisionShape[] circles;
+
+    /**
+     * gedrehte Dreiecke an den Positionen der Asteroiden
+     */
+    private PolygonCollider[] polygons;
+
+    PolygonIntersectBenchmark() {
+        super("PolygonCollider.Intersect");
+    }
+
+    @Override
+    public void setup(int n) {
+        List<GameObject> objects = Fixtures.createAsteroids(n);
+        circles = new CollisionShape[n];
+        polygons = new PolygonCollider[n];
+        for (int i = 0; i < n; i++) {
+            circles[i] = objects.get(i).getCollisionShape();
+            polygons[i] = new PolygonCollider(new Vector2f(25, 0), new Vector2f(-15, 20), new Vector2f(-15, -20));
+            new Body(polygons[i], objects.get(i).getPosition(), Math2D.random(360));
+        }
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        int hits = 0;
+        for (int i = 0; i < polygons.length; i++) {
+            if(polygons[i].IntersectVisit(circles[(i + 1) % circles.length]))
+                hits++;
+            if(polygons[i].IntersectVisit(polygons[(i + 1) % polygons.length]))
+                hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    /**
+     * Ruhendes Spielobjekt, das nur Position und Drehung für ein Dreieck bereitstellt.
+     */
+    private static class Body extends GameObject {
+
+        /**
+         * Position
+         */
+        private final Vector2f position;
+
+        /**
+         * Drehwinkel in Grad
+         */
+        private final float rotation;
+
+        Body(PolygonCollider shape, Vector2f position, float rotation) {
+            super(shape);
+            this.position = position;
+            this.rotation = rotation;
+        }
+
+        @Override
+        public void update(Time dt) {
+        }
+
+        @Override
+        public Drawable createSnapshot() {
+            return this;
+        }
+
+        @Override
+        public int getMass() {
+            return 0;
+        }
+
+        @Override
+        public float getRestitution() {
+            return 1;
+        }
+
+        @Override
+        public Vector2f getVelocity() {
+            return Vector2f.ZERO;
+        }
+
+        @Override
+        public Vector2f getPosition() {
+            return position;
+        }
+
+        @Override
+        public float getRotation() {
+            return rotation;
+        }
+
+        @Override
+        public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.Quadtree;
+import de.hsmw.tkretzs1.energetic.core.Game;
+
+import java.util.List;
+
+/**
+ * Misst das Leeren und erneute Befüllen des Quadtrees mit n Asteroiden, wie es in jedem Frame geschieht.
+ *
+ * @author Tom Kretzschmar
+ */
+class QuadtreeInsertBenchmark extends Benchmark {
+
+    /**
+     * Asteroiden, die eingefügt werden
+     */
+    private List<GameObject> objects;
+
+    /**
+     * gemessener Quadtree
+     */
+    private Quadtree quad;
+
+    QuadtreeInsertBenchmark() {
+        super("Quadtree.insert");
+    }
+
+    @Override
+    public void setup(int n) {
+        objects = Fixtures.createAsteroids(n);
+        quad = new Quadtree(0, Game.getInstance().getWorldBounds().getSurroundingRect());
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        quad.clear();
+        for (GameObject object : objects) {
+            quad.insert(object);
+        }
+        blackhole.consume(quad);
+    }
+}
@@ -0,0 +1,55 @@
+package de.hsmw.tkretzs1.energetic.bench;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.Quadtree;
+import de.hsmw.tkretzs1.energetic.core.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Misst die Abfrage möglicher Kollisionspartner für jeden von n Asteroiden aus einem befüllten Quadtree.
+ *
+ * @author Tom Kretzschmar
+ */
+class QuadtreeRetrieveBenchmark extends Benchmark {
+
+    /**
+     * Asteroiden im Quadtree
+     */
+    private List<GameObject> objects;
+
+    /**
+     * gemessener Quadtree
+     */
+    private Quadtree quad;
+
+    /**
+     * wiederverwendete Liste für die möglichen Kollisionspartner
+     */
+    private final List<GameObject> candidates = new ArrayList<>();
+
+    QuadtreeRetrieveBenchmark() {
+        super("Quadtree.retrieve");
+    }
+
+    @Override
+    public void setup(int n) {
+        objects = Fixtures.createAsteroids(n);
+        quad = new Quadtree(0, Game.getInstance().getWorldBounds().getSurroundingRect());
+        for (GameObject object : objects) {
+            quad.insert(object);
+        }
+    }
+
+    @Override
+    public void run(Blackhole blackhole) {
+        int count = 0;
+        for (GameObject object : objects) {
+            candidates.clear();
+            quad.retrieve(candidates, object);
+            count += candidates.size();
+        }
+        blackhole.consume(count);
+    }
+}
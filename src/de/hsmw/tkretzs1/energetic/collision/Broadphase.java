@@ -0,0 +1,47 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+import java.util.List;
+
+/**
+ * Interface für die Vorsortierung der Kollisionserkennung (Broadphase).
+ * Eine Broadphase liefert zu einem Spielobjekt alle Spielobjekte, die mit diesem kollidieren könnten,
+ * sodass die genaue Kollisionsprüfung nur noch für diese Kandidaten durchgeführt werden muss.
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.impl.Quadtree
+ * @see de.hsmw.tkretzs1.energetic.collision.impl.LooseQuadtree
+ * @see de.hsmw.tkretzs1.energetic.collision.impl.SpatialHashGrid
+ * @author Tom Kretzschmar
+ */
+public interface Broadphase {
+
+    /**
+     * Aktualisiert die Broadphase mit den aktuellen Positionen aller Spielobjekte.
+     * Wird einmal pro Simulationsschritt vor den Abfragen aufgerufen.
+     *
+     * @param gameObjects alle Spielobjekte, die zur Kollisionserkennung angemeldet sind
+     */
+    public void update(List<GameObject> gameObjects);
+
+    /**
+     * Gibt alle Objekte zurück, die mit dem übergebenen Objekt kollidieren könnten.
+     * Die Liste kann das Objekt selbst enthalten.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param gameObject Spielobjekt dessen Umgebung geprüft werden soll.
+     * @return Liste der Objekte
+     */
+    public List<GameObject> retrieve(List<GameObject> returnObjects, GameObject gameObject);
+
+    /**
+     * Gibt alle Objekte zurück, die den übergebenen Bereich überlappen könnten.
+     * Wie bei retrieve(List, GameObject) handelt es sich um Kandidaten, die genaue Prüfung erfolgt durch den Aufrufer.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param minX linke Kante des Bereiches
+     * @param minY obere Kante des Bereiches
+     * @param maxX rechte Kante des Bereiches
+     * @param maxY untere Kante des Bereiches
+     * @return Liste der Objekte
+     */
+    public List<GameObject> retrieve(List<GameObject> returnObjects, float minX, float minY, float maxX, float maxY);
+}
@@ -0,0 +1,134 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+import org.jsfml.system.Vector2f;
+
+import java.util.Arrays;
+
+/**
+ * Tabelle der Kollisionsbehandlungen eines Levels, indiziert über die Typen beider Spielobjekte.
+ * Für jedes Typpaar kann eine Behandlung als physikalischer Kontakt (mit Stoßberechnung) oder als Auslöser (Trigger, ohne Stoßberechnung) registriert werden.
+ * Paare ohne Behandlung werden bei der Kollisionsauflösung übersprungen.
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.ObjectType
+ * @author Tom Kretzschmar
+ */
+public class CollisionDispatcher {
+
+    /**
+     * Art des Kontaktes
+     */
+    public enum Contact {
+        /**
+         * keine Behandlung registriert
+         */
+        NONE,
+
+        /**
+         * Auslöser, ohne Stoßberechnung
+         */
+        TRIGGER,
+
+        /**
+         * physikalischer Kontakt, mit Stoßberechnung
+         */
+        PHYSICAL
+    }
+
+    /**
+     * Behandlung mit vertauschten Spielobjekten, für die Gegenrichtung eines registrierten Paares.
+     */
+    private static class SwappedHandler implements CollisionHandler {
+
+        /**
+         * registrierte Behandlung
+         */
+        private final CollisionHandler handler;
+
+        SwappedHandler(CollisionHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void onContact(GameObject a, GameObject b, Vector2f velocityA, Vector2f velocityB) {
+            handler.onContact(b, a, velocityB, velocityA);
+        }
+    }
+
+    /**
+     * Behandlungen je Typpaar
+     */
+    private final CollisionHandler[][] handlers = new CollisionHandler[ObjectType.values().length][ObjectType.values().length];
+
+    /**
+     * Art des Kontaktes je Typpaar
+     */
+    private final Contact[][] contacts = new Contact[ObjectType.values().length][ObjectType.values().length];
+
+    /**
+     * Konstruktor.
+     * Legt eine leere Tabelle an, alle Paare werden übersprungen.
+     */
+    public CollisionDispatcher() {
+        for (Contact[] row : contacts) {
+            Arrays.fill(row, Contact.NONE);
+        }
+    }
+
+    /**
+     * Registriert einen physikalischen Kontakt. Der Stoß wird berechnet, wenn sich die Objekte aufeinander zu bewegen.
+     * @param a erster Typ
+     * @param b zweiter Typ
+     * @param handler Behandlung, erhält Objekte in der Reihenfolge a, b
+     * @return dieser Dispatcher, zum Verketten
+     */
+    public CollisionDispatcher registerPhysical(ObjectType a, ObjectType b, CollisionHandler handler) {
+        return register(a, b, Contact.PHYSICAL, handler);
+    }
+
+    /**
+     * Registriert einen Auslöser. Die Behandlung wird bei jeder Überlappung aufgerufen, ein Stoß wird nicht berechnet.
+     * @param a erster Typ
+     * @param b zweiter Typ
+     * @param handler Behandlung, erhält Objekte in der Reihenfolge a, b
+     * @return dieser Dispatcher, zum Verketten
+     */
+    public CollisionDispatcher registerTrigger(ObjectType a, ObjectType b, CollisionHandler handler) {
+        return register(a, b, Contact.TRIGGER, handler);
+    }
+
+    /**
+     * Gibt die Art des Kontaktes zweier Spielobjekte zurück.
+     * @param a erstes Spielobjekt
+     * @param b zweites Spielobjekt
+     * @return Art des Kontaktes
+     */
+    public Contact getContact(GameObject a, GameObject b) {
+        return contacts[a.getObjectType().ordinal()][b.getObjectType().ordinal()];
+    }
+
+    /**
+     * Ruft die Behandlung für zwei Spielobjekte auf.
+     * @param a erstes Spielobjekt
+     * @param b zweites Spielobjekt
+     * @param velocityA neue Geschwindigkeit von a; null bei Auslösern
+     * @param velocityB neue Geschwindigkeit von b; null bei Auslösern
+     */
+    public void dispatch(GameObject a, GameObject b, Vector2f velocityA, Vector2f velocityB) {
+        CollisionHandler handler = handlers[a.getObjectType().ordinal()][b.getObjectType().ordinal()];
+        if (handler != null)
+            handler.onContact(a, b, velocityA, velocityB);
+    }
+
+    /**
+     * Trägt die Behandlung für beide Richtungen des Typpaares ein.
+     */
+    private CollisionDispatcher register(ObjectType a, ObjectType b, Contact contact, CollisionHandler handler) {
+        handlers[a.ordinal()][b.ordinal()] = handler;
+        contacts[a.ordinal()][b.ordinal()] = contact;
+        if (a != b) {
+            handlers[b.ordinal()][a.ordinal()] = new SwappedHandler(handler);
+            contacts[b.ordinal()][a.ordinal()] = contact;
+        }
+        return this;
+    }
+}
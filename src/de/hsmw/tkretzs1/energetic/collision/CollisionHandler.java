@@ -0,0 +1,24 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+import org.jsfml.system.Vector2f;
+
+/**
+ * Behandlung der Kollision zweier Spielobjekttypen.
+ * Wird im CollisionDispatcher für ein Paar von Typen registriert. Die Spielobjekte werden immer in der Reihenfolge der Registrierung übergeben.
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.CollisionDispatcher
+ * @author Tom Kretzschmar
+ */
+public interface CollisionHandler {
+
+    /**
+     * Behandelt die Kollision.
+     * Bei physikalischen Kontakten werden die Geschwindigkeiten nach dem Stoß übergeben, bei Auslösern (Trigger) wird kein Stoß berechnet.
+     *
+     * @param a Spielobjekt des ersten registrierten Typs
+     * @param b Spielobjekt des zweiten registrierten Typs
+     * @param velocityA neue Geschwindigkeit von a; null bei Auslösern
+     * @param velocityB neue Geschwindigkeit von b; null bei Auslösern
+     */
+    public void onContact(GameObject a, GameObject b, Vector2f velocityA, Vector2f velocityB);
+}
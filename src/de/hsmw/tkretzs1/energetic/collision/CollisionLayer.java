@@ -0,0 +1,53 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+/**
+ * Kollisionskategorien der Spielobjekte als Bitmasken.
+ * Jedes Spielobjekt gehört zu einer Kategorie und besitzt eine Maske der Kategorien, mit denen es kollidieren kann.
+ * Welche Kategorien miteinander kollidieren, legt jedes Level über eine CollisionMatrix fest.
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.CollisionMatrix
+ * @author Tom Kretzschmar
+ */
+public final class CollisionLayer {
+
+    /**
+     * Standardkategorie für Spielobjekte ohne eigene Kategorie
+     */
+    public static final int DEFAULT = 1;
+
+    /**
+     * Asteroiden (auch grüne Asteroiden)
+     */
+    public static final int ASTEROID = 1 << 1;
+
+    /**
+     * Planet
+     */
+    public static final int PLANET = 1 << 2;
+
+    /**
+     * Spieler
+     */
+    public static final int PLAYER = 1 << 3;
+
+    /**
+     * Projektile
+     */
+    public static final int PROJECTILE = 1 << 4;
+
+    /**
+     * EnergyPickups
+     */
+    public static final int PICKUP = 1 << 5;
+
+    /**
+     * alle Kategorien
+     */
+    public static final int ALL = 0xFFFFFFFF;
+
+    /**
+     * Keine Instanzen, nur Konstanten.
+     */
+    private CollisionLayer() {
+    }
+}
@@ -0,0 +1,62 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+/**
+ * Kollisionsmatrix eines Levels.
+ * Legt fest, welche Kollisionskategorien miteinander kollidieren. Paare, die nicht freigegeben sind, werden bereits vor der genauen
+ * Kollisionsprüfung verworfen, da ihre Kollisionsauflösung ohnehin keine Wirkung hätte.
+ *
+ * Beispiel:
+ * <pre>
+ * new CollisionMatrix()
+ *         .enable(CollisionLayer.ASTEROID, CollisionLayer.ASTEROID)
+ *         .enable(CollisionLayer.PLAYER, CollisionLayer.PICKUP);
+ * </pre>
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.CollisionLayer
+ * @author Tom Kretzschmar
+ */
+public class CollisionMatrix {
+
+    /**
+     * Maske der kollidierenden Kategorien je Kategoriebit
+     */
+    private final int[] masks = new int[32];
+
+    /**
+     * Gibt die Kollision zwischen zwei Kategorien frei (in beide Richtungen).
+     * @param categoryA erste Kategorie (auch mehrere Bits)
+     * @param categoryB zweite Kategorie (auch mehrere Bits)
+     * @return diese Matrix, zum Verketten
+     */
+    public CollisionMatrix enable(int categoryA, int categoryB) {
+        for (int bit = 0; bit < masks.length; bit++) {
+            if ((categoryA & (1 << bit)) != 0)
+                masks[bit] |= categoryB;
+            if ((categoryB & (1 << bit)) != 0)
+                masks[bit] |= categoryA;
+        }
+        return this;
+    }
+
+    /**
+     * Gibt die Maske aller Kategorien zurück, mit denen die übergebene Kategorie kollidiert.
+     * @param category Kategorie (auch mehrere Bits)
+     * @return Kollisionsmaske
+     */
+    public int getMask(int category) {
+        int mask = 0;
+        for (int bit = 0; bit < masks.length; bit++) {
+            if ((category & (1 << bit)) != 0)
+                mask |= masks[bit];
+        }
+        return mask;
+    }
+
+    /**
+     * Setzt die Kollisionsmaske des Spielobjektes passend zu seiner Kategorie.
+     * @param gameObject Spielobjekt
+     */
+    public void apply(GameObject gameObject) {
+        gameObject.setCollisionMask(getMask(gameObject.getCollisionCategory()));
+    }
+}
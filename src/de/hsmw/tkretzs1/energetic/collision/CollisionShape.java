@@ -2,22 +2,79 @@ package de.hsmw.tkretzs1.energetic.collision;
 
 
 import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
-import org.jsfml.system.Vector2f;
+import de.hsmw.tkretzs1.energetic.collision.impl.PolygonCollider;
 
 /**
  *  Visitor interface.
  *  Bei weiteren Implementierungen von CollisionShape muss das Interface um weitere Intersect Methoden erweitert werden.
+ *  Jede Kollisionsmaske hält ihre BoundingBox in Weltkoordinaten vor, die von allen Broadphases zur Einsortierung verwendet wird.
  *
  *  @author Tom Kretzschmar
  */
 public interface CollisionShape {
     public boolean IntersectVisit(CollisionShape other);
     public boolean Intersect(CircleCollider circleCollider);
+    public boolean Intersect(PolygonCollider polygonCollider);
 
     /**
-     * Benötigt um die Position der Kollisionsmaske bei Bewegung des unterliegenden Spielobjektes zu aktualisieren.
+     * Setzt das Spielobjekt, zu dem die Kollisionsmaske gehört. Die Position wird bei Bedarf direkt vom Spielobjekt gelesen, nicht bei jeder Bewegung kopiert.
+     * Wird vom Konstruktor des GameObjects aufgerufen, das Spielobjekt darf dabei noch nicht gelesen werden.
      *
-     * @param position Die neue Poisition des Elementes.
+     * @param owner Spielobjekt, zu dem die Kollisionsmaske gehört
      */
-    public void updatePosition(Vector2f position);
+    public void setOwner(GameObject owner);
+
+    /**
+     * Gibt die linke Kante der BoundingBox in Weltkoordinaten zurück. Bei Bewegung umfasst die BoundingBox die ganze überstrichene Fläche.
+     * @return linke Kante
+     */
+    public float getMinX();
+
+    /**
+     * Gibt die obere Kante der BoundingBox in Weltkoordinaten zurück.
+     * @return obere Kante
+     */
+    public float getMinY();
+
+    /**
+     * Gibt die rechte Kante der BoundingBox in Weltkoordinaten zurück.
+     * @return rechte Kante
+     */
+    public float getMaxX();
+
+    /**
+     * Gibt die untere Kante der BoundingBox in Weltkoordinaten zurück.
+     * @return untere Kante
+     */
+    public float getMaxY();
+
+    /**
+     * Prüft, ob die Kollisionsmaske das übergebene Rechteck überlappt.
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Überlappung vorhanden
+     */
+    public boolean intersectsRect(float minX, float minY, float maxX, float maxY);
+
+    /**
+     * Prüft, ob die Kollisionsmaske den übergebenen Kreis überlappt.
+     * @param centerX Mittelpunkt - x
+     * @param centerY Mittelpunkt - y
+     * @param radius Radius
+     * @return Überlappung vorhanden
+     */
+    public boolean intersectsCircle(float centerX, float centerY, float radius);
+
+    /**
+     * Berechnet den Abstand vom Startpunkt eines Strahls bis zum ersten Schnittpunkt mit der Kollisionsmaske.
+     * @param originX Startpunkt - x
+     * @param originY Startpunkt - y
+     * @param directionX normierte Richtung - x
+     * @param directionY normierte Richtung - y
+     * @param maxDistance Länge des Strahls
+     * @return Abstand; 0 wenn der Startpunkt in der Kollisionsmaske liegt; -1 wenn der Strahl sie nicht trifft
+     */
+    public float raycast(float originX, float originY, float directionX, float directionY, float maxDistance);
 }
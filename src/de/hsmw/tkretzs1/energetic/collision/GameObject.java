@@ -1,9 +1,14 @@
 package de.hsmw.tkretzs1.energetic.collision;
 
+import de.hsmw.tkretzs1.energetic.particles.QuadBatch;
 import org.jsfml.graphics.Drawable;
+import org.jsfml.graphics.RenderStates;
+import org.jsfml.graphics.RenderTarget;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Basisklasse für alle Spielobjekte, die miteiander interagieren müssen und u.U. physikalisch simuliert werden.
  * Objekte die von dieser Klasse erben können geupdatet und gezeichnet, sowie zur Kollisionserkennung angemeldet werden.
@@ -12,6 +17,56 @@ import org.jsfml.system.Vector2f;
  */
 public abstract class GameObject implements Drawable {
 
+    /**
+     * Zähler zur Vergabe eindeutiger Ids
+     */
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Geschwindigkeit in Pixel pro Sekunde, unter der ein Spielobjekt als ruhend gilt
+     */
+    public static final float SLEEP_VELOCITY = 1f;
+
+    /**
+     * Anzahl der Simulationsschritte, die ein Spielobjekt ruhen muss, bevor es schlafen gelegt wird
+     */
+    private static final int SLEEP_STEPS = 60;
+
+    /**
+     * Eindeutige, unveränderliche Id des Spielobjektes. Später angelegte Objekte haben eine höhere Id.
+     */
+    private final int id = nextId.getAndIncrement();
+
+    /**
+     * Index des Spielobjektes in der Liste der aktuellen Kollisionserkennung.
+     * Wird von Game.detectCollisions() gesetzt und von der Broadphase zur Angabe von Kollisionspaaren verwendet.
+     */
+    private int collisionIndex;
+
+    /**
+     * Markierung der Broadphase beim Abgleich mit dem vorherigen Simulationsschritt, ersetzt eine Menge der vorhandenen Objekte.
+     * @see de.hsmw.tkretzs1.energetic.collision.impl.SweepAndPrune
+     */
+    private int broadphaseStamp;
+
+    /**
+     * Kollisionskategorie des Spielobjektes als Bitmaske.
+     * @see CollisionLayer
+     */
+    private int collisionCategory = CollisionLayer.DEFAULT;
+
+    /**
+     * Bitmaske der Kategorien, mit denen das Spielobjekt kollidieren kann. Wird von der CollisionMatrix des Levels gesetzt.
+     * @see CollisionMatrix
+     */
+    private int collisionMask = CollisionLayer.ALL;
+
+    /**
+     * Typ des Spielobjektes für die Zuordnung der Kollisionsbehandlung.
+     * @see CollisionDispatcher
+     */
+    private ObjectType objectType = ObjectType.OTHER;
+
     /**
      * Kollisionsumriss welches das Spielobjekt zur Kollisionsberechnung abstrahiert (oft als Kollisionsbox bezeichnet!).
      */
@@ -22,13 +77,40 @@ public abstract class GameObject implements Drawable {
      */
     protected boolean alive = true;
 
+    /**
+     * Position des Spielobjektes nach dem vorherigen Simulationsschritt. Wird für die Interpolation beim Zeichnen und für überstrichene Kollisionsmasken benötigt.
+     */
+    private Vector2f previousPosition;
+
+    /**
+     * Flag ob Spielobjekt schläft. Schlafende Spielobjekte werden nicht simuliert und wie statische Objekte nur von bewegten Objekten abgefragt.
+     */
+    private boolean sleeping;
+
+    /**
+     * Anzahl der aufeinanderfolgenden Simulationsschritte, in denen das Spielobjekt geruht hat
+     */
+    private int restingSteps;
+
+    /**
+     * Während des Schlafes gesammelte, noch nicht angewendete Geschwindigkeitsänderung durch äußere Beschleunigung - x
+     */
+    private float pendingVelocityX;
+
+    /**
+     * Während des Schlafes gesammelte, noch nicht angewendete Geschwindigkeitsänderung durch äußere Beschleunigung - y
+     */
+    private float pendingVelocityY;
+
     /**
      * Konstruktor.
      * Muss von jeder implementierenden Klasse aufgerufen werden, um die Kollisionsbox zu setzen.
+     * Die Kollisionsbox liest Position und Drehung direkt vom Spielobjekt, sie muss bei Bewegung nicht aktualisiert werden.
      * @param collisionShape
      */
     public GameObject(CollisionShape collisionShape){
         this.collisionShape = collisionShape;
+        collisionShape.setOwner(this);
     }
 
     /**
@@ -38,6 +120,60 @@ public abstract class GameObject implements Drawable {
      */
     public abstract void update(Time dt);
 
+    /**
+     * Erzeugt einen unveränderlichen Schnappschuss des Spielobjektes zum Zeichnen.
+     * Der Schnappschuss darf nur Kopien des aktuellen Zustands enthalten, da er im Renderthread gezeichnet wird, während das Spielobjekt weiter simuliert wird.
+     * @return zeichenbarer Schnappschuss
+     */
+    public abstract Drawable createSnapshot();
+
+    /**
+     * Fügt die aus Partikeln bestehenden Teile des Spielobjektes einem QuadBatch hinzu, der sie gemeinsam mit denen anderer Spielobjekte zeichnet.
+     * Die übrigen Teile werden anschließend mit drawUnbatched() gezeichnet. Standardmäßig wird nichts hinzugefügt.
+     *
+     * @param batch QuadBatch des Levels
+     * @param offsetX Verschiebung von der aktuellen an die gezeichnete (interpolierte) Position - x
+     * @param offsetY Verschiebung von der aktuellen an die gezeichnete (interpolierte) Position - y
+     */
+    public void addToBatch(QuadBatch batch, float offsetX, float offsetY) {
+    }
+
+    /**
+     * Zeichnet alle Teile des Spielobjektes, die nicht mit addToBatch() einem QuadBatch hinzugefügt wurden.
+     * Standardmäßig wird das gesamte Spielobjekt gezeichnet. Die RenderStates enthalten dieselbe Verschiebung wie beim Hinzufügen zum QuadBatch.
+     *
+     * @param target Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     */
+    public void drawUnbatched(RenderTarget target, RenderStates renderStates) {
+        draw(target, renderStates);
+    }
+
+    /**
+     * Prüft, ob die Darstellung des Spielobjektes das übergebene Rechteck überlappen kann, z.B. um nicht sichtbare Spielobjekte nicht zu zeichnen.
+     * Verwendet die BoundingBox der Kollisionsform, vergrößert um den Überstand der Darstellung.
+     *
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Darstellung überlappt das Rechteck möglicherweise
+     */
+    public boolean isVisibleIn(float minX, float minY, float maxX, float maxY) {
+        float margin = getDrawMargin();
+        return collisionShape.getMaxX() + margin >= minX && collisionShape.getMinX() - margin <= maxX
+                && collisionShape.getMaxY() + margin >= minY && collisionShape.getMinY() - margin <= maxY;
+    }
+
+    /**
+     * Gibt zurück, wie weit die Darstellung des Spielobjektes höchstens über seine Kollisionsform hinausragt.
+     * Standardmäßig deckt die Kollisionsform die Darstellung vollständig ab.
+     * @return Überstand in Pixeln
+     */
+    protected float getDrawMargin() {
+        return 0;
+    }
+
     /**
      * Prüft auf Kollision.
      * Prüft die Überlappung der eigenen Kollisionsbox mit der übergebenen.
@@ -48,6 +184,16 @@ public abstract class GameObject implements Drawable {
         return collisionShape.IntersectVisit(other.collisionShape);
     }
 
+    /**
+     * Prüft anhand der Kollisionskategorien, ob eine Kollision mit dem übergebenen Spielobjekt überhaupt behandelt werden muss.
+     * Wird von der Broadphase vor der genauen Prüfung mit intersects() aufgerufen.
+     * @param other Spielobjekt mit dem geprüft werden soll.
+     * @return beide Kategorien sind in der Maske des jeweils anderen enthalten
+     */
+    public boolean canCollide(GameObject other){
+        return (collisionCategory & other.collisionMask) != 0 && (other.collisionCategory & collisionMask) != 0;
+    }
+
     /**
      * Gibt Kollisionsbox zurück.
      * @return Kollisionsbox
@@ -57,12 +203,181 @@ public abstract class GameObject implements Drawable {
     }
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Setzt die Geschwindigkeit des Spielobjektes, z.B. nach einem Stoß.
+     * Standardmäßig wird das Spielobjekt durch Kollisionen nicht bewegt.
+     * @param velocity neue Geschwindigkeit
+     */
+    public void setVelocity(Vector2f velocity) {
+    }
+
+    /**
+     * Zerstört das Spielobjekt. Es wird im nächsten Simulationsschritt aus dem Level entfernt.
+     */
+    public void destroy() {
+        alive = false;
+    }
+
+    /**
+     * Gibt zurück, ob das Spielobjekt statisch ist, sich also nie bewegt.
+     * Statische Spielobjekte werden in einer eigenen Broadphase verwaltet, die nur bei Änderungen neu aufgebaut wird, und nur von bewegten Objekten abgefragt.
+     * @return statisch
+     */
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * Gibt zurück, ob das Spielobjekt schlafen gelegt werden darf, wenn es ruht.
+     * Nur Spielobjekte, die sich ohne äußeren Einfluss (Stoß) nicht wieder in Bewegung setzen, dürfen schlafen.
+     * @return darf schlafen
      */
-    public abstract void resolveCollision(Vector2f newVelocity, GameObject other);
+    protected boolean canSleep() {
+        return false;
+    }
+
+    /**
+     * Gibt zurück, ob das Spielobjekt schläft.
+     * @return schläft
+     */
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Weckt das Spielobjekt auf, z.B. nach einem Stoß. Es wird ab dem nächsten Simulationsschritt wieder simuliert.
+     */
+    public void wake() {
+        sleeping = false;
+        restingSteps = 0;
+    }
+
+    /**
+     * Ändert die Geschwindigkeit durch eine äußere Beschleunigung, z.B. die Gravitation.
+     * Ein schlafendes Spielobjekt sammelt die Änderungen, bis ihr Betrag SLEEP_VELOCITY übersteigt. Erst dann wird es geweckt und die gesamte
+     * gesammelte Änderung angewendet, sodass auch schwache, dauerhafte Anziehung nicht verloren geht.
+     * Wache Objekte werden nicht erneut geweckt, damit ihr Ruhezähler nicht zurückgesetzt wird. Eine noch gesammelte Änderung (z.B. nach einem Stoß) wird mit angewendet.
+     * @param dvx Geschwindigkeitsänderung - x
+     * @param dvy Geschwindigkeitsänderung - y
+     */
+    public void accelerate(float dvx, float dvy) {
+        dvx += pendingVelocityX;
+        dvy += pendingVelocityY;
+        if(sleeping && dvx * dvx + dvy * dvy <= SLEEP_VELOCITY * SLEEP_VELOCITY) {
+            pendingVelocityX = dvx;
+            pendingVelocityY = dvy;
+            return;
+        }
+        pendingVelocityX = 0;
+        pendingVelocityY = 0;
+        if(sleeping)
+            wake();
+
+        Vector2f velocity = getVelocity();
+        setVelocity(new Vector2f(velocity.x + dvx, velocity.y + dvy));
+    }
+
+    /**
+     * Aktualisiert den Schlafzustand nach einem Simulationsschritt.
+     * Ruht das Spielobjekt SLEEP_STEPS Schritte lang, wird es schlafen gelegt.
+     */
+    public void updateSleepState() {
+        Vector2f velocity = getVelocity();
+        if(!canSleep() || velocity.x * velocity.x + velocity.y * velocity.y > SLEEP_VELOCITY * SLEEP_VELOCITY) {
+            restingSteps = 0;
+            return;
+        }
+        if(++restingSteps >= SLEEP_STEPS)
+            sleeping = true;
+    }
+
+    /**
+     * Gibt die eindeutige Id des Spielobjektes zurück.
+     * @return Id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gibt den Index des Spielobjektes in der Liste der aktuellen Kollisionserkennung zurück.
+     * @return Index
+     */
+    public int getCollisionIndex() {
+        return collisionIndex;
+    }
+
+    /**
+     * Setzt den Index des Spielobjektes in der Liste der aktuellen Kollisionserkennung.
+     * @param collisionIndex Index
+     */
+    public void setCollisionIndex(int collisionIndex) {
+        this.collisionIndex = collisionIndex;
+    }
+
+    /**
+     * Gibt die Markierung der Broadphase zurück.
+     * @return Markierung
+     */
+    public int getBroadphaseStamp() {
+        return broadphaseStamp;
+    }
+
+    /**
+     * Setzt die Markierung der Broadphase.
+     * @param broadphaseStamp Markierung
+     */
+    public void setBroadphaseStamp(int broadphaseStamp) {
+        this.broadphaseStamp = broadphaseStamp;
+    }
+
+    /**
+     * Gibt den Typ des Spielobjektes zurück.
+     * @return Typ
+     */
+    public ObjectType getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * Setzt den Typ des Spielobjektes.
+     * @param objectType Typ
+     */
+    protected void setObjectType(ObjectType objectType) {
+        this.objectType = objectType;
+    }
+
+    /**
+     * Gibt die Kollisionskategorie des Spielobjektes zurück.
+     * @return Kategorie als Bitmaske
+     */
+    public int getCollisionCategory() {
+        return collisionCategory;
+    }
+
+    /**
+     * Setzt die Kollisionskategorie des Spielobjektes.
+     * @param collisionCategory Kategorie als Bitmaske
+     * @see CollisionLayer
+     */
+    protected void setCollisionCategory(int collisionCategory) {
+        this.collisionCategory = collisionCategory;
+    }
+
+    /**
+     * Gibt die Bitmaske der Kategorien zurück, mit denen das Spielobjekt kollidieren kann.
+     * @return Kollisionsmaske
+     */
+    public int getCollisionMask() {
+        return collisionMask;
+    }
+
+    /**
+     * Setzt die Bitmaske der Kategorien, mit denen das Spielobjekt kollidieren kann.
+     * @param collisionMask Kollisionsmaske
+     */
+    public void setCollisionMask(int collisionMask) {
+        this.collisionMask = collisionMask;
+    }
 
     /**
      * Gibt zurück, ob Spielobjekt noch lebt.
@@ -96,4 +411,41 @@ public abstract class GameObject implements Drawable {
      */
     public abstract Vector2f getPosition();
 
+    /**
+     * Gibt den Drehwinkel des Spielobjektes zurück, um den die Kollisionsbox gedreht wird.
+     * @return Winkel in Grad, im Uhrzeigersinn
+     */
+    public float getRotation() {
+        return 0;
+    }
+
+    /**
+     * Gibt die Position des Spielobjektes vor dem aktuellen Simulationsschritt zurück.
+     * @return vorherige Position; aktuelle Position, wenn noch kein Zustand gespeichert wurde
+     */
+    public Vector2f getPreviousPosition() {
+        return previousPosition != null ? previousPosition : getPosition();
+    }
+
+    /**
+     * Speichert den aktuellen Zustand als vorherigen Zustand.
+     * Muss vor jedem Simulationsschritt aufgerufen werden, damit beim Zeichnen zwischen den beiden letzten Zuständen interpoliert werden kann.
+     */
+    public void storeState() {
+        previousPosition = getPosition();
+    }
+
+    /**
+     * Gibt die zwischen vorherigem und aktuellem Simulationsschritt interpolierte Position zurück.
+     * Hat sich das Spielobjekt im letzten Simulationsschritt nicht bewegt, wird die aktuelle Position selbst zurückgegeben, ohne einen neuen Vektor anzulegen.
+     * @param alpha Interpolationsfaktor zwischen 0 (vorheriger Zustand) und 1 (aktueller Zustand)
+     * @return interpolierte Position
+     */
+    public Vector2f getInterpolatedPosition(float alpha) {
+        Vector2f position = getPosition();
+        if(previousPosition == null || alpha >= 1 || previousPosition.equals(position))
+            return position;
+        return new Vector2f(previousPosition.x + (position.x - previousPosition.x) * alpha, previousPosition.y + (position.y - previousPosition.y) * alpha);
+    }
+
 }
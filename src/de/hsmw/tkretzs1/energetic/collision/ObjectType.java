@@ -0,0 +1,41 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+/**
+ * Typ eines Spielobjektes für die Zuordnung der Kollisionsbehandlung.
+ * Die Ordinalzahl dient als Index in die Tabelle des CollisionDispatchers.
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.CollisionDispatcher
+ * @author Tom Kretzschmar
+ */
+public enum ObjectType {
+
+    /**
+     * Spielobjekt ohne eigene Kollisionsbehandlung
+     */
+    OTHER,
+
+    /**
+     * Asteroid (auch grüne Asteroiden)
+     */
+    ASTEROID,
+
+    /**
+     * Planet
+     */
+    PLANET,
+
+    /**
+     * Spieler
+     */
+    PLAYER,
+
+    /**
+     * Projektil
+     */
+    PROJECTILE,
+
+    /**
+     * EnergyPickup
+     */
+    PICKUP
+}
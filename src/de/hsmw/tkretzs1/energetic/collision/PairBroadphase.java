@@ -0,0 +1,23 @@
+package de.hsmw.tkretzs1.energetic.collision;
+
+import de.hsmw.tkretzs1.energetic.collision.impl.CollisionPairBuffer;
+
+/**
+ * Erweiterung der Broadphase für Verfahren, die mögliche Kollisionspaare direkt ermitteln können.
+ * Jedes Paar wird genau einmal gemeldet, ein nachträgliches Entfernen doppelter Paare ist nicht nötig. Die genaue Prüfung übernimmt die CircleBatch.
+ *
+ * @see de.hsmw.tkretzs1.energetic.collision.impl.SweepAndPrune
+ * @author Tom Kretzschmar
+ */
+public interface PairBroadphase extends Broadphase {
+
+    /**
+     * Ermittelt alle möglichen Kollisionspaare der zuletzt mit update() übergebenen Spielobjekte.
+     * Kandidaten werden anhand der Kollisionskategorien gefiltert, jedes Paar wird genau einmal als Paar der Kollisionsindizes hinzugefügt.
+     *
+     * @param collisionPairs Puffer, dem die möglichen Kollisionspaare hinzugefügt werden
+     * @see GameObject#getCollisionIndex()
+     * @see de.hsmw.tkretzs1.energetic.collision.impl.CircleBatch
+     */
+    public void findPairs(CollisionPairBuffer collisionPairs);
+}
@@ -0,0 +1,166 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.system.Vector2f;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gebündelte genaue Kollisionsprüfung (Narrowphase) für Kollisionskreise.
+ * Mittelpunkte und Radien aller Spielobjekte werden je Simulationsschritt in primitive Arrays kopiert (Structure of Arrays), indiziert über den Kollisionsindex.
+ * Die Kandidatenpaare der Broadphase werden dann in einer engen Schleife über quadrierte Abstände geprüft, ohne Visitor, ohne Wurzel und ohne Speicheranforderung.
+ * Überstrichene Kreise schneller Objekte werden über den Zeitpunkt der Berührung geprüft, nur Paare mit anderen Kollisionsumrissen über den Visitor.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider
+ */
+public class CircleBatch {
+
+    /**
+     * x-Koordinaten der Mittelpunkte je Kollisionsindex
+     */
+    private float[] x = new float[64];
+
+    /**
+     * y-Koordinaten der Mittelpunkte je Kollisionsindex
+     */
+    private float[] y = new float[64];
+
+    /**
+     * x-Koordinaten der Startpositionen überstrichener Kreise je Kollisionsindex
+     */
+    private float[] startX = new float[64];
+
+    /**
+     * y-Koordinaten der Startpositionen überstrichener Kreise je Kollisionsindex
+     */
+    private float[] startY = new float[64];
+
+    /**
+     * Kreis wurde im Simulationsschritt überstrichen, je Kollisionsindex
+     */
+    private boolean[] swept = new boolean[64];
+
+    /**
+     * Radien je Kollisionsindex, negativ für Umrisse, die keine Kreise sind
+     */
+    private float[] radius = new float[64];
+
+    /**
+     * Kollisionsumrisse je Kollisionsindex, für die Prüfung über den Visitor
+     */
+    private CollisionShape[] shapes = new CollisionShape[64];
+
+    /**
+     * Anzahl der geladenen Spielobjekte
+     */
+    private int count;
+
+    /**
+     * Lädt die Kollisionsumrisse der Spielobjekte in die Arrays. Der Index entspricht dem Kollisionsindex.
+     * @param gameObjects Spielobjekte der aktuellen Kollisionserkennung
+     */
+    public void load(List<GameObject> gameObjects) {
+        ensureCapacity(gameObjects.size());
+        for (int i = count; i > gameObjects.size(); i--) {
+            shapes[i - 1] = null;
+        }
+        count = gameObjects.size();
+
+        for (int i = 0; i < count; i++) {
+            CollisionShape shape = gameObjects.get(i).getCollisionShape();
+            shapes[i] = shape;
+            if (shape instanceof CircleCollider) {
+                CircleCollider circleCollider = (CircleCollider) shape;
+                // BoundingBox hier berechnen, damit die parallelen Abfragen sie nur noch lesen
+                circleCollider.refresh();
+                Vector2f position = circleCollider.getPosition();
+                Vector2f start = circleCollider.getStartPosition();
+                x[i] = position.x;
+                y[i] = position.y;
+                radius[i] = circleCollider.getRadius();
+                startX[i] = start.x;
+                startY[i] = start.y;
+                swept[i] = circleCollider.isSwept();
+            } else {
+                // Weltkoordinaten von Polygonen hier berechnen, damit die parallele Prüfung sie nur noch liest
+                if (shape instanceof PolygonCollider)
+                    ((PolygonCollider) shape).refresh();
+                radius[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * Prüft alle Paare des Puffers genau auf Kollision und entfernt die Paare ohne Kollision.
+     * Die Reihenfolge der verbleibenden Paare bleibt erhalten.
+     * @param collisionPairs Kandidatenpaare aus der Broadphase, enthält danach nur noch kollidierende Paare
+     */
+    public void filter(CollisionPairBuffer collisionPairs) {
+        int kept = 0;
+        for (int i = 0; i < collisionPairs.size(); i++) {
+            if (intersects(collisionPairs.getFirst(i), collisionPairs.getSecond(i))) {
+                collisionPairs.copy(i, kept);
+                kept++;
+            }
+        }
+        collisionPairs.truncate(kept);
+    }
+
+    /**
+     * Prüft einen Bereich der Paare genau auf Kollision und fügt die kollidierenden Paare einem anderen Puffer hinzu.
+     * Der Quellpuffer wird nur gelesen, sodass mehrere Bereiche gleichzeitig geprüft werden können.
+     * @param candidates Kandidatenpaare aus der Broadphase
+     * @param from erstes zu prüfendes Paar
+     * @param to Ende des Bereiches (exklusiv)
+     * @param collisionPairs Puffer, dem die kollidierenden Paare hinzugefügt werden
+     */
+    public void filter(CollisionPairBuffer candidates, int from, int to, CollisionPairBuffer collisionPairs) {
+        for (int i = from; i < to; i++) {
+            int first = candidates.getFirst(i);
+            int second = candidates.getSecond(i);
+            if (intersects(first, second))
+                collisionPairs.add(first, second);
+        }
+    }
+
+    /**
+     * Prüft zwei geladene Objekte auf Kollision.
+     * @param a Kollisionsindex des ersten Objektes
+     * @param b Kollisionsindex des zweiten Objektes
+     * @return Kollision vorhanden
+     */
+    public boolean intersects(int a, int b) {
+        float ra = radius[a];
+        float rb = radius[b];
+        if (ra < 0 || rb < 0)
+            return shapes[a].IntersectVisit(shapes[b]);
+        if (swept[a] || swept[b])
+            return CircleCollider.timeOfImpact(startX[a], startY[a], x[a], y[a], ra, startX[b], startY[b], x[b], y[b], rb) >= 0;
+
+        float dx = x[b] - x[a];
+        float dy = y[b] - y[a];
+        float r = ra + rb;
+        return dx * dx + dy * dy <= r * r;
+    }
+
+    /**
+     * Vergrößert die Arrays bei Bedarf.
+     * @param capacity benötigte Kapazität
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= x.length)
+            return;
+
+        int size = Math.max(capacity, x.length * 2);
+        x = Arrays.copyOf(x, size);
+        y = Arrays.copyOf(y, size);
+        radius = Arrays.copyOf(radius, size);
+        startX = Arrays.copyOf(startX, size);
+        startY = Arrays.copyOf(startY, size);
+        swept = Arrays.copyOf(swept, size);
+        shapes = Arrays.copyOf(shapes, size);
+    }
+}
@@ -1,11 +1,14 @@
 package de.hsmw.tkretzs1.energetic.collision.impl;
 
 import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
-import de.hsmw.tkretzs1.energetic.utils.Math2D;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
 import org.jsfml.system.Vector2f;
 
 /**
  * Implementierung des CollisionShapes als Kreis.
+ * Der Mittelpunkt wird nicht kopiert, sondern bei Bedarf direkt von der Position des Spielobjektes gelesen.
+ * Die BoundingBox wird beim ersten Zugriff nach einer Bewegung neu berechnet und bis zur nächsten Bewegung vorgehalten,
+ * die Kollisionserkennung stößt dies über {@link #refresh()} vor der parallelen Prüfung an.
  *
  * @author Tom Kretzschmar
  * @see de.hsmw.tkretzs1.energetic.collision.CollisionShape
@@ -15,30 +18,51 @@ public class CircleCollider implements CollisionShape {
     /**
      * Radius des Kollisionskreises
      */
-    public int radius;
+    private final float radius;
 
     /**
-     * Position - x-Koordinate
-     *
+     * Kreis wird über die im Simulationsschritt zurückgelegte Strecke geprüft (Continuous Collision Detection), für schnelle Objekte
+     */
+    private final boolean continuous;
+
+    /**
+     * Spielobjekt, dessen Position den Mittelpunkt bestimmt
+     */
+    private GameObject owner;
+
+    /**
+     * Mittelpunkt, für den die BoundingBox zuletzt berechnet wurde. Positionen sind unveränderlich, ein neues Objekt bedeutet eine Bewegung.
+     */
+    private Vector2f position;
+
+    /**
+     * Mittelpunkt zu Beginn des Simulationsschrittes, für den die BoundingBox zuletzt berechnet wurde
+     */
+    private Vector2f startPosition;
+
+    /**
+     * BoundingBox der überstrichenen Fläche
      */
-    public int x;
+    private float minX, minY, maxX, maxY;
 
     /**
-     * Position - y-Koordinate
+     * Konstruktor eines Kollisionskreises.
+     *
+     * @param radius Radius des Kreises
      */
-    public int y;
+    public CircleCollider(float radius){
+        this(radius, false);
+    }
 
     /**
      * Konstruktor eines Kollisionskreises.
      *
-     * @param position Mittelpunkt und Position des Kreises
      * @param radius Radius des Kreises
+     * @param continuous Kreis wird über die ganze Strecke des Simulationsschrittes geprüft, damit schnelle Objekte nicht durch andere hindurchtunneln
      */
-    public CircleCollider(Vector2f position, int radius){
-        this.x = (int)position.x;
-        this.y = (int)position.y;
+    public CircleCollider(float radius, boolean continuous){
         this.radius = radius;
-        updatePosition(position);
+        this.continuous = continuous;
     }
 
     /**
@@ -60,22 +84,238 @@ public class CircleCollider implements CollisionShape {
      */
     @Override
     public boolean Intersect(CircleCollider circleCollider) {
-        Vector2f A = new Vector2f(x,y);
-        Vector2f B = new Vector2f(circleCollider.x, circleCollider.y);
-        if(Math2D.getLength(Vector2f.sub(B, A)) <= radius + circleCollider.radius)
-            return true;
-        else
-            return false;
+        Vector2f a = owner.getPosition();
+        Vector2f b = circleCollider.owner.getPosition();
+
+        // überstrichene Kreise über den Zeitpunkt der Berührung prüfen
+        if (isSwept() || circleCollider.isSwept()) {
+            Vector2f startA = getStartPosition();
+            Vector2f startB = circleCollider.getStartPosition();
+            return timeOfImpact(startA.x, startA.y, a.x, a.y, radius, startB.x, startB.y, b.x, b.y, circleCollider.radius) >= 0;
+        }
+
+        // Vergleich der quadrierten Abstände - ohne Wurzel und ohne temporäre Vektoren
+        float dx = b.x - a.x;
+        float dy = b.y - a.y;
+        float r = radius + circleCollider.radius;
+        return dx * dx + dy * dy <= r * r;
+    }
+
+    /**
+     * Kollisionsprüfung mit einem Polygon. Die Prüfung erfolgt im Polygon.
+     *
+     * @param polygonCollider Polygon, mit dem auf Kollision geprüft werden soll.
+     * @return Kollision stattgefunden oder nicht.
+     */
+    @Override
+    public boolean Intersect(PolygonCollider polygonCollider) {
+        return polygonCollider.Intersect(this);
     }
 
     /**
-     * Benötigt um die Position der Kollisionsmaske bei Bewegung des unterliegenden Spielobjektes zu aktualisieren.
+     * Setzt das Spielobjekt, dessen Position den Mittelpunkt bestimmt. Wird vom Konstruktor des GameObjects aufgerufen.
      *
-     * @param position Die neue Poisition des Elementes.
+     * @param owner Spielobjekt
      */
     @Override
-    public void updatePosition(Vector2f position) {
-        x = (int)position.x;
-        y = (int)position.y;
+    public void setOwner(GameObject owner) {
+        this.owner = owner;
+        this.position = null;
+    }
+
+    /**
+     * Berechnet die BoundingBox neu, falls sich Start- oder Endposition seit der letzten Berechnung geändert haben.
+     */
+    public void refresh() {
+        Vector2f current = owner.getPosition();
+        Vector2f start = getStartPosition();
+        if (current == position && start == startPosition)
+            return;
+        position = current;
+        startPosition = start;
+        minX = Math.min(start.x, current.x) - radius;
+        minY = Math.min(start.y, current.y) - radius;
+        maxX = Math.max(start.x, current.x) + radius;
+        maxY = Math.max(start.y, current.y) + radius;
+    }
+
+    /**
+     * Gibt den Radius zurück.
+     * @return Radius
+     */
+    public float getRadius() {
+        return radius;
+    }
+
+    /**
+     * Gibt den Mittelpunkt am Ende des Simulationsschrittes zurück.
+     * @return Mittelpunkt
+     */
+    public Vector2f getPosition() {
+        return owner.getPosition();
+    }
+
+    /**
+     * Gibt den Mittelpunkt zu Beginn des Simulationsschrittes zurück. Gleich der Position, wenn der Kreis nicht überstrichen wird.
+     * @return Mittelpunkt zu Beginn des Simulationsschrittes
+     */
+    public Vector2f getStartPosition() {
+        return continuous ? owner.getPreviousPosition() : owner.getPosition();
+    }
+
+    /**
+     * Gibt zurück, ob der Kreis im letzten Simulationsschritt eine Strecke überstrichen hat.
+     * @return Start- und Endposition unterscheiden sich
+     */
+    public boolean isSwept() {
+        if (!continuous)
+            return false;
+        Vector2f start = owner.getPreviousPosition();
+        Vector2f position = owner.getPosition();
+        return start.x != position.x || start.y != position.y;
+    }
+
+    /**
+     * Gibt die linke Kante der BoundingBox der überstrichenen Fläche zurück.
+     * @return linke Kante
+     */
+    @Override
+    public float getMinX() {
+        refresh();
+        return minX;
+    }
+
+    /**
+     * Gibt die obere Kante der BoundingBox der überstrichenen Fläche zurück.
+     * @return obere Kante
+     */
+    @Override
+    public float getMinY() {
+        refresh();
+        return minY;
+    }
+
+    /**
+     * Gibt die rechte Kante der BoundingBox der überstrichenen Fläche zurück.
+     * @return rechte Kante
+     */
+    @Override
+    public float getMaxX() {
+        refresh();
+        return maxX;
+    }
+
+    /**
+     * Gibt die untere Kante der BoundingBox der überstrichenen Fläche zurück.
+     * @return untere Kante
+     */
+    @Override
+    public float getMaxY() {
+        refresh();
+        return maxY;
+    }
+
+    /**
+     * Prüft, ob der Kreis das übergebene Rechteck überlappt.
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Überlappung vorhanden
+     */
+    @Override
+    public boolean intersectsRect(float minX, float minY, float maxX, float maxY) {
+        // nächstgelegenen Punkt des Rechteckes zum Mittelpunkt bestimmen
+        Vector2f position = owner.getPosition();
+        float dx = position.x - Math.min(Math.max(position.x, minX), maxX);
+        float dy = position.y - Math.min(Math.max(position.y, minY), maxY);
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
+    /**
+     * Prüft, ob der Kreis den übergebenen Kreis überlappt.
+     * @param centerX Mittelpunkt - x
+     * @param centerY Mittelpunkt - y
+     * @param radius Radius
+     * @return Überlappung vorhanden
+     */
+    @Override
+    public boolean intersectsCircle(float centerX, float centerY, float radius) {
+        Vector2f position = owner.getPosition();
+        float dx = position.x - centerX;
+        float dy = position.y - centerY;
+        float r = this.radius + radius;
+        return dx * dx + dy * dy <= r * r;
+    }
+
+    /**
+     * Berechnet den Abstand vom Startpunkt eines Strahls bis zum ersten Schnittpunkt mit dem Kreis.
+     * @param originX Startpunkt - x
+     * @param originY Startpunkt - y
+     * @param directionX normierte Richtung - x
+     * @param directionY normierte Richtung - y
+     * @param maxDistance Länge des Strahls
+     * @return Abstand; 0 wenn der Startpunkt im Kreis liegt; -1 wenn der Strahl den Kreis nicht trifft
+     */
+    @Override
+    public float raycast(float originX, float originY, float directionX, float directionY, float maxDistance) {
+        Vector2f position = owner.getPosition();
+        float dx = originX - position.x;
+        float dy = originY - position.y;
+        float c = dx * dx + dy * dy - radius * radius;
+        if (c <= 0)
+            return 0;
+
+        float b = dx * directionX + dy * directionY;
+        if (b >= 0)
+            return -1;      // Kreis liegt hinter dem Startpunkt
+
+        float discriminant = b * b - c;
+        if (discriminant < 0)
+            return -1;
+
+        float distance = -b - (float) Math.sqrt(discriminant);
+        return distance <= maxDistance ? distance : -1;
+    }
+
+    /**
+     * Berechnet den Zeitpunkt der ersten Berührung zweier Kreise, die sich im Simulationsschritt geradlinig bewegen (swept circle test).
+     * Betrachtet wird die Bewegung von b relativ zu a: Gesucht ist das kleinste t aus [0,1] mit |d0 + v*t| = ra + rb.
+     *
+     * @param ax0 Startposition a - x
+     * @param ay0 Startposition a - y
+     * @param ax1 Endposition a - x
+     * @param ay1 Endposition a - y
+     * @param ra Radius a
+     * @param bx0 Startposition b - x
+     * @param by0 Startposition b - y
+     * @param bx1 Endposition b - x
+     * @param by1 Endposition b - y
+     * @param rb Radius b
+     * @return Anteil des Simulationsschrittes bis zur Berührung; 0 wenn sich die Kreise schon zu Beginn überlappen; -1 wenn sie sich nicht berühren
+     */
+    public static float timeOfImpact(float ax0, float ay0, float ax1, float ay1, float ra, float bx0, float by0, float bx1, float by1, float rb) {
+        // Abstand zu Beginn und relative Bewegung
+        float dx = bx0 - ax0;
+        float dy = by0 - ay0;
+        float vx = (bx1 - ax1) - dx;
+        float vy = (by1 - ay1) - dy;
+        float r = ra + rb;
+
+        float c = dx * dx + dy * dy - r * r;
+        if (c <= 0)
+            return 0;
+
+        float a = vx * vx + vy * vy;
+        float b = dx * vx + dy * vy;
+        if (a == 0 || b >= 0)
+            return -1;      // keine relative Bewegung oder Kreise entfernen sich
+
+        float discriminant = b * b - a * c;
+        if (discriminant < 0)
+            return -1;
+
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= 1 ? t : -1;
     }
 }
@@ -0,0 +1,111 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import java.util.Arrays;
+
+/**
+ * Wiederverwendbarer Puffer für die Kollisionspaare eines Simulationsschrittes.
+ * Ein Paar wird als zwei Indizes in die Liste der Spielobjekte gespeichert, die in einem long zusammengefasst werden (oberes und unteres Wort).
+ * Das Array wächst auf die größte benötigte Anzahl an Paaren und wird danach nur noch geleert, sodass pro Frame kein Speicher angefordert wird.
+ *
+ * @author Tom Kretzschmar
+ */
+public class CollisionPairBuffer {
+
+    /**
+     * gepackte Indexpaare
+     */
+    private long[] pairs = new long[64];
+
+    /**
+     * Anzahl der Paare im Puffer
+     */
+    private int size;
+
+    /**
+     * Leert den Puffer. Die Kapazität bleibt erhalten.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Fügt ein Paar hinzu.
+     * @param first Index des ersten Spielobjektes
+     * @param second Index des zweiten Spielobjektes
+     */
+    public void add(int first, int second) {
+        if (size == pairs.length)
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        pairs[size++] = ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fügt alle Paare eines anderen Puffers in dessen Reihenfolge hinzu.
+     * @param other anderer Puffer
+     */
+    public void addAll(CollisionPairBuffer other) {
+        if (size + other.size > pairs.length)
+            pairs = Arrays.copyOf(pairs, Math.max(size + other.size, pairs.length * 2));
+        System.arraycopy(other.pairs, 0, pairs, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Kopiert ein Paar an eine andere Stelle des Puffers. Wird zum Herausfiltern von Paaren benötigt.
+     * @param from Nummer des zu kopierenden Paares
+     * @param to Nummer des Ziels
+     */
+    public void copy(int from, int to) {
+        pairs[to] = pairs[from];
+    }
+
+    /**
+     * Verwirft alle Paare ab der übergebenen Anzahl.
+     * @param size neue Anzahl der Paare, höchstens die aktuelle
+     */
+    public void truncate(int size) {
+        if (size < 0 || size > this.size)
+            throw new IllegalArgumentException("size out of range: " + size);
+        this.size = size;
+    }
+
+    /**
+     * Sortiert die Paare aufsteigend nach erstem und zweitem Index. Jedes Paar wird vorher so gedreht, dass der kleinere Index zuerst steht.
+     * Damit ist die Reihenfolge unabhängig davon, in welcher Reihenfolge die Broadphase die Paare gefunden hat.
+     */
+    public void sort() {
+        for (int i = 0; i < size; i++) {
+            int first = getFirst(i);
+            int second = getSecond(i);
+            if (first > second)
+                pairs[i] = ((long) second << 32) | (first & 0xFFFFFFFFL);
+        }
+        Arrays.sort(pairs, 0, size);
+    }
+
+    /**
+     * Gibt die Anzahl der Paare zurück.
+     * @return Anzahl
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gibt den Index des ersten Spielobjektes des i-ten Paares zurück.
+     * @param i Nummer des Paares
+     * @return Index des ersten Spielobjektes
+     */
+    public int getFirst(int i) {
+        return (int) (pairs[i] >>> 32);
+    }
+
+    /**
+     * Gibt den Index des zweiten Spielobjektes des i-ten Paares zurück.
+     * @param i Nummer des Paares
+     * @return Index des zweiten Spielobjektes
+     */
+    public int getSecond(int i) {
+        return (int) pairs[i];
+    }
+}
@@ -0,0 +1,196 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.CollisionDispatcher;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.system.Vector2f;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kollisionsauflösung in zwei Phasen.
+ * Die Behandlung jedes Paares wird über den CollisionDispatcher des Levels anhand der Objekttypen bestimmt. Paare ohne Behandlung werden übersprungen,
+ * für Auslöser (Trigger) wird kein Stoß berechnet.
+ * In der Berechnungsphase werden die Impulse aller Paare aus den Geschwindigkeiten vor der Auflösung berechnet und je Spielobjekt aufsummiert.
+ * Die Spielobjekte werden dabei nicht verändert, das Ergebnis hängt also nicht von der Reihenfolge der Paare ab.
+ * In der Anwendungsphase werden die Behandlungen in der Reihenfolge der Paare (sortiert nach Id) aufgerufen, physikalische Kontakte mit den Geschwindigkeiten nach allen Stößen.
+ * Schlafende Objekte werden durch physikalische Kontakte aufgeweckt.
+ *
+ * @author Tom Kretzschmar
+ */
+public class CollisionResolver {
+
+    /**
+     * Geschwindigkeit vor der Auflösung je Kollisionsindex - x
+     */
+    private float[] velocityX = new float[64];
+
+    /**
+     * Geschwindigkeit vor der Auflösung je Kollisionsindex - y
+     */
+    private float[] velocityY = new float[64];
+
+    /**
+     * aufsummierte Geschwindigkeitsänderung je Kollisionsindex - x
+     */
+    private float[] deltaX = new float[64];
+
+    /**
+     * aufsummierte Geschwindigkeitsänderung je Kollisionsindex - y
+     */
+    private float[] deltaY = new float[64];
+
+    /**
+     * Nummer der Auflösung, in der das Objekt zuletzt geladen wurde, je Kollisionsindex
+     */
+    private int[] loaded = new int[64];
+
+    /**
+     * Art des Kontaktes je Paar, NONE auch für physikalische Kontakte, deren Objekte sich voneinander weg bewegen
+     */
+    private CollisionDispatcher.Contact[] contacts = new CollisionDispatcher.Contact[64];
+
+    /**
+     * Nummer der aktuellen Auflösung
+     */
+    private int stamp;
+
+    /**
+     * Löst alle Kollisionspaare auf.
+     * @param gameObjects Spielobjekte, auf deren Kollisionsindizes sich die Paare beziehen
+     * @param collisionPairs Kollisionspaare in der Reihenfolge, in der die Behandlungen aufgerufen werden
+     * @param dispatcher Kollisionsbehandlungen des Levels
+     */
+    public void resolve(List<GameObject> gameObjects, CollisionPairBuffer collisionPairs, CollisionDispatcher dispatcher) {
+        ensureCapacity(gameObjects.size(), collisionPairs.size());
+        stamp++;
+
+        // Berechnungsphase - Spielobjekte werden nur gelesen
+        for (int i = 0; i < collisionPairs.size(); i++) {
+            GameObject a = gameObjects.get(collisionPairs.getFirst(i));
+            GameObject b = gameObjects.get(collisionPairs.getSecond(i));
+            CollisionDispatcher.Contact contact = dispatcher.getContact(a, b);
+            if (contact == CollisionDispatcher.Contact.PHYSICAL && !computeImpulse(gameObjects, collisionPairs.getFirst(i), collisionPairs.getSecond(i)))
+                contact = CollisionDispatcher.Contact.NONE;
+            contacts[i] = contact;
+        }
+
+        // Anwendungsphase - Behandlungen aufrufen, physikalische Kontakte mit der Geschwindigkeit nach allen Impulsen
+        for (int i = 0; i < collisionPairs.size(); i++) {
+            int first = collisionPairs.getFirst(i);
+            int second = collisionPairs.getSecond(i);
+            switch (contacts[i]) {
+                case PHYSICAL:
+                    // Stoß weckt schlafende Objekte auf
+                    gameObjects.get(first).wake();
+                    gameObjects.get(second).wake();
+                    dispatcher.dispatch(gameObjects.get(first), gameObjects.get(second), getResultingVelocity(first), getResultingVelocity(second));
+                    break;
+                case TRIGGER:
+                    dispatcher.dispatch(gameObjects.get(first), gameObjects.get(second), null, null);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Berechnet den Impuls eines Paares und addiert ihn auf die Geschwindigkeitsänderungen beider Objekte.
+     * @param gameObjects Spielobjekte
+     * @param first Kollisionsindex des ersten Objektes
+     * @param second Kollisionsindex des zweiten Objektes
+     * @return Kollision wird aufgelöst
+     */
+    private boolean computeImpulse(List<GameObject> gameObjects, int first, int second) {
+        GameObject a = gameObjects.get(first);
+        GameObject b = gameObjects.get(second);
+        load(a, first);
+        load(b, second);
+
+        // Normale der Kollision berechnen
+        Vector2f positionA = a.getPosition();
+        Vector2f positionB = b.getPosition();
+        float normalX = positionA.x - positionB.x;
+        float normalY = positionA.y - positionB.y;
+        float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+        if (length != 0) {
+            normalX /= length;
+            normalY /= length;
+        }
+
+        // Relative Geschwindkeit in Bezug auf Kollisionsnormale berechnen
+        float velAlongNormal = normalX * (velocityX[second] - velocityX[first]) + normalY * (velocityY[second] - velocityY[first]);
+
+        // Kollision nicht lösen, wenn sich die Objekte auseinander Bewegen
+        if (velAlongNormal <= 0)
+            return false;
+
+        // Elastische Komponente berechnen
+        velAlongNormal *= Math.min(a.getRestitution(), b.getRestitution());
+
+        // Impulsgewichte berechnen
+        float collisionWeightA;
+        float collisionWeightB;
+        if (a.getMass() == 0) {
+            collisionWeightA = 0;
+            collisionWeightB = 2;
+        } else if (b.getMass() == 0) {
+            collisionWeightA = 2;
+            collisionWeightB = 0;
+        } else {
+            float combinedMass = a.getMass() + b.getMass();
+            collisionWeightA = 2 * b.getMass() / combinedMass;
+            collisionWeightB = 2 * a.getMass() / combinedMass;
+        }
+
+        deltaX[first] += collisionWeightA * normalX * velAlongNormal;
+        deltaY[first] += collisionWeightA * normalY * velAlongNormal;
+        deltaX[second] -= collisionWeightB * normalX * velAlongNormal;
+        deltaY[second] -= collisionWeightB * normalY * velAlongNormal;
+        return true;
+    }
+
+    /**
+     * Merkt sich die Geschwindigkeit des Objektes vor der Auflösung und setzt seine Geschwindigkeitsänderung zurück, einmal je Auflösung.
+     * @param gameObject Spielobjekt
+     * @param index Kollisionsindex
+     */
+    private void load(GameObject gameObject, int index) {
+        if (loaded[index] == stamp)
+            return;
+        loaded[index] = stamp;
+        Vector2f velocity = gameObject.getVelocity();
+        velocityX[index] = velocity.x;
+        velocityY[index] = velocity.y;
+        deltaX[index] = 0;
+        deltaY[index] = 0;
+    }
+
+    /**
+     * Gibt die Geschwindigkeit nach allen Impulsen zurück.
+     * @param index Kollisionsindex
+     * @return neue Geschwindigkeit
+     */
+    private Vector2f getResultingVelocity(int index) {
+        return new Vector2f(velocityX[index] + deltaX[index], velocityY[index] + deltaY[index]);
+    }
+
+    /**
+     * Vergrößert die Arrays bei Bedarf.
+     * @param objects Anzahl der Spielobjekte
+     * @param pairs Anzahl der Paare
+     */
+    private void ensureCapacity(int objects, int pairs) {
+        if (objects > loaded.length) {
+            int size = Math.max(objects, loaded.length * 2);
+            velocityX = Arrays.copyOf(velocityX, size);
+            velocityY = Arrays.copyOf(velocityY, size);
+            deltaX = Arrays.copyOf(deltaX, size);
+            deltaY = Arrays.copyOf(deltaY, size);
+            loaded = Arrays.copyOf(loaded, size);
+        }
+        if (pairs > contacts.length)
+            contacts = Arrays.copyOf(contacts, Math.max(pairs, contacts.length * 2));
+    }
+}
@@ -0,0 +1,367 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.graphics.IntRect;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Loser Quadtree als Broadphase.
+ * Jeder Knoten besitzt neben seinem eigentlichen Bereich einen doppelt so großen, losen Bereich (um eine halbe Kantenlänge in jede Richtung erweitert).
+ * Ein Objekt wird in den tiefsten Knoten eingefügt, dessen loser Bereich es vollständig enthält. Dadurch bleiben Objekte auf den Mittellinien nicht in den
+ * oberen Knoten hängen, die Tiefe hängt nur noch von der Größe des Objektes ab.
+ *
+ * Der Baum wird nicht in jedem Frame neu aufgebaut. Jedes Objekt merkt sich seinen Knoten und wird nur verschoben, wenn es dessen losen Bereich verlässt.
+ * Leere Knoten werden in einen Pool zurückgegeben und beim nächsten Aufteilen wiederverwendet, sodass im eingeschwungenen Zustand kein Speicher angefordert wird.
+ * Objekte außerhalb des Spielfeldes werden im Wurzelknoten gehalten.
+ *
+ * Die vorhandenen Level verwenden den Baum nicht (siehe {@link de.hsmw.tkretzs1.energetic.core.level_impl.Level1#createBroadphase()}):
+ * bei annähernd gleich großen Objekten sind Sweep and Prune bzw. das Raster schneller. Er lohnt sich erst bei stark unterschiedlichen Objektgrößen
+ * und kann über {@link de.hsmw.tkretzs1.energetic.core.Game#setBroadphase(Broadphase)} gewählt werden, die Benchmarks vergleichen ihn mit den übrigen Broadphasen.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.Broadphase
+ */
+public class LooseQuadtree implements Broadphase {
+
+    /**
+     * Tiefste Knoten-Ebene
+     */
+    private static final int MAX_LEVELS = 8;
+
+    /**
+     * Knoten des Baumes.
+     */
+    private static class Node {
+
+        /**
+         * übergeordneter Knoten, null für die Wurzel
+         */
+        Node parent;
+
+        /**
+         * 4 Kindknoten, Index = y-Bit * 2 + x-Bit
+         */
+        final Node[] children = new Node[4];
+
+        /**
+         * Ebene des Knotens
+         */
+        int level;
+
+        /**
+         * linke obere Ecke des eigentlichen Bereiches
+         */
+        int left;
+        int top;
+
+        /**
+         * Kantenlänge des eigentlichen Bereiches
+         */
+        int size;
+
+        /**
+         * Objekte in diesem Knoten
+         */
+        final ArrayList<Proxy> proxies = new ArrayList<>();
+
+        /**
+         * Anzahl der Objekte in diesem Knoten und allen Kindknoten
+         */
+        int count;
+
+        /**
+         * Prüft, ob die BoundingBox vollständig im losen Bereich liegt.
+         */
+        boolean contains(float minX, float minY, float maxX, float maxY) {
+            int half = size / 2;
+            return minX >= left - half && maxX <= left + size + half && minY >= top - half && maxY <= top + size + half;
+        }
+
+        /**
+         * Prüft, ob die BoundingBox den losen Bereich überlappt.
+         */
+        boolean overlaps(float minX, float minY, float maxX, float maxY) {
+            int half = size / 2;
+            return maxX >= left - half && minX <= left + size + half && maxY >= top - half && minY <= top + size + half;
+        }
+    }
+
+    /**
+     * Verknüpfung eines Spielobjektes mit seinem Knoten.
+     */
+    private static class Proxy {
+
+        /**
+         * Spielobjekt
+         */
+        final GameObject gameObject;
+
+        /**
+         * aktueller Knoten
+         */
+        Node node;
+
+        /**
+         * Index in der Objektliste des Knotens
+         */
+        int index;
+
+        /**
+         * Nummer des letzten Updates, in dem das Objekt übergeben wurde
+         */
+        int stamp;
+
+        Proxy(GameObject gameObject) {
+            this.gameObject = gameObject;
+        }
+    }
+
+    /**
+     * Wurzelknoten, überdeckt das Spielfeld
+     */
+    private final Node root;
+
+    /**
+     * Pool unbenutzter Knoten
+     */
+    private final ArrayList<Node> pool = new ArrayList<>();
+
+    /**
+     * Zuordnung der Spielobjekte zu ihren Proxys
+     */
+    private final IdentityHashMap<GameObject, Proxy> proxyMap = new IdentityHashMap<>();
+
+    /**
+     * alle Proxys, zum Entfernen nicht mehr übergebener Objekte
+     */
+    private final ArrayList<Proxy> proxies = new ArrayList<>();
+
+    /**
+     * Nummer des aktuellen Updates
+     */
+    private int stamp;
+
+    /**
+     * Konstruktor.
+     * Legt neuen losen Quadtree über den übergebenen 2D-Raum an.
+     *
+     * @param bounds überdeckter 2D-Raum, wird zu einem Quadrat erweitert
+     */
+    public LooseQuadtree(IntRect bounds) {
+        root = new Node();
+        root.left = bounds.left;
+        root.top = bounds.top;
+        root.size = Math.max(bounds.width, bounds.height);
+    }
+
+    /**
+     * Gleicht den Baum mit den übergebenen Spielobjekten ab.
+     * Neue Objekte werden eingefügt, bewegte Objekte nur verschoben, wenn sie den losen Bereich ihres Knotens verlassen haben, und fehlende Objekte entfernt.
+     *
+     * @param gameObjects alle Spielobjekte, die zur Kollisionserkennung angemeldet sind
+     */
+    @Override
+    public void update(List<GameObject> gameObjects) {
+        stamp++;
+        for (GameObject gameObject : gameObjects) {
+            Proxy proxy = proxyMap.get(gameObject);
+            if (proxy == null) {
+                proxy = new Proxy(gameObject);
+                proxyMap.put(gameObject, proxy);
+                proxies.add(proxy);
+                insert(proxy);
+            } else {
+                relocate(proxy);
+            }
+            proxy.stamp = stamp;
+        }
+
+        // nicht mehr übergebene Objekte entfernen
+        for (int i = proxies.size() - 1; i >= 0; i--) {
+            Proxy proxy = proxies.get(i);
+            if (proxy.stamp != stamp) {
+                remove(proxy);
+                proxyMap.remove(proxy.gameObject);
+                Proxy last = proxies.remove(proxies.size() - 1);
+                if (last != proxy)
+                    proxies.set(i, last);
+            }
+        }
+    }
+
+    /**
+     * Gibt alle Objekte zurück, deren Knoten mit ihrem losen Bereich die BoundingBox des übergebenen Objektes überlappen.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param gameObject Spielobjekt dessen Umgebung geprüft werden soll.
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, GameObject gameObject) {
+        CollisionShape shape = gameObject.getCollisionShape();
+        retrieve(root, returnObjects, shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
+        return returnObjects;
+    }
+
+    /**
+     * Gibt alle Objekte zurück, deren Knoten mit ihrem losen Bereich den übergebenen Bereich überlappen.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param minX linke Kante des Bereiches
+     * @param minY obere Kante des Bereiches
+     * @param maxX rechte Kante des Bereiches
+     * @param maxY untere Kante des Bereiches
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, float minX, float minY, float maxX, float maxY) {
+        retrieve(root, returnObjects, minX, minY, maxX, maxY);
+        return returnObjects;
+    }
+
+    /**
+     * Rekursive Abfrage ab dem übergebenen Knoten.
+     */
+    private void retrieve(Node node, List<GameObject> returnObjects, float minX, float minY, float maxX, float maxY) {
+        for (int i = 0; i < node.proxies.size(); i++) {
+            returnObjects.add(node.proxies.get(i).gameObject);
+        }
+        for (Node child : node.children) {
+            if (child != null && child.overlaps(minX, minY, maxX, maxY))
+                retrieve(child, returnObjects, minX, minY, maxX, maxY);
+        }
+    }
+
+    /**
+     * Verschiebt das Objekt in einen neuen Knoten, wenn es den losen Bereich seines Knotens verlassen hat.
+     * @param proxy Proxy des Objektes
+     */
+    private void relocate(Proxy proxy) {
+        CollisionShape shape = proxy.gameObject.getCollisionShape();
+        Node node = proxy.node;
+        if (node != root && node.contains(shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY()))
+            return;
+
+        remove(proxy);
+        insert(proxy);
+    }
+
+    /**
+     * Fügt das Objekt in den tiefsten Knoten ein, dessen loser Bereich es vollständig enthält.
+     * @param proxy Proxy des Objektes
+     */
+    private void insert(Proxy proxy) {
+        Node node = findNode(proxy.gameObject.getCollisionShape());
+        proxy.node = node;
+        proxy.index = node.proxies.size();
+        node.proxies.add(proxy);
+        for (Node n = node; n != null; n = n.parent) {
+            n.count++;
+        }
+    }
+
+    /**
+     * Entfernt das Objekt aus seinem Knoten und gibt leer gewordene Knoten in den Pool zurück.
+     * @param proxy Proxy des Objektes
+     */
+    private void remove(Proxy proxy) {
+        Node node = proxy.node;
+        Proxy last = node.proxies.remove(node.proxies.size() - 1);
+        if (last != proxy) {
+            node.proxies.set(proxy.index, last);
+            last.index = proxy.index;
+        }
+        proxy.node = null;
+
+        for (Node n = node; n != null; n = n.parent) {
+            n.count--;
+        }
+
+        // obersten leeren Knoten unterhalb eines nicht leeren Knotens freigeben
+        Node empty = null;
+        for (Node n = node; n != root && n.count == 0; n = n.parent) {
+            empty = n;
+        }
+        if (empty != null) {
+            Node parent = empty.parent;
+            for (int i = 0; i < parent.children.length; i++) {
+                if (parent.children[i] == empty)
+                    parent.children[i] = null;
+            }
+            release(empty);
+        }
+    }
+
+    /**
+     * Ermittelt den Knoten für die übergebene Kollisionsbox und legt fehlende Knoten auf dem Weg dorthin an.
+     * Die Ebene ergibt sich aus der halben Kantenlänge der BoundingBox: Sie darf höchstens die halbe Kantenlänge des Knotens betragen, dann enthält der lose Bereich
+     * des Knotens, in dessen eigentlichem Bereich der Mittelpunkt liegt, das ganze Objekt.
+     * @param shape Kollisionsbox
+     * @return Knoten
+     */
+    private Node findNode(CollisionShape shape) {
+        float minX = shape.getMinX();
+        float minY = shape.getMinY();
+        float maxX = shape.getMaxX();
+        float maxY = shape.getMaxY();
+        float centerX = (minX + maxX) / 2;
+        float centerY = (minY + maxY) / 2;
+        float extent = Math.max(maxX - minX, maxY - minY) / 2;
+
+        Node node = root;
+        while (node.level < MAX_LEVELS && node.size / 4 >= extent) {
+            // Kindknoten, in dem der Mittelpunkt liegt
+            int half = node.size / 2;
+            int bx = centerX >= node.left + half ? 1 : 0;
+            int by = centerY >= node.top + half ? 1 : 0;
+            int index = by * 2 + bx;
+
+            Node child = node.children[index];
+            if (child == null) {
+                child = obtain(node, node.left + bx * half, node.top + by * half, half);
+                if (!child.contains(minX, minY, maxX, maxY)) {
+                    release(child);
+                    break;      // Objekt liegt außerhalb des Spielfeldes
+                }
+                node.children[index] = child;
+            } else if (!child.contains(minX, minY, maxX, maxY)) {
+                break;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Holt einen Knoten aus dem Pool oder legt einen neuen an.
+     */
+    private Node obtain(Node parent, int left, int top, int size) {
+        Node node = pool.isEmpty() ? new Node() : pool.remove(pool.size() - 1);
+        node.parent = parent;
+        node.level = parent.level + 1;
+        node.left = left;
+        node.top = top;
+        node.size = size;
+        node.count = 0;
+        return node;
+    }
+
+    /**
+     * Gibt einen leeren Knoten samt Kindknoten in den Pool zurück.
+     */
+    private void release(Node node) {
+        for (int i = 0; i < node.children.length; i++) {
+            if (node.children[i] != null) {
+                release(node.children[i]);
+                node.children[i] = null;
+            }
+        }
+        node.parent = null;
+        pool.add(node);
+    }
+}
@@ -0,0 +1,202 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallele Kollisionserkennung über einen ForkJoinPool.
+ * Die Abfragen der Broadphase und die genaue Prüfung werden in eine feste Anzahl von Abschnitten aufgeteilt, die unabhängig voneinander bearbeitet werden.
+ * Jeder Abschnitt sammelt seine Paare in einem eigenen Puffer. Die Puffer werden anschließend in der Reihenfolge der Abschnitte zusammengefügt,
+ * sodass das Ergebnis unabhängig von der Anzahl der Threads dieselbe Reihenfolge wie bei sequentieller Berechnung hat.
+ *
+ * Voraussetzung ist, dass Broadphase und CircleBatch nach dem Aktualisieren nur noch gelesen werden.
+ *
+ * @author Tom Kretzschmar
+ */
+public class ParallelCollisionPass {
+
+    /**
+     * Abschnitt der Kollisionserkennung, wird in jedem Frame wiederverwendet.
+     */
+    private class Chunk extends RecursiveAction {
+
+        /**
+         * Versionsnummer für die Serialisierung, Abschnitte werden nie serialisiert
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Nummer des Abschnittes
+         */
+        private final int index;
+
+        /**
+         * gefundene Paare dieses Abschnittes
+         */
+        private final CollisionPairBuffer collisionPairs = new CollisionPairBuffer();
+
+        /**
+         * Liste für die möglichen Kollisionspartner eines Objektes
+         */
+        private final List<GameObject> returnObjects = new ArrayList<>();
+
+        Chunk(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Bearbeitet den Anteil des Abschnittes an der aktuellen Aufgabe.
+         */
+        @Override
+        protected void compute() {
+            collisionPairs.clear();
+            if (candidates == null) {
+                int from = begin(index, gameObjects.size());
+                int to = begin(index + 1, gameObjects.size());
+                for (int i = from; i < to; i++) {
+                    GameObject object = gameObjects.get(i);
+                    returnObjects.clear();
+                    broadphase.retrieve(returnObjects, object);
+
+                    // Jedes Paar nur einmal prüfen: nur Nachbarn mit höherer Id, dadurch auch keine Kollision mit sich selbst
+                    for (int j = 0; j < returnObjects.size(); j++) {
+                        GameObject returnObject = returnObjects.get(j);
+                        if (returnObject.getId() > object.getId() && object.canCollide(returnObject)
+                                && circleBatch.intersects(object.getCollisionIndex(), returnObject.getCollisionIndex())) {
+                            collisionPairs.add(object.getCollisionIndex(), returnObject.getCollisionIndex());
+                        }
+                    }
+                }
+                returnObjects.clear();
+            } else {
+                circleBatch.filter(candidates, begin(index, candidates.size()), begin(index + 1, candidates.size()), collisionPairs);
+            }
+        }
+    }
+
+    /**
+     * Pool der Arbeitsthreads
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Abschnitte, deren Ergebnisse in dieser Reihenfolge zusammengefügt werden
+     */
+    private final Chunk[] chunks;
+
+    /**
+     * Wurzelaufgabe, die alle Abschnitte startet, wird in jedem Frame wiederverwendet
+     */
+    private final RecursiveAction root = new RecursiveAction() {
+        @Override
+        protected void compute() {
+            invokeAll(chunks);
+        }
+    };
+
+    /**
+     * Broadphase der aktuellen Aufgabe
+     */
+    private Broadphase broadphase;
+
+    /**
+     * Spielobjekte der aktuellen Aufgabe
+     */
+    private List<GameObject> gameObjects;
+
+    /**
+     * Kreise der aktuellen Aufgabe
+     */
+    private CircleBatch circleBatch;
+
+    /**
+     * zu filternde Kandidatenpaare, null wenn die Broadphase abgefragt wird
+     */
+    private CollisionPairBuffer candidates;
+
+    /**
+     * Konstruktor.
+     * @param threads Anzahl der Arbeitsthreads
+     */
+    public ParallelCollisionPass(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("threads must be positive");
+        pool = new ForkJoinPool(threads);
+        // mehrere Abschnitte je Thread, damit ungleich verteilte Objekte die Threads trotzdem auslasten
+        chunks = new Chunk[threads * 4];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(i);
+        }
+    }
+
+    /**
+     * Fragt die Broadphase parallel für alle Spielobjekte ab und prüft die Kandidaten genau.
+     * @param broadphase aktualisierte Broadphase
+     * @param gameObjects Spielobjekte mit gesetztem Kollisionsindex
+     * @param circleBatch geladene Kreise der Spielobjekte
+     * @param collisionPairs Puffer für die kollidierenden Paare, der bisherige Inhalt wird ersetzt
+     */
+    public void findPairs(Broadphase broadphase, List<GameObject> gameObjects, CircleBatch circleBatch, CollisionPairBuffer collisionPairs) {
+        this.broadphase = broadphase;
+        this.gameObjects = gameObjects;
+        this.circleBatch = circleBatch;
+        this.candidates = null;
+        run(collisionPairs);
+    }
+
+    /**
+     * Prüft die Kandidatenpaare parallel genau auf Kollision und entfernt die Paare ohne Kollision.
+     * @param circleBatch geladene Kreise der Spielobjekte
+     * @param collisionPairs Kandidatenpaare, enthält danach nur noch kollidierende Paare
+     */
+    public void filter(CircleBatch circleBatch, CollisionPairBuffer collisionPairs) {
+        this.broadphase = null;
+        this.gameObjects = null;
+        this.circleBatch = circleBatch;
+        this.candidates = collisionPairs;
+        run(collisionPairs);
+    }
+
+    /**
+     * Beendet die Arbeitsthreads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Führt alle Abschnitte aus und fügt ihre Paare in der Reihenfolge der Abschnitte in den Zielpuffer ein.
+     * @param collisionPairs Zielpuffer, der bisherige Inhalt wird ersetzt
+     */
+    private void run(CollisionPairBuffer collisionPairs) {
+        for (Chunk chunk : chunks) {
+            chunk.reinitialize();
+        }
+        root.reinitialize();
+        pool.invoke(root);
+
+        collisionPairs.clear();
+        for (Chunk chunk : chunks) {
+            collisionPairs.addAll(chunk.collisionPairs);
+        }
+
+        broadphase = null;
+        gameObjects = null;
+        candidates = null;
+    }
+
+    /**
+     * Gibt den ersten Index des Abschnittes zurück.
+     * @param chunk Nummer des Abschnittes
+     * @param size Anzahl der aufzuteilenden Elemente
+     * @return erster Index, für chunk = Anzahl Abschnitte die Anzahl der Elemente
+     */
+    private int begin(int chunk, int size) {
+        return (int) ((long) size * chunk / chunks.length);
+    }
+}
@@ -0,0 +1,408 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.system.Vector2f;
+
+/**
+ * Implementierung des CollisionShapes als konvexes Polygon.
+ * Die Eckpunkte werden relativ zur Position des Spielobjektes angegeben und mit dessen Drehung in Weltkoordinaten umgerechnet.
+ * Position und Drehung werden direkt vom Spielobjekt gelesen. Eckpunkte, Kantennormalen und BoundingBox in Weltkoordinaten werden beim ersten Zugriff
+ * nach einem Verschieben oder Drehen neu berechnet, die Kollisionserkennung stößt dies über {@link #refresh()} vor der parallelen Prüfung an.
+ * Die Kollisionsprüfung erfolgt über das Trennungsachsen-Theorem (Separating Axis Theorem): Zwei konvexe Körper überlappen genau dann nicht,
+ * wenn es eine Achse gibt, auf der sich ihre Projektionen nicht überschneiden. Als Achsen genügen die Kantennormalen,
+ * bei Kreisen zusätzlich die Achse vom nächstgelegenen Eckpunkt zum Mittelpunkt.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.CollisionShape
+ */
+public class PolygonCollider implements CollisionShape {
+
+    /**
+     * Eckpunkte relativ zur Position - x
+     */
+    private final float[] localX;
+
+    /**
+     * Eckpunkte relativ zur Position - y
+     */
+    private final float[] localY;
+
+    /**
+     * nach außen zeigende, normierte Kantennormalen ohne Drehung - x. Normale i gehört zur Kante von Eckpunkt i zu Eckpunkt i+1.
+     */
+    private final float[] localNormalX;
+
+    /**
+     * nach außen zeigende, normierte Kantennormalen ohne Drehung - y
+     */
+    private final float[] localNormalY;
+
+    /**
+     * Eckpunkte in Weltkoordinaten - x
+     */
+    private final float[] worldX;
+
+    /**
+     * Eckpunkte in Weltkoordinaten - y
+     */
+    private final float[] worldY;
+
+    /**
+     * Kantennormalen in Weltkoordinaten - x
+     */
+    private final float[] normalX;
+
+    /**
+     * Kantennormalen in Weltkoordinaten - y
+     */
+    private final float[] normalY;
+
+    /**
+     * Spielobjekt, dessen Position und Drehung das Polygon bestimmen
+     */
+    private GameObject owner;
+
+    /**
+     * Position, für die die Weltkoordinaten zuletzt berechnet wurden. Positionen sind unveränderlich, ein neues Objekt bedeutet eine Bewegung.
+     */
+    private Vector2f position;
+
+    /**
+     * Drehwinkel in Grad, für den die Weltkoordinaten zuletzt berechnet wurden
+     */
+    private float rotation;
+
+    /**
+     * BoundingBox in Weltkoordinaten
+     */
+    private float minX, minY, maxX, maxY;
+
+    /**
+     * Konstruktor.
+     * @param vertices Eckpunkte relativ zur Position, müssen ein konvexes Polygon bilden
+     */
+    public PolygonCollider(Vector2f... vertices) {
+        if (vertices.length < 3)
+            throw new IllegalArgumentException("polygon needs at least 3 vertices");
+
+        int n = vertices.length;
+        localX = new float[n];
+        localY = new float[n];
+        localNormalX = new float[n];
+        localNormalY = new float[n];
+        worldX = new float[n];
+        worldY = new float[n];
+        normalX = new float[n];
+        normalY = new float[n];
+
+        float centerX = 0;
+        float centerY = 0;
+        for (int i = 0; i < n; i++) {
+            localX[i] = vertices[i].x;
+            localY[i] = vertices[i].y;
+            centerX += vertices[i].x / n;
+            centerY += vertices[i].y / n;
+        }
+
+        // Kantennormalen berechnen und nach außen (vom Schwerpunkt der Eckpunkte weg) ausrichten
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            float nx = localY[next] - localY[i];
+            float ny = localX[i] - localX[next];
+            float length = (float) Math.sqrt(nx * nx + ny * ny);
+            if (length == 0)
+                throw new IllegalArgumentException("polygon has duplicate vertices");
+            nx /= length;
+            ny /= length;
+            if (nx * (centerX - localX[i]) + ny * (centerY - localY[i]) > 0) {
+                nx = -nx;
+                ny = -ny;
+            }
+            localNormalX[i] = nx;
+            localNormalY[i] = ny;
+        }
+    }
+
+    /**
+     * Überprüfung auf Kollision.
+     *
+     * @param other Zweite CollisionShape mit der auf Kollision geprüft werden soll.
+     * @return Kollision stattgefunden oder nicht.
+     */
+    @Override
+    public boolean IntersectVisit(CollisionShape other) {
+        return other.Intersect(this);
+    }
+
+    /**
+     * Kollisionsprüfung mit einem Kreis.
+     * Überstrichene Kreise schneller Objekte werden in Schritten von höchstens einem Radius entlang ihres Weges geprüft.
+     *
+     * @param circleCollider Kreis, mit dem auf Kollision geprüft werden soll.
+     * @return Kollision stattgefunden oder nicht.
+     */
+    @Override
+    public boolean Intersect(CircleCollider circleCollider) {
+        if (!intersectsBounds(circleCollider))
+            return false;
+        Vector2f end = circleCollider.getPosition();
+        float radius = circleCollider.getRadius();
+        if (!circleCollider.isSwept())
+            return intersectsCircle(end.x, end.y, radius);
+
+        Vector2f start = circleCollider.getStartPosition();
+        float dx = end.x - start.x;
+        float dy = end.y - start.y;
+        int steps = (int) Math.ceil(Math.sqrt(dx * dx + dy * dy) / Math.max(radius, 1));
+        for (int i = 0; i <= steps; i++) {
+            float t = (float) i / steps;
+            if (intersectsCircle(start.x + dx * t, start.y + dy * t, radius))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Kollisionsprüfung mit einem anderen Polygon über die Kantennormalen beider Polygone.
+     *
+     * @param polygonCollider Polygon, mit dem auf Kollision geprüft werden soll.
+     * @return Kollision stattgefunden oder nicht.
+     */
+    @Override
+    public boolean Intersect(PolygonCollider polygonCollider) {
+        if (!intersectsBounds(polygonCollider))
+            return false;
+        return !hasSeparatingAxis(this, polygonCollider) && !hasSeparatingAxis(polygonCollider, this);
+    }
+
+    /**
+     * Setzt das Spielobjekt, dessen Position und Drehung das Polygon bestimmen. Wird vom Konstruktor des GameObjects aufgerufen.
+     *
+     * @param owner Spielobjekt
+     */
+    @Override
+    public void setOwner(GameObject owner) {
+        this.owner = owner;
+        this.position = null;
+    }
+
+    /**
+     * Berechnet die Weltkoordinaten neu, falls das Spielobjekt seit der letzten Berechnung verschoben oder gedreht wurde.
+     */
+    public void refresh() {
+        Vector2f current = owner.getPosition();
+        float currentRotation = owner.getRotation();
+        if (current == position && currentRotation == rotation)
+            return;
+        position = current;
+        rotation = currentRotation;
+        transform();
+    }
+
+    /**
+     * Gibt die linke Kante der BoundingBox zurück.
+     * @return linke Kante
+     */
+    @Override
+    public float getMinX() {
+        refresh();
+        return minX;
+    }
+
+    /**
+     * Gibt die obere Kante der BoundingBox zurück.
+     * @return obere Kante
+     */
+    @Override
+    public float getMinY() {
+        refresh();
+        return minY;
+    }
+
+    /**
+     * Gibt die rechte Kante der BoundingBox zurück.
+     * @return rechte Kante
+     */
+    @Override
+    public float getMaxX() {
+        refresh();
+        return maxX;
+    }
+
+    /**
+     * Gibt die untere Kante der BoundingBox zurück.
+     * @return untere Kante
+     */
+    @Override
+    public float getMaxY() {
+        refresh();
+        return maxY;
+    }
+
+    /**
+     * Prüft, ob das Polygon das übergebene Rechteck überlappt.
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Überlappung vorhanden
+     */
+    @Override
+    public boolean intersectsRect(float minX, float minY, float maxX, float maxY) {
+        refresh();
+
+        // Achsen des Rechteckes: BoundingBox des Polygons
+        if (this.maxX < minX || this.minX > maxX || this.maxY < minY || this.minY > maxY)
+            return false;
+
+        // Kantennormalen des Polygons
+        for (int i = 0; i < normalX.length; i++) {
+            float nx = normalX[i];
+            float ny = normalY[i];
+            float edge = nx * worldX[i] + ny * worldY[i];
+            // Ecke des Rechteckes, die am weitesten entgegen der Normalen liegt
+            float rectMin = nx * (nx < 0 ? maxX : minX) + ny * (ny < 0 ? maxY : minY);
+            if (rectMin > edge)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prüft, ob das Polygon den übergebenen Kreis überlappt.
+     * @param centerX Mittelpunkt - x
+     * @param centerY Mittelpunkt - y
+     * @param radius Radius
+     * @return Überlappung vorhanden
+     */
+    @Override
+    public boolean intersectsCircle(float centerX, float centerY, float radius) {
+        refresh();
+
+        // Kantennormalen: das Polygon liegt auf seiner Kante vollständig hinter der Kante
+        for (int i = 0; i < normalX.length; i++) {
+            float distance = normalX[i] * (centerX - worldX[i]) + normalY[i] * (centerY - worldY[i]);
+            if (distance > radius)
+                return false;
+        }
+
+        // Achse vom nächstgelegenen Eckpunkt zum Mittelpunkt
+        int closest = 0;
+        float closestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < worldX.length; i++) {
+            float dx = centerX - worldX[i];
+            float dy = centerY - worldY[i];
+            float distance = dx * dx + dy * dy;
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = i;
+            }
+        }
+        if (closestDistance <= radius * radius)
+            return true;
+
+        float length = (float) Math.sqrt(closestDistance);
+        float axisX = (centerX - worldX[closest]) / length;
+        float axisY = (centerY - worldY[closest]) / length;
+        float max = -Float.MAX_VALUE;
+        for (int i = 0; i < worldX.length; i++) {
+            max = Math.max(max, axisX * worldX[i] + axisY * worldY[i]);
+        }
+        return axisX * centerX + axisY * centerY - radius <= max;
+    }
+
+    /**
+     * Berechnet den Abstand vom Startpunkt eines Strahls bis zum ersten Schnittpunkt mit dem Polygon (Cyrus-Beck).
+     * @param originX Startpunkt - x
+     * @param originY Startpunkt - y
+     * @param directionX normierte Richtung - x
+     * @param directionY normierte Richtung - y
+     * @param maxDistance Länge des Strahls
+     * @return Abstand; 0 wenn der Startpunkt im Polygon liegt; -1 wenn der Strahl das Polygon nicht trifft
+     */
+    @Override
+    public float raycast(float originX, float originY, float directionX, float directionY, float maxDistance) {
+        refresh();
+
+        float enter = 0;
+        float exit = maxDistance;
+        for (int i = 0; i < normalX.length; i++) {
+            float distance = normalX[i] * (worldX[i] - originX) + normalY[i] * (worldY[i] - originY);
+            float speed = normalX[i] * directionX + normalY[i] * directionY;
+            if (speed == 0) {
+                if (distance < 0)
+                    return -1;      // parallel außerhalb der Kante
+                continue;
+            }
+            float t = distance / speed;
+            if (speed < 0)
+                enter = Math.max(enter, t);
+            else
+                exit = Math.min(exit, t);
+            if (enter > exit)
+                return -1;
+        }
+        return enter;
+    }
+
+    /**
+     * Rechnet Eckpunkte und Kantennormalen in Weltkoordinaten um und aktualisiert die BoundingBox.
+     */
+    private void transform() {
+        float rad = (float) Math.toRadians(rotation);
+        float cos = (float) Math.cos(rad);
+        float sin = (float) Math.sin(rad);
+
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        for (int i = 0; i < localX.length; i++) {
+            worldX[i] = position.x + localX[i] * cos - localY[i] * sin;
+            worldY[i] = position.y + localX[i] * sin + localY[i] * cos;
+            normalX[i] = localNormalX[i] * cos - localNormalY[i] * sin;
+            normalY[i] = localNormalX[i] * sin + localNormalY[i] * cos;
+            left = Math.min(left, worldX[i]);
+            top = Math.min(top, worldY[i]);
+            right = Math.max(right, worldX[i]);
+            bottom = Math.max(bottom, worldY[i]);
+        }
+        minX = left;
+        minY = top;
+        maxX = right;
+        maxY = bottom;
+    }
+
+    /**
+     * Prüft, ob sich die BoundingBoxen überlappen.
+     * @param other zweite Kollisionsbox
+     * @return Überlappung vorhanden
+     */
+    private boolean intersectsBounds(CollisionShape other) {
+        refresh();
+        return maxX >= other.getMinX() && minX <= other.getMaxX() && maxY >= other.getMinY() && minY <= other.getMaxY();
+    }
+
+    /**
+     * Prüft, ob eine der Kantennormalen von a die beiden Polygone trennt.
+     * a liegt jeweils vollständig hinter seiner Kante, getrennt sind die Polygone, wenn auch b vollständig vor der Kante liegt.
+     * @param a Polygon, dessen Kantennormalen geprüft werden
+     * @param b zweites Polygon
+     * @return Trennungsachse gefunden
+     */
+    private static boolean hasSeparatingAxis(PolygonCollider a, PolygonCollider b) {
+        for (int i = 0; i < a.normalX.length; i++) {
+            float nx = a.normalX[i];
+            float ny = a.normalY[i];
+            float edge = nx * a.worldX[i] + ny * a.worldY[i];
+            float min = Float.MAX_VALUE;
+            for (int j = 0; j < b.worldX.length; j++) {
+                min = Math.min(min, nx * b.worldX[j] + ny * b.worldY[j]);
+            }
+            if (min > edge)
+                return true;
+        }
+        return false;
+    }
+}
@@ -1,26 +1,40 @@
 package de.hsmw.tkretzs1.energetic.collision.impl;
 
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
 import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
 import org.jsfml.graphics.*;
+import org.jsfml.system.Vector2f;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Baum-Datenstruktur für zweidimensionale Elemente.
+ * Neben der Verwendung als Broadphase kann für jeden Knoten die Gesamtmasse und der Schwerpunkt seines Teilbaumes berechnet werden.
+ * Damit lässt sich die Gravitation vieler Körper nach Barnes-Hut in O(n log n) annähern: Weit entfernte Knoten wirken wie ein einzelner Körper in ihrem Schwerpunkt.
+ *
+ * Da der Baum meist in jedem Simulationsschritt geleert und neu befüllt wird, behält clear() die einmal angelegten Kindknoten.
+ * Ihre Bereiche hängen nur von der Lage im Baum ab, beim erneuten Aufteilen werden sie daher unverändert wiederverwendet und im eingeschwungenen Zustand wird kein Speicher angefordert.
  *
  * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.Broadphase
  */
-public class Quadtree{
+public class Quadtree implements Broadphase{
 
     private int MAX_OBJECTS = 10;   // Maximale Objekte bevor aufgeteilt wird
     private int MAX_LEVELS = 5;     // Tiefste Knoten-Ebene
 
     private int level;              // aktuelle Ebene des Knotens
     private ArrayList<GameObject> objects;
-    private IntRect bounds;         // verwendeter 2D-Raum
-    private Quadtree[] nodes;       // 4 Kindknoten (subnodes)
+    private FloatRect bounds;       // verwendeter 2D-Raum, Kanten in Fließkomma wie die BoundingBoxen
+    private Quadtree[] nodes;       // 4 Kindknoten (subnodes), bleiben nach clear() erhalten und werden beim nächsten Aufteilen wiederverwendet
+    private boolean divided;        // Knoten ist aufgeteilt, nur dann gehören die Kindknoten zum Baum
+    private boolean pointMasses;    // Objekte nur nach ihrer Position einsortieren, nicht nach der BoundingBox (für die Gravitation)
+
+    private float mass;             // Gesamtmasse des Teilbaumes, wird von computeMassDistribution() berechnet
+    private float centerX;          // Schwerpunkt des Teilbaumes - x
+    private float centerY;          // Schwerpunkt des Teilbaumes - y
 
     /**
      * Konstruktor.
@@ -30,6 +44,31 @@ public class Quadtree{
      * @param pBounds überdeckter 2D-Raum
      */
     public Quadtree(int pLevel, IntRect pBounds){
+        this(pLevel, new FloatRect(pBounds));
+    }
+
+    /**
+     * Konstruktor.
+     * Erstellt neuen Quadtree, der die Objekte als Massenpunkte nur nach ihrer Position einsortiert.
+     * Objekte auf den Mittellinien bleiben dann nicht in den oberen Knoten hängen, was die Gravitationsberechnung beschleunigt.
+     * Für die Kollisionserkennung ist ein solcher Quadtree nicht geeignet, da retrieve() überlappende Objekte übersehen kann.
+     *
+     * @param pBounds überdeckter 2D-Raum
+     * @param pointMasses Objekte nur nach ihrer Position einsortieren
+     */
+    public Quadtree(IntRect pBounds, boolean pointMasses){
+        this(0, new FloatRect(pBounds));
+        this.pointMasses = pointMasses;
+    }
+
+    /**
+     * Konstruktor.
+     * Erstellt neuen Quadtree auf der Ebene und mit dem zugewiesenen 2D-Raum
+     *
+     * @param pLevel Ebene des Quadtree-Knotens
+     * @param pBounds überdeckter 2D-Raum
+     */
+    public Quadtree(int pLevel, FloatRect pBounds){
         level = pLevel;
         objects = new ArrayList();
         bounds = pBounds;
@@ -37,66 +76,91 @@ public class Quadtree{
     }
 
     /**
-     * Leert den Quadtree
+     * Leert den Quadtree.
+     * Die Kindknoten werden nur abgehängt, nicht verworfen.
      */
     public void clear() {
         objects.clear();
 
-        for (int i = 0; i < nodes.length; i++) {
-            if (nodes[i] != null) {
+        if (divided) {
+            for (int i = 0; i < nodes.length; i++) {
                 nodes[i].clear();
-                nodes[i] = null;
             }
+            divided = false;
         }
     }
 
     /**
-     * Spaltet Knoten in 4 Kindknoten auf
+     * Leert den Quadtree und fügt alle übergebenen Spielobjekte neu ein.
+     *
+     * @param gameObjects alle Spielobjekte, die zur Kollisionserkennung angemeldet sind
+     */
+    @Override
+    public void update(List<GameObject> gameObjects) {
+        clear();
+        for (GameObject gameObject : gameObjects) {
+            insert(gameObject);
+        }
+    }
+
+    /**
+     * Spaltet Knoten in 4 Kindknoten auf.
+     * Bereits vorhandene Kindknoten aus einem früheren Aufteilen werden wiederverwendet.
      */
     private void split() {
-        int subWidth = (bounds.width / 2);
-        int subHeight = (bounds.height / 2);
-        int x = bounds.left;
-        int y = bounds.top;
+        divided = true;
+        if (nodes[0] != null)
+            return;
+
+        float subWidth = (bounds.width / 2);
+        float subHeight = (bounds.height / 2);
+        float x = bounds.left;
+        float y = bounds.top;
 
-        nodes[0] = new Quadtree(level+1, new IntRect(x + subWidth, y, subWidth, subHeight));
-        nodes[1] = new Quadtree(level+1, new IntRect(x, y, subWidth, subHeight));
-        nodes[2] = new Quadtree(level+1, new IntRect(x, y + subHeight, subWidth, subHeight));
-        nodes[3] = new Quadtree(level+1, new IntRect(x + subWidth, y + subHeight, subWidth, subHeight));
+        nodes[0] = new Quadtree(level+1, new FloatRect(x + subWidth, y, subWidth, subHeight));
+        nodes[1] = new Quadtree(level+1, new FloatRect(x, y, subWidth, subHeight));
+        nodes[2] = new Quadtree(level+1, new FloatRect(x, y + subHeight, subWidth, subHeight));
+        nodes[3] = new Quadtree(level+1, new FloatRect(x + subWidth, y + subHeight, subWidth, subHeight));
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i].pointMasses = pointMasses;
+        }
     }
 
     /**
      * Gibt den Index des übergebenen Spielobjektes zurück.
-     * Hilfsmethode - Ruft getIndex(CircleCollider circleCollider) auf
+     * Hilfsmethode - Ruft getIndex() mit der BoundingBox der Kollisionsbox auf, bei Massenpunkten mit der Position
      * @param gameObject Spielobjekt
      * @return Index; -1 wenn nicht gefunden.
      */
     private int getIndex(GameObject gameObject){
-        CollisionShape shape = gameObject.getCollisionShape();
-        int index = -1;
-        if( shape instanceof CircleCollider) {
-            index = getIndex((CircleCollider) shape);
+        if (pointMasses) {
+            Vector2f position = gameObject.getPosition();
+            return getIndex(position.x, position.y, position.x, position.y);
         }
-        return index;
+        CollisionShape shape = gameObject.getCollisionShape();
+        return getIndex(shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
     }
 
     /**
-     * Gibt den Index des übergebenen Colliders zurück.
-     * @param circleCollider Kollisionsbox
-     * @return Index; -1 wenn nicht gefunden.
+     * Gibt den Index des Quadranten zurück, der den übergebenen Bereich vollständig enthält.
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Index; -1 wenn der Bereich auf einer Mittellinie liegt.
      */
-    private int getIndex(CircleCollider circleCollider) {
+    private int getIndex(float minX, float minY, float maxX, float maxY) {
         int index = -1;
-        double verticalMidpoint = bounds.left + (bounds.width / 2);
-        double horizontalMidpoint = bounds.top + (bounds.height / 2);
+        float verticalMidpoint = bounds.left + (bounds.width / 2);
+        float horizontalMidpoint = bounds.top + (bounds.height / 2);
 
         // Objekt passt komplett in den oberen Quadrant
-        boolean topQuadrant = (circleCollider.y - circleCollider.radius < horizontalMidpoint && circleCollider.y + circleCollider.radius < horizontalMidpoint);
+        boolean topQuadrant = (minY < horizontalMidpoint && maxY < horizontalMidpoint);
         // Objekt passt komplett in den unteren Quadrant
-        boolean bottomQuadrant = (circleCollider.y - circleCollider.radius > horizontalMidpoint);
+        boolean bottomQuadrant = (minY > horizontalMidpoint);
 
         // Objekt passt komplett in die linken Quadranten
-        if (circleCollider.x - circleCollider.radius < verticalMidpoint && circleCollider.x + circleCollider.radius < verticalMidpoint) {
+        if (minX < verticalMidpoint && maxX < verticalMidpoint) {
             if (topQuadrant) {
                 index = 1;
             }
@@ -105,7 +169,7 @@ public class Quadtree{
             }
         }
         // Objekt passt komplett in die rechten Quadranten
-        else if (circleCollider.x - circleCollider.radius > verticalMidpoint) {
+        else if (minX > verticalMidpoint) {
             if (topQuadrant) {
                 index = 0;
             }
@@ -123,7 +187,7 @@ public class Quadtree{
      * @param gameObject Spielobjekt
      */
     public void insert(GameObject gameObject) {
-        if (nodes[0] != null) {
+        if (divided) {
             int index = getIndex(gameObject);
 
             if (index != -1) {
@@ -137,7 +201,7 @@ public class Quadtree{
 
         // Wenn Kapazität überstiegen wird -> aufsplitten
         if (objects.size() > MAX_OBJECTS && level < MAX_LEVELS) {
-            if (nodes[0] == null) {
+            if (!divided) {
                 split();
             }
 
@@ -168,13 +232,172 @@ public class Quadtree{
      * @param gameObject  Spielobjekt dessen Umgebung geprüft werden soll.
      * @return Liste der Objekte
      */
-    public List retrieve(List returnObjects, GameObject gameObject) {
-        int index = getIndex(gameObject);
-        if (index != -1 && nodes[0] != null) {
-            nodes[index].retrieve(returnObjects, gameObject);
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, GameObject gameObject) {
+        CollisionShape shape = gameObject.getCollisionShape();
+        return retrieve(returnObjects, shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
+    }
+
+    /**
+     * Gibt alle Objekte zurück, die den übergebenen Bereich überlappen könnten.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param minX linke Kante des Bereiches
+     * @param minY obere Kante des Bereiches
+     * @param maxX rechte Kante des Bereiches
+     * @param maxY untere Kante des Bereiches
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, float minX, float minY, float maxX, float maxY) {
+        if (divided) {
+            int index = getIndex(minX, minY, maxX, maxY);
+            if (index != -1) {
+                nodes[index].retrieve(returnObjects, minX, minY, maxX, maxY);
+            } else {
+                // Bereich liegt auf einer Mittellinie - auch alle berührten Kindknoten durchsuchen, damit die Abfrage symmetrisch ist
+                for (int i = 0; i < nodes.length; i++) {
+                    if (touchesQuadrant(i, minX, minY, maxX, maxY))
+                        nodes[i].retrieve(returnObjects, minX, minY, maxX, maxY);
+                }
+            }
         }
 
         returnObjects.addAll(objects);
         return returnObjects;
     }
+
+    /**
+     * Prüft, ob der Bereich den Quadranten mit dem übergebenen Index berührt.
+     * Die Quadranten sind wie in getIndex() nur durch die Mittellinien begrenzt, damit auch Objekte außerhalb des Knotens gefunden werden.
+     * @param index Index des Quadranten
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Quadrant berührt
+     */
+    private boolean touchesQuadrant(int index, float minX, float minY, float maxX, float maxY) {
+        float verticalMidpoint = bounds.left + (bounds.width / 2);
+        float horizontalMidpoint = bounds.top + (bounds.height / 2);
+        boolean left = minX <= verticalMidpoint;
+        boolean right = maxX >= verticalMidpoint;
+        boolean top = minY <= horizontalMidpoint;
+        boolean bottom = maxY >= horizontalMidpoint;
+
+        switch (index) {
+            case 0: return right && top;
+            case 1: return left && top;
+            case 2: return left && bottom;
+            default: return right && bottom;
+        }
+    }
+
+    /**
+     * Berechnet Gesamtmasse und Schwerpunkt aller Knoten von unten nach oben.
+     * Muss nach dem Einfügen und vor getGravity() aufgerufen werden.
+     */
+    public void computeMassDistribution() {
+        float weightedX = 0;
+        float weightedY = 0;
+        mass = 0;
+
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.get(i);
+            Vector2f position = object.getPosition();
+            mass += object.getMass();
+            weightedX += position.x * object.getMass();
+            weightedY += position.y * object.getMass();
+        }
+
+        if (divided) {
+            for (int i = 0; i < nodes.length; i++) {
+                Quadtree node = nodes[i];
+                node.computeMassDistribution();
+                mass += node.mass;
+                weightedX += node.centerX * node.mass;
+                weightedY += node.centerY * node.mass;
+            }
+        }
+
+        if (mass > 0) {
+            centerX = weightedX / mass;
+            centerY = weightedY / mass;
+        }
+    }
+
+    /**
+     * Berechnet die Anziehung aller eingefügten Objekte auf einen Körper nach Barnes-Hut, ohne Gravitationskonstante.
+     * Ein Knoten, dessen Kantenlänge im Verhältnis zum Abstand seines Schwerpunktes kleiner als theta ist und der den Körper nicht enthält,
+     * wird als einzelner Körper in seinem Schwerpunkt gerechnet, sonst werden seine Objekte einzeln und seine Kindknoten rekursiv betrachtet.
+     *
+     * @param body Körper, auf den die Anziehung wirkt; wird selbst nicht mitgerechnet
+     * @param theta Genauigkeit der Näherung, 0 für die exakte Summe über alle Objekte
+     * @param softening Glättungslänge, begrenzt die Anziehung bei sehr kleinen Abständen
+     * @param acceleration Array für das Ergebnis - x und y, wird überschrieben und kann für alle Körper wiederverwendet werden.
+     *                     Enthält danach die Summe aus Masse * Richtung / Abstand² über alle Objekte.
+     */
+    public void getGravity(GameObject body, float theta, float softening, float[] acceleration) {
+        acceleration[0] = 0;
+        acceleration[1] = 0;
+        Vector2f position = body.getPosition();
+        accumulateGravity(body, position.x, position.y, theta * theta, softening * softening, acceleration);
+    }
+
+    /**
+     * Rekursive Berechnung der Anziehung ab diesem Knoten.
+     * @param body Körper, auf den die Anziehung wirkt
+     * @param x Position des Körpers - x
+     * @param y Position des Körpers - y
+     * @param thetaSquared quadrierte Genauigkeit der Näherung
+     * @param softeningSquared quadrierte Glättungslänge
+     * @param acceleration aufsummierte Anziehung - x und y
+     */
+    private void accumulateGravity(GameObject body, float x, float y, float thetaSquared, float softeningSquared, float[] acceleration) {
+        if (mass <= 0)
+            return;
+
+        float dx = centerX - x;
+        float dy = centerY - y;
+        float distanceSquared = dx * dx + dy * dy;
+        float size = Math.max(bounds.width, bounds.height);
+        boolean inside = x >= bounds.left && x < bounds.left + bounds.width && y >= bounds.top && y < bounds.top + bounds.height;
+
+        // weit entfernter Knoten - wirkt wie ein Körper im Schwerpunkt
+        if (!inside && size * size < thetaSquared * distanceSquared) {
+            addAttraction(mass, dx, dy, softeningSquared, acceleration);
+            return;
+        }
+
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject object = objects.get(i);
+            if (object == body)
+                continue;
+            Vector2f position = object.getPosition();
+            addAttraction(object.getMass(), position.x - x, position.y - y, softeningSquared, acceleration);
+        }
+
+        if (divided) {
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i].accumulateGravity(body, x, y, thetaSquared, softeningSquared, acceleration);
+            }
+        }
+    }
+
+    /**
+     * Addiert die Anziehung einer Masse: m * d / (|d|² + e²)^(3/2).
+     * @param mass anziehende Masse
+     * @param dx Abstand zur Masse - x
+     * @param dy Abstand zur Masse - y
+     * @param softeningSquared quadrierte Glättungslänge
+     * @param acceleration aufsummierte Anziehung - x und y
+     */
+    private static void addAttraction(float mass, float dx, float dy, float softeningSquared, float[] acceleration) {
+        float distanceSquared = dx * dx + dy * dy + softeningSquared;
+        if (distanceSquared == 0)
+            return;
+        float factor = mass / (distanceSquared * (float) Math.sqrt(distanceSquared));
+        acceleration[0] += dx * factor;
+        acceleration[1] += dy * factor;
+    }
 }
@@ -0,0 +1,216 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.graphics.IntRect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gleichmäßiges Gitter als Broadphase.
+ * Jedes Spielobjekt wird genau der Zelle zugeordnet, in der der Mittelpunkt seiner BoundingBox liegt. Ist die Zellgröße mindestens so groß wie die BoundingBox der Objekte,
+ * genügt es bei einer Abfrage die Zelle des Objektes und ihre direkten Nachbarn zu durchsuchen. Größere Objekte (z.B. der Planet) werden gesondert gehalten
+ * und jedem Objekt als möglicher Kollisionspartner zurückgegeben.
+ *
+ * Die Zuordnung erfolgt per Counting Sort in wiederverwendete Arrays, sodass nach dem ersten Durchlauf pro Frame kein Speicher mehr angefordert wird.
+ * Objekte außerhalb des Gitters werden der nächstgelegenen Randzelle zugeordnet.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.Broadphase
+ */
+public class SpatialHashGrid implements Broadphase {
+
+    /**
+     * vom Gitter überdeckter 2D-Raum
+     */
+    private final IntRect bounds;
+
+    /**
+     * Kantenlänge einer Zelle
+     */
+    private final int cellSize;
+
+    /**
+     * Anzahl der Zellen in x-Richtung
+     */
+    private final int columns;
+
+    /**
+     * Anzahl der Zellen in y-Richtung
+     */
+    private final int rows;
+
+    /**
+     * Startindex jeder Zelle in cellObjects. Die Objekte der Zelle c liegen im Bereich [cellStart[c], cellStart[c+1]).
+     */
+    private final int[] cellStart;
+
+    /**
+     * Schreibposition je Zelle, wird beim Einsortieren benötigt
+     */
+    private final int[] cellFill;
+
+    /**
+     * Zellindex je Spielobjekt in Reihenfolge der übergebenen Liste, -1 für große Objekte
+     */
+    private int[] objectCell = new int[0];
+
+    /**
+     * nach Zellen sortierte Spielobjekte
+     */
+    private GameObject[] cellObjects = new GameObject[0];
+
+    /**
+     * Anzahl der einsortierten Spielobjekte
+     */
+    private int count;
+
+    /**
+     * Spielobjekte, deren BoundingBox größer als eine Zelle ist
+     */
+    private final List<GameObject> largeObjects = new ArrayList<>();
+
+    /**
+     * Konstruktor.
+     * Legt neues Gitter über den übergebenen 2D-Raum an.
+     *
+     * @param bounds überdeckter 2D-Raum
+     * @param cellSize Kantenlänge einer Zelle, sollte dem größten Durchmesser der häufigen Objekte entsprechen
+     */
+    public SpatialHashGrid(IntRect bounds, int cellSize) {
+        this.bounds = bounds;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (bounds.width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (bounds.height + cellSize - 1) / cellSize);
+        this.cellStart = new int[columns * rows + 1];
+        this.cellFill = new int[columns * rows];
+    }
+
+    /**
+     * Sortiert alle Spielobjekte neu in das Gitter ein.
+     *
+     * @param gameObjects alle Spielobjekte, die zur Kollisionserkennung angemeldet sind
+     */
+    @Override
+    public void update(List<GameObject> gameObjects) {
+        int n = gameObjects.size();
+        if (objectCell.length < n) {
+            objectCell = new int[n];
+            cellObjects = new GameObject[n];
+        }
+        Arrays.fill(cellStart, 0);
+        largeObjects.clear();
+
+        // Objekte je Zelle zählen
+        for (int i = 0; i < n; i++) {
+            int cell = getCell(gameObjects.get(i));
+            objectCell[i] = cell;
+            if (cell != -1)
+                cellStart[cell + 1]++;
+        }
+
+        // Startindizes der Zellen berechnen (Präfixsumme)
+        for (int c = 0; c < cellFill.length; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        System.arraycopy(cellStart, 0, cellFill, 0, cellFill.length);
+
+        // Objekte in ihre Zellen einsortieren
+        for (int i = 0; i < n; i++) {
+            int cell = objectCell[i];
+            if (cell != -1)
+                cellObjects[cellFill[cell]++] = gameObjects.get(i);
+            else
+                largeObjects.add(gameObjects.get(i));
+        }
+
+        // Referenzen aus dem vorherigen Durchlauf freigeben
+        int sorted = cellStart[cellFill.length];
+        for (int i = sorted; i < count; i++) {
+            cellObjects[i] = null;
+        }
+        count = sorted;
+    }
+
+    /**
+     * Gibt alle Objekte zurück, die mit dem übergebenen Objekt kollidieren könnten.
+     * Durchsucht alle Zellen, in denen Mittelpunkte von überlappenden Objekten liegen können, und fügt alle großen Objekte hinzu.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param gameObject Spielobjekt dessen Umgebung geprüft werden soll.
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, GameObject gameObject) {
+        CollisionShape shape = gameObject.getCollisionShape();
+        return retrieve(returnObjects, shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
+    }
+
+    /**
+     * Gibt alle Objekte zurück, die den übergebenen Bereich überlappen könnten.
+     * Durchsucht alle Zellen, in denen Mittelpunkte von überlappenden Objekten liegen können, und fügt alle großen Objekte hinzu.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param minX linke Kante des Bereiches
+     * @param minY obere Kante des Bereiches
+     * @param maxX rechte Kante des Bereiches
+     * @param maxY untere Kante des Bereiches
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, float minX, float minY, float maxX, float maxY) {
+        // Mittelpunkte überlappender Objekte können bis zu einer halben Zelle außerhalb des Bereiches liegen
+        float reach = cellSize / 2f;
+        int minColumn = getColumn(minX - reach);
+        int maxColumn = getColumn(maxX + reach);
+        int minRow = getRow(minY - reach);
+        int maxRow = getRow(maxY + reach);
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    returnObjects.add(cellObjects[i]);
+                }
+            }
+        }
+        returnObjects.addAll(largeObjects);
+        return returnObjects;
+    }
+
+    /**
+     * Gibt den Index der Zelle zurück, in die das Spielobjekt einsortiert wird.
+     * @param gameObject Spielobjekt
+     * @return Zellindex; -1 wenn das Objekt zu groß ist.
+     */
+    private int getCell(GameObject gameObject) {
+        CollisionShape shape = gameObject.getCollisionShape();
+        if (shape.getMaxX() - shape.getMinX() > cellSize || shape.getMaxY() - shape.getMinY() > cellSize)
+            return -1;
+
+        return getRow((shape.getMinY() + shape.getMaxY()) / 2) * columns + getColumn((shape.getMinX() + shape.getMaxX()) / 2);
+    }
+
+    /**
+     * Gibt die Spalte zur x-Koordinate zurück, begrenzt auf das Gitter.
+     * @param x x-Koordinate
+     * @return Spalte
+     */
+    private int getColumn(float x) {
+        int column = (int) Math.floor((x - bounds.left) / cellSize);
+        return Math.min(Math.max(column, 0), columns - 1);
+    }
+
+    /**
+     * Gibt die Zeile zur y-Koordinate zurück, begrenzt auf das Gitter.
+     * @param y y-Koordinate
+     * @return Zeile
+     */
+    private int getRow(float y) {
+        int row = (int) Math.floor((y - bounds.top) / cellSize);
+        return Math.min(Math.max(row, 0), rows - 1);
+    }
+}
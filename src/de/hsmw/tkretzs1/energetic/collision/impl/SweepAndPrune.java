@@ -0,0 +1,229 @@
+package de.hsmw.tkretzs1.energetic.collision.impl;
+
+import de.hsmw.tkretzs1.energetic.collision.CollisionShape;
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.PairBroadphase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sweep and Prune als Broadphase.
+ * Die Spielobjekte werden nach der linken Kante ihrer BoundingBox (x-Achse) sortiert. Überlappende Paare werden durch einen Durchlauf über die sortierte Liste gefunden:
+ * Ein Objekt muss nur mit den folgenden Objekten verglichen werden, deren linke Kante vor seiner rechten Kante liegt.
+ *
+ * Die sortierten Arrays bleiben zwischen den Frames erhalten. Da sich die Objekte pro Frame nur wenig bewegen, ändert sich die Reihenfolge kaum
+ * und Insertion Sort stellt die Sortierung in nahezu linearer Zeit wieder her (zeitliche Kohärenz).
+ *
+ * Statt getrennter Listen der linken und rechten Kanten, deren Vertauschungen eine dauerhaft gepflegte Paarmenge erfordern würden,
+ * werden ganze BoundingBoxen nach ihrer linken Kante sortiert. Die Paare werden dadurch in jedem Frame mit einem Durchlauf ohne Paarmenge ermittelt.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.PairBroadphase
+ */
+public class SweepAndPrune implements PairBroadphase {
+
+    /**
+     * Zähler für die Markierungen der Spielobjekte. Er wird von allen Instanzen geteilt, damit ein Objekt, das zwischen zwei Broadphasen wechselt,
+     * keine gültige Markierung der anderen Instanz trägt.
+     */
+    private static final AtomicInteger nextStamp = new AtomicInteger();
+
+    /**
+     * nach minX sortierte Spielobjekte
+     */
+    private GameObject[] objects = new GameObject[16];
+
+    /**
+     * linke Kante der BoundingBox je Spielobjekt, gleiche Reihenfolge wie objects (Sortierschlüssel)
+     */
+    private float[] minX = new float[16];
+
+    /**
+     * rechte Kante der BoundingBox je Spielobjekt
+     */
+    private float[] maxX = new float[16];
+
+    /**
+     * obere Kante der BoundingBox je Spielobjekt
+     */
+    private float[] minY = new float[16];
+
+    /**
+     * untere Kante der BoundingBox je Spielobjekt
+     */
+    private float[] maxY = new float[16];
+
+    /**
+     * Anzahl der sortierten Spielobjekte
+     */
+    private int count;
+
+    /**
+     * größte Breite einer BoundingBox, begrenzt die Suche in retrieve()
+     */
+    private float maxWidth;
+
+    /**
+     * Gleicht die sortierten Arrays mit den übergebenen Spielobjekten ab, aktualisiert die BoundingBoxen und sortiert nach.
+     * Nicht mehr vorhandene Objekte werden entfernt, neue Objekte am Ende angefügt. Die Reihenfolge der übrigen Objekte bleibt erhalten.
+     * Der Abgleich erfolgt über die Markierung der Spielobjekte und kommt ohne Hashing aus.
+     *
+     * @param gameObjects alle Spielobjekte, die zur Kollisionserkennung angemeldet sind
+     */
+    @Override
+    public void update(List<GameObject> gameObjects) {
+        // passed: im aktuellen Update übergeben, sorted: übergeben und bereits in den sortierten Arrays
+        int passed = nextStamp.addAndGet(2) - 1;
+        int sorted = passed + 1;
+        for (int i = 0; i < gameObjects.size(); i++) {
+            gameObjects.get(i).setBroadphaseStamp(passed);
+        }
+
+        // entfernte Objekte herausnehmen, Reihenfolge beibehalten
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            GameObject object = objects[i];
+            if (object.getBroadphaseStamp() == passed) {
+                object.setBroadphaseStamp(sorted);
+                objects[kept++] = object;
+            }
+        }
+        for (int i = kept; i < count; i++) {
+            objects[i] = null;
+        }
+        count = kept;
+
+        // neue Objekte anfügen
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject gameObject = gameObjects.get(i);
+            if (gameObject.getBroadphaseStamp() == passed) {
+                gameObject.setBroadphaseStamp(sorted);
+                ensureCapacity(count + 1);
+                objects[count++] = gameObject;
+            }
+        }
+
+        // BoundingBoxen aktualisieren
+        maxWidth = 0;
+        for (int i = 0; i < count; i++) {
+            CollisionShape shape = objects[i].getCollisionShape();
+            minX[i] = shape.getMinX();
+            maxX[i] = shape.getMaxX();
+            minY[i] = shape.getMinY();
+            maxY[i] = shape.getMaxY();
+            maxWidth = Math.max(maxWidth, maxX[i] - minX[i]);
+        }
+
+        insertionSort();
+    }
+
+    /**
+     * Ermittelt alle Paare mit überlappenden BoundingBoxen durch einen Durchlauf über die sortierten Objekte.
+     *
+     * @param collisionPairs Puffer, dem die möglichen Kollisionspaare hinzugefügt werden
+     */
+    @Override
+    public void findPairs(CollisionPairBuffer collisionPairs) {
+        for (int i = 0; i < count; i++) {
+            // nur nachfolgende Objekte, deren linke Kante vor der eigenen rechten Kante liegt, können überlappen
+            for (int j = i + 1; j < count && minX[j] <= maxX[i]; j++) {
+                if (minY[j] <= maxY[i] && maxY[j] >= minY[i] && objects[i].canCollide(objects[j]))
+                    collisionPairs.add(objects[i].getCollisionIndex(), objects[j].getCollisionIndex());
+            }
+        }
+    }
+
+    /**
+     * Gibt alle Objekte zurück, deren BoundingBox die des übergebenen Objektes überlappt.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param gameObject Spielobjekt dessen Umgebung geprüft werden soll.
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, GameObject gameObject) {
+        CollisionShape shape = gameObject.getCollisionShape();
+        return retrieve(returnObjects, shape.getMinX(), shape.getMinY(), shape.getMaxX(), shape.getMaxY());
+    }
+
+    /**
+     * Gibt alle Objekte zurück, deren BoundingBox den übergebenen Bereich überlappt.
+     * Der Startpunkt der Suche wird per binärer Suche über die sortierten linken Kanten bestimmt.
+     *
+     * @param returnObjects Liste für die zurückgegebenen Objekte
+     * @param queryMinX linke Kante des Bereiches
+     * @param queryMinY obere Kante des Bereiches
+     * @param queryMaxX rechte Kante des Bereiches
+     * @param queryMaxY untere Kante des Bereiches
+     * @return Liste der Objekte
+     */
+    @Override
+    public List<GameObject> retrieve(List<GameObject> returnObjects, float queryMinX, float queryMinY, float queryMaxX, float queryMaxY) {
+        // erstes Objekt, dessen rechte Kante die Abfrage erreichen kann
+        int low = 0;
+        int high = count;
+        float start = queryMinX - maxWidth;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (minX[mid] < start)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+
+        for (int i = low; i < count && minX[i] <= queryMaxX; i++) {
+            if (maxX[i] >= queryMinX && minY[i] <= queryMaxY && maxY[i] >= queryMinY)
+                returnObjects.add(objects[i]);
+        }
+        return returnObjects;
+    }
+
+    /**
+     * Sortiert alle Arrays nach minX. Bei nahezu sortierten Daten (zeitliche Kohärenz) ist der Aufwand nahezu linear.
+     */
+    private void insertionSort() {
+        for (int i = 1; i < count; i++) {
+            float key = minX[i];
+            if (minX[i - 1] <= key)
+                continue;
+
+            GameObject object = objects[i];
+            float keyMaxX = maxX[i];
+            float keyMinY = minY[i];
+            float keyMaxY = maxY[i];
+
+            int j = i - 1;
+            while (j >= 0 && minX[j] > key) {
+                objects[j + 1] = objects[j];
+                minX[j + 1] = minX[j];
+                maxX[j + 1] = maxX[j];
+                minY[j + 1] = minY[j];
+                maxY[j + 1] = maxY[j];
+                j--;
+            }
+            objects[j + 1] = object;
+            minX[j + 1] = key;
+            maxX[j + 1] = keyMaxX;
+            minY[j + 1] = keyMinY;
+            maxY[j + 1] = keyMaxY;
+        }
+    }
+
+    /**
+     * Vergrößert die Arrays bei Bedarf.
+     * @param capacity benötigte Kapazität
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= objects.length)
+            return;
+
+        int size = Math.max(capacity, objects.length * 2);
+        objects = Arrays.copyOf(objects, size);
+        minX = Arrays.copyOf(minX, size);
+        maxX = Arrays.copyOf(maxX, size);
+        minY = Arrays.copyOf(minY, size);
+        maxY = Arrays.copyOf(maxY, size);
+    }
+}
@@ -0,0 +1,77 @@
+package de.hsmw.tkretzs1.energetic.core;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.system.Vector2f;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Puffer für Änderungen an der Objektliste eines Levels.
+ * Spielobjekte dürfen während des Updates und der Kollisionsauflösung weder neue Objekte in die Liste einfügen noch Explosionen anlegen,
+ * da die Liste gerade durchlaufen (und beim parallelen Update von mehreren Threads gelesen) wird. Stattdessen werden die Änderungen hier aufgezeichnet
+ * und vom Level an einem festen Synchronisationspunkt am Ende des Simulationsschrittes angewendet. Dort werden auch alle zerstörten Objekte entfernt.
+ *
+ * Das Aufzeichnen ist threadsicher. Die Befehle werden in der Reihenfolge ihres Eintreffens angewendet.
+ *
+ * @author Tom Kretzschmar
+ */
+public class CommandBuffer {
+
+    /**
+     * neu angelegte Spielobjekte in Reihenfolge der Aufzeichnung
+     */
+    private final List<GameObject> spawned = new ArrayList<>();
+
+    /**
+     * Positionen neuer Explosionen in Reihenfolge der Aufzeichnung
+     */
+    private final List<Vector2f> explosions = new ArrayList<>();
+
+    /**
+     * Zeichnet ein neues Spielobjekt auf, das am Synchronisationspunkt in das Level eingefügt wird.
+     * @param gameObject neues Spielobjekt
+     */
+    public synchronized void spawn(GameObject gameObject) {
+        spawned.add(gameObject);
+    }
+
+    /**
+     * Zeichnet eine Explosion auf, die am Synchronisationspunkt im Level angelegt wird.
+     * @param position Position der Explosion
+     */
+    public synchronized void explode(Vector2f position) {
+        explosions.add(position);
+    }
+
+    /**
+     * Wendet alle aufgezeichneten Befehle an (Synchronisationspunkt).
+     * Entfernt zuerst alle zerstörten Spielobjekte aus der Liste, fügt dann die neuen Objekte an und legt die Explosionen im Level an.
+     * Darf nur aufgerufen werden, während kein anderer Thread die Liste liest.
+     *
+     * @param gameObjects Objektliste des Levels
+     * @param level Level, in dem die Explosionen angelegt werden
+     */
+    public synchronized void apply(List<GameObject> gameObjects, Level level) {
+        Iterator<GameObject> it = gameObjects.iterator();
+        while (it.hasNext()) {
+            if (!it.next().isAlive())
+                it.remove();
+        }
+
+        gameObjects.addAll(spawned);
+        for (Vector2f position : explosions) {
+            level.addExplosion(position);
+        }
+        clear();
+    }
+
+    /**
+     * Verwirft alle aufgezeichneten Befehle, z.B. beim Wechsel des Levels.
+     */
+    public synchronized void clear() {
+        spawned.clear();
+        explosions.clear();
+    }
+}
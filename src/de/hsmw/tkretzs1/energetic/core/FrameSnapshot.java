@@ -0,0 +1,51 @@
+package de.hsmw.tkretzs1.energetic.core;
+
+import org.jsfml.graphics.Drawable;
+import org.jsfml.system.Vector2f;
+
+/**
+ * Unveränderlicher Schnappschuss eines simulierten Frames.
+ * Wird vom Simulationsthread erzeugt und vom Renderthread gezeichnet, ohne dass dieser auf den sich verändernden Zustand des Levels zugreifen muss.
+ *
+ * @see de.hsmw.tkretzs1.energetic.core.SimulationThread
+ * @author Tom Kretzschmar
+ */
+public class FrameSnapshot {
+
+    /**
+     * Zeichenbarer Zustand des Levels
+     */
+    private final Drawable scene;
+
+    /**
+     * Kameraposition in Weltkoordinaten
+     */
+    private final Vector2f cameraPos;
+
+    /**
+     * Konstruktor.
+     * Legt neuen Schnappschuss an.
+     * @param scene zeichenbarer Zustand des Levels
+     * @param cameraPos Kameraposition
+     */
+    public FrameSnapshot(Drawable scene, Vector2f cameraPos) {
+        this.scene = scene;
+        this.cameraPos = cameraPos;
+    }
+
+    /**
+     * Gibt zeichenbaren Zustand des Levels zurück.
+     * @return Szene
+     */
+    public Drawable getScene() {
+        return scene;
+    }
+
+    /**
+     * Gibt Kameraposition zurück.
+     * @return Kameraposition
+     */
+    public Vector2f getCameraPos() {
+        return cameraPos;
+    }
+}
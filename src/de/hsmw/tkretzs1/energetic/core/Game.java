@@ -1,14 +1,21 @@
 package de.hsmw.tkretzs1.energetic.core;
 
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
+import de.hsmw.tkretzs1.energetic.collision.CollisionDispatcher;
+import de.hsmw.tkretzs1.energetic.collision.CollisionMatrix;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
-import de.hsmw.tkretzs1.energetic.collision.impl.CollisionPair;
-import de.hsmw.tkretzs1.energetic.collision.impl.Quadtree;
+import de.hsmw.tkretzs1.energetic.collision.PairBroadphase;
+import de.hsmw.tkretzs1.energetic.collision.impl.CircleBatch;
+import de.hsmw.tkretzs1.energetic.collision.impl.CollisionPairBuffer;
+import de.hsmw.tkretzs1.energetic.collision.impl.CollisionResolver;
+import de.hsmw.tkretzs1.energetic.collision.impl.ParallelCollisionPass;
+import de.hsmw.tkretzs1.energetic.collision.impl.SweepAndPrune;
 import de.hsmw.tkretzs1.energetic.core.level_impl.GameOver;
 import de.hsmw.tkretzs1.energetic.core.level_impl.Level1;
 import de.hsmw.tkretzs1.energetic.core.level_impl.Menu;
+import de.hsmw.tkretzs1.energetic.physics.GravityField;
 import de.hsmw.tkretzs1.energetic.utils.Circle;
 import de.hsmw.tkretzs1.energetic.utils.FileLoader;
-import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.audio.Music;
 import org.jsfml.audio.Sound;
 import org.jsfml.graphics.*;
@@ -23,9 +30,9 @@ import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Steuerungseinheit des gesamten Spiels und Kommunikationskanal zwischen allen Spielobjekten.
@@ -57,6 +64,22 @@ public class Game{
         }
         return game;
     }
+
+    /**
+     * Legt die Instanz der Klasse Game ohne Fenster, Grafik und Ton an (headless).
+     * Eingaben kommen ausschließlich aus dem übergebenen ScriptedInput. Muss vor dem ersten Aufruf von getInstance() aufgerufen werden.
+     * @param input skriptgesteuerte Eingaben
+     * @param width Breite des simulierten Bildschirmausschnitts
+     * @param height Höhe des simulierten Bildschirmausschnitts
+     * @return Referenz auf Singleton
+     */
+    public static Game createHeadless(ScriptedInput input, int width, int height) {
+        if(game != null)
+            throw new IllegalStateException("Game instance already exists");
+        Game.game = new Game(input, width, height);
+        game.startLevel(1);     // erst nach dem Anlegen der Instanz, da das Level auf diese zugreift
+        return game;
+    }
     //########################
 
     /**
@@ -77,17 +100,32 @@ public class Game{
     /**
      * Flag, gibt an ob Mainloop läuft.
      */
-    private boolean running = true;
+    private volatile boolean running = true;
 
     /**
      * Flag, gibt an ob Vertical Syncronization aktiviert ist.
      */
     private boolean vsync = true;
 
+    /**
+     * Flag, gibt an ob das Spiel ohne Fenster, Grafik und Ton läuft.
+     */
+    private final boolean headless;
+
+    /**
+     * Skriptgesteuerte Eingaben im Headless-Modus
+     */
+    private ScriptedInput scriptedInput;
+
+    /**
+     * Größe des simulierten Bildschirmausschnitts im Headless-Modus
+     */
+    private Vector2f headlessViewSize;
+
     /**
      * Flag, gibt an ob Spiel pausiert ist.
      */
-    private boolean paused = false;
+    private volatile boolean paused = false;
 
     /**
      * Flag, gibt an ob die Grafikkarte Shader unterstützt.
@@ -99,6 +137,58 @@ public class Game{
      */
     private boolean help = false;
 
+    /**
+     * Flag, gibt an ob die Simulation mit festem Zeitschritt läuft.
+     * Ist das Flag gesetzt, wird das Level unabhängig von der Bildrate mit konstanter Frequenz aktualisiert und beim Zeichnen zwischen den letzten beiden Zuständen interpoliert.
+     */
+    private boolean fixedTimestep = true;
+
+    /**
+     * Frequenz der Simulationsschritte im Modus mit festem Zeitschritt in Hz
+     */
+    private int tickRate = 60;
+
+    /**
+     * Maximale Anzahl an Simulationsschritten pro Frame. Verhindert, dass sich die Simulation bei langen Frames immer weiter aufschaukelt.
+     */
+    private int maxSteps = 5;
+
+    /**
+     * Noch nicht simulierte Zeit im Modus mit festem Zeitschritt
+     */
+    private Time accumulator = Time.ZERO;
+
+    /**
+     * Interpolationsfaktor zwischen vorherigem (0) und aktuellem (1) Simulationszustand
+     */
+    private float interpolationAlpha = 1;
+
+    /**
+     * Events, die noch an keinen Simulationsschritt übergeben wurden.
+     * Threadsicher, da die Events im Renderthread gesammelt, aber u.U. im Simulationsthread verarbeitet werden.
+     */
+    private final ConcurrentLinkedQueue<Event> pendingEvents = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Events des aktuellen Simulationsschrittes, wird wiederverwendet. Wird nur von dem Thread verwendet, der gerade simuliert.
+     */
+    private final ArrayList<Event> stepEvents = new ArrayList<>();
+
+    /**
+     * Thread, in dem die Simulation läuft. null, wenn Simulation und Rendern im Mainloop nacheinander ablaufen.
+     */
+    private SimulationThread simulationThread;
+
+    /**
+     * Aktuelle Mausposition in Weltkoordinaten. Wird einmal pro Frame im Renderthread ermittelt.
+     */
+    private volatile Vector2f mousePos = Vector2f.ZERO;
+
+    /**
+     * Aktuell sichtbarer Ausschnitt. Wird beim Zeichnen aktualisiert, damit der Simulationsthread nicht auf die View zugreifen muss.
+     */
+    private volatile IntRect viewBounds;
+
     /**
      * Darstellung des Mauszeigers
      */
@@ -107,7 +197,12 @@ public class Game{
     /**
      * aktuell geladenes und aktives Level / Menu
      */
-    private Level currentLevel;
+    private volatile Level currentLevel;
+
+    /**
+     * Nummer des aktuellen Levels, wird ohne Fenster nach dem GameOver neu gestartet
+     */
+    private int levelNumber;
 
     /**
      * Weltbegrenzung
@@ -115,9 +210,94 @@ public class Game{
     private Circle worldBounds;
 
     /**
-     * Quadtree zur Kollisionsvorbehandlung
+     * Broadphase zur Kollisionsvorbehandlung (Quadtree oder Gitter, je nach Level)
+     */
+    private Broadphase broadphase;
+
+    /**
+     * Broadphase für statische und schlafende Spielobjekte, wird nur neu aufgebaut, wenn sich diese ändern
+     */
+    private final SweepAndPrune staticBroadphase = new SweepAndPrune();
+
+    /**
+     * Kollisionsmatrix des aktuellen Levels, null wenn alle Spielobjekte miteinander kollidieren
+     */
+    private CollisionMatrix collisionMatrix;
+
+    /**
+     * Kollisionsbehandlungen des aktuellen Levels
+     */
+    private CollisionDispatcher collisionDispatcher = new CollisionDispatcher();
+
+    /**
+     * Kollisionspaare des aktuellen Simulationsschrittes, wird wiederverwendet
+     */
+    private final CollisionPairBuffer collisionPairs = new CollisionPairBuffer();
+
+    /**
+     * Kollisionskreise aller Objekte als Arrays für die genaue Kollisionsprüfung, wird wiederverwendet
+     */
+    private final CircleBatch circleBatch = new CircleBatch();
+
+    /**
+     * Parallele Kollisionserkennung, null für sequentielle Berechnung
+     */
+    private ParallelCollisionPass parallelCollisions;
+
+    /**
+     * Paralleles Update der Spielobjekte, null für sequentielle Berechnung
      */
-    private Quadtree quad;
+    private ParallelUpdatePass parallelUpdate;
+
+    /**
+     * Puffer für neue Spielobjekte und Explosionen, wird vom aktuellen Level am Ende jedes Simulationsschrittes angewendet
+     */
+    private final CommandBuffer commandBuffer = new CommandBuffer();
+
+    /**
+     * Kollisionsauflösung, wird wiederverwendet
+     */
+    private final CollisionResolver collisionResolver = new CollisionResolver();
+
+    /**
+     * Spielobjekte der aktuellen Kollisionserkennung nach Id sortiert, wird wiederverwendet
+     */
+    private final List<GameObject> sortedObjects = new ArrayList<>();
+
+    /**
+     * bewegte Spielobjekte der aktuellen Kollisionserkennung nach Id sortiert, wird wiederverwendet
+     */
+    private final List<GameObject> dynamicObjects = new ArrayList<>();
+
+    /**
+     * statische und schlafende Spielobjekte der aktuellen Kollisionserkennung nach Id sortiert, wird wiederverwendet
+     */
+    private final List<GameObject> staticObjects = new ArrayList<>();
+
+    /**
+     * statische und schlafende Spielobjekte, mit denen die staticBroadphase zuletzt aufgebaut wurde
+     */
+    private final List<GameObject> builtStaticObjects = new ArrayList<>();
+
+    /**
+     * Kandidatenpaare zwischen bewegten und statischen Spielobjekten, wird wiederverwendet
+     */
+    private final CollisionPairBuffer staticCandidates = new CollisionPairBuffer();
+
+    /**
+     * Kandidaten der räumlichen Abfragen, wird wiederverwendet
+     */
+    private final List<GameObject> queryObjects = new ArrayList<>();
+
+    /**
+     * Abstände der Treffer des aktuellen Raycasts, wird wiederverwendet
+     */
+    private float[] hitDistances = new float[16];
+
+    /**
+     * Liste für die möglichen Kollisionspartner eines Objektes, wird wiederverwendet
+     */
+    private final List<GameObject> returnObjects = new ArrayList<>();
 
     /**
      * Hintergrundmusik
@@ -182,6 +362,7 @@ public class Game{
      * Legt das Programmfenster an, läd alle nötigen Ressourcen und startet Musik und Clock.
      */
     private Game(){
+        headless = false;
 
         // native Bildschirmauflösung des primären Fensters abfragen
         GraphicsDevice gd = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
@@ -202,6 +383,7 @@ public class Game{
         view = new View();
         view.setSize(window.getSize().x, window.getSize().y);
         view.setCenter(0, 0);
+        updateViewBounds(view.getCenter(), view.getSize());
 
         // Rendertextur anlegen
         rtex = new RenderTexture();
@@ -261,6 +443,21 @@ public class Game{
         pauseSprite.setPosition(window.getSize().x-tex2.getSize().x, tex2.getSize().y);
     }
 
+    /**
+     * Privater Konstruktor für den Headless-Modus.
+     * Erzeugt Instanz der Klasse Game ohne Fenster, Rendertextur, Shader und Ton.
+     * @param input skriptgesteuerte Eingaben
+     * @param width Breite des simulierten Bildschirmausschnitts
+     * @param height Höhe des simulierten Bildschirmausschnitts
+     */
+    private Game(ScriptedInput input, int width, int height){
+        headless = true;
+        scriptedInput = input;
+        headlessViewSize = new Vector2f(width, height);
+        updateViewBounds(Vector2f.ZERO, headlessViewSize);
+        clock = new Clock();
+    }
+
     /**
      * Startet den Mainloop und damit die Simulation sowie das Rendern.
      */
@@ -270,48 +467,150 @@ public class Game{
             update();
             draw();
         }
+
+        // Simulationsthread beenden und Fenster erst danach schließen
+        setThreadedSimulation(false);
+        bgMusic.stop();
+        window.close();
+    }
+
+    /**
+     * Simuliert das aktuelle Level im Headless-Modus so schnell wie möglich um die übergebene Anzahl an Schritten mit festem Zeitschritt.
+     * Vor jedem Schritt werden die Eingaben des Skripts übernommen.
+     * @param ticks Anzahl der Simulationsschritte
+     * @return erreichte Simulationsschritte pro Sekunde
+     */
+    public double runHeadless(int ticks){
+        if(!headless)
+            throw new IllegalStateException("Game is not headless");
+
+        Time step = getTimestep();
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            scriptedInput.update(tick);
+            scriptedInput.pollEvents(pendingEvents);
+            stepLevel(step);
+            updateViewBounds(currentLevel.getCameraPos(), headlessViewSize);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return ticks / seconds;
     }
 
     /**
-     * Spiel bzw. Programm schließen
+     * Spiel bzw. Programm schließen.
+     * Beendet den Mainloop, das Fenster wird nach dem aktuellen Durchlauf geschlossen.
      */
     public void exitGame(){
         running = false;
-        bgMusic.stop();
-        window.close();
+    }
+
+    /**
+     * Schaltet die Simulation in einem eigenen Thread an oder aus.
+     * Läuft die Simulation in einem eigenen Thread, zeichnet der Mainloop nur noch die vom Simulationsthread veröffentlichten Schnappschüsse
+     * und die Simulation des nächsten Schrittes überlappt mit dem Zeichnen des vorherigen.
+     * @param threaded Simulation in eigenem Thread an/aus
+     */
+    public void setThreadedSimulation(boolean threaded){
+        if(threaded && simulationThread == null) {
+            simulationThread = new SimulationThread(this);
+            simulationThread.start();
+        } else if(!threaded && simulationThread != null) {
+            simulationThread.shutdown();
+            simulationThread = null;
+            clock.restart();
+        }
+        accumulator = Time.ZERO;
+        interpolationAlpha = 1;
     }
 
     /**
      * Update-Methode.
      * Holt und Behandelt Eingabeevents bzw. leitet diese an aktuelles Level weiter.
      * Berechnet die Zeit seit dem letzten Updaten und ruft aktuelles Level zum Updaten auf.
+     * Im Modus mit festem Zeitschritt wird die vergangene Zeit gesammelt und das Level in Schritten konstanter Länge aktualisiert.
      */
     public void update(){
         // Events vom Window holen
         Event event;
-        ArrayList<Event> events= new ArrayList<>();
         while ((event = window.pollEvent()) != null) {
             handleInputEvents(event);
-            events.add(event);
+            pendingEvents.add(event);
         }
 
-        // DeltaTime holen
-        Time dt = clock.restart();
-
         // Mauszeiger an aktuelle Mausposition verschieben (Welt - Bildschirmkoordinaten)
-        mouseSprite.setPosition(window.mapPixelToCoords(Mouse.getPosition(window), view));
+        mousePos = window.mapPixelToCoords(Mouse.getPosition(window), view);
+        mouseSprite.setPosition(mousePos);
 
-        // Wenn nicht pausiert, Level updaten
-        if(!paused) {
-            currentLevel.update(dt, events);
+        // Läuft die Simulation in einem eigenen Thread, wird das Level dort aktualisiert
+        if(simulationThread == null) {
+            simulate(clock.restart());
         }
     }
 
+    /**
+     * Simuliert das aktuelle Level um die übergebene Zeit weiter.
+     * Im Modus mit festem Zeitschritt und bei Simulation in einem eigenen Thread wird die Zeit gesammelt und das Level in Schritten konstanter Länge aktualisiert.
+     * @param dt vergangene Zeit seit dem letzten Aufruf
+     */
+    void simulate(Time dt){
+        // Wenn pausiert, Level nicht updaten und Events verwerfen
+        if(paused) {
+            pendingEvents.clear();
+            return;
+        }
+
+        if(fixedTimestep || simulationThread != null) {
+            Time step = getTimestep();
+            accumulator = Time.add(accumulator, dt);
+
+            // Level so oft mit festem Zeitschritt updaten, wie Zeit angesammelt wurde (höchstens maxSteps mal)
+            int steps = 0;
+            while (accumulator.compareTo(step) >= 0 && steps < maxSteps) {
+                stepLevel(step);
+                accumulator = Time.sub(accumulator, step);
+                steps++;
+            }
+
+            // Bei zu langen Frames überschüssige Zeit verwerfen, statt sie in den nächsten Frame mitzunehmen
+            if (accumulator.compareTo(step) >= 0) {
+                accumulator = Time.getMicroseconds(accumulator.asMicroseconds() % step.asMicroseconds());
+            }
+
+            // Restzeit bestimmt die Interpolation zwischen letztem und aktuellem Zustand.
+            // Der Renderthread zeichnet bei eigenem Simulationsthread nur Schnappschüsse, dort wird nicht interpoliert.
+            interpolationAlpha = simulationThread == null ? Time.ratio(accumulator, step) : 1;
+        } else {
+            stepLevel(dt);
+            interpolationAlpha = 1;
+        }
+    }
+
+    /**
+     * Führt einen Simulationsschritt des aktuellen Levels aus und übergibt alle bis dahin gesammelten Events.
+     * @param dt Länge des Simulationsschrittes
+     */
+    private void stepLevel(Time dt){
+        Event event;
+        while ((event = pendingEvents.poll()) != null) {
+            stepEvents.add(event);
+        }
+        currentLevel.update(dt, stepEvents);
+        stepEvents.clear();
+    }
+
+    /**
+     * Erzeugt einen unveränderlichen Schnappschuss des aktuellen Levels und der Kameraposition.
+     * @return Schnappschuss zum Zeichnen
+     */
+    FrameSnapshot createSnapshot(){
+        Level level = currentLevel;
+        return new FrameSnapshot(level.createSnapshot(), level.getCameraPos());
+    }
+
     // Events behandeln
     private void handleInputEvents(Event event){
         if (event.type == Event.Type.CLOSED) {  // Wenn Fenster geschlossen, Spiel abrrechen und beenden
             game.running = false;
-            window.close();
         }
 
         if (event.type == Event.Type.RESIZED) { // Wenn Größe des Fensters verändert wird, View anpassen (bei Vollbild nicht benötigt=
@@ -338,6 +637,13 @@ public class Game{
             if(event.asKeyEvent().key == Keyboard.Key.F1){ // Hilfe anzeigen
                 help = true;
             }
+            if(event.asKeyEvent().key == Keyboard.Key.T){ // festen Zeitschritt umschalten, der Simulationsthread simuliert immer mit festem Zeitschritt
+                if(simulationThread == null)
+                    setFixedTimestep(!fixedTimestep);
+            }
+            if(event.asKeyEvent().key == Keyboard.Key.M){ // Simulation in eigenem Thread umschalten
+                setThreadedSimulation(simulationThread == null);
+            }
         }
 
         if(event.type == Event.Type.KEY_RELEASED){
@@ -355,12 +661,26 @@ public class Game{
         // Rendertextur leeren
         rtex.clear();
 
+        // Bei eigenem Simulationsthread nur den zuletzt veröffentlichten Schnappschuss zeichnen, sonst direkt das Level
+        Drawable scene = currentLevel;
+        Vector2f cameraPos;
+        if(simulationThread != null) {
+            FrameSnapshot snapshot = simulationThread.takeSnapshot();
+            scene = snapshot != null ? snapshot.getScene() : null;
+            cameraPos = snapshot != null ? snapshot.getCameraPos() : view.getCenter();
+        } else {
+            cameraPos = currentLevel.getCameraPos();
+        }
+
         // View auf aktuelle Kameraposition (Spielerposition) setzen und in Rendertextur aktualisieren
-        view.setCenter(currentLevel.getCameraPos());
+        view.setCenter(cameraPos);
         rtex.setView(view);
+        updateViewBounds(view.getCenter(), view.getSize());
 
         // Elemente zeichnen und Rendertextur darstellen
-        rtex.draw(currentLevel);
+        if(scene != null) {
+            rtex.draw(scene);
+        }
         rtex.draw(mouseSprite);
         rtex.display();
 
@@ -391,118 +711,308 @@ public class Game{
 
     /**
      * Kollisionsüberprüfung.
-     * Übergebene Liste von GameObjects wird auf Kollision geprüft. Dabei wird aus Performancegründen ein Quadtree zur Vorsortierung verwendet
-     * @param gameObjects zu überprüfende Spielobjekte
+     * Übergebene Liste von GameObjects wird auf Kollision geprüft. Dabei wird aus Performancegründen die Broadphase des aktuellen Levels zur Vorsortierung verwendet,
+     * die genaue Prüfung der Kandidaten erfolgt gebündelt in der CircleBatch.
+     * Statische und schlafende Spielobjekte werden in einer eigenen Broadphase verwaltet, die nur bei Änderungen neu aufgebaut und nur von bewegten Objekten abgefragt wird.
+     * @param levelObjects zu überprüfende Spielobjekte
      */
-    public void detectCollisions(List<GameObject> gameObjects){
+    public void detectCollisions(List<GameObject> levelObjects){
+
+        // Objekte nach Id sortieren, der Kollisionsindex entspricht dann der Reihenfolge der Ids
+        sortById(levelObjects);
+        List<GameObject> gameObjects = sortedObjects;
+
+        // Index jedes Objektes setzen, Kollisionspaare werden als Indexpaare gespeichert. Kollisionsmaske aus der Matrix des Levels übernehmen.
+        // Bewegte und statische(oder schlafende) Objekte trennen
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject object = gameObjects.get(i);
+            object.setCollisionIndex(i);
+            if(collisionMatrix != null)
+                collisionMatrix.apply(object);
+            if(object.isStatic() || object.isSleeping())
+                staticObjects.add(object);
+            else
+                dynamicObjects.add(object);
+        }
+
+        // Broadphase mit allen bewegten Objekten aktualisieren, Kreise aller Objekte für die genaue Prüfung laden
+        broadphase.update(dynamicObjects);
+        updateStaticBroadphase();
+        circleBatch.load(gameObjects);
+        collisionPairs.clear();
+
+        if(broadphase instanceof PairBroadphase) {
+            // Broadphase kann mögliche Paare direkt und ohne Dopplungen ermitteln
+            ((PairBroadphase) broadphase).findPairs(collisionPairs);
+
+            // Genaue Prüfung aller Kandidaten in einem Durchlauf über die Kreis-Arrays
+            if(parallelCollisions != null)
+                parallelCollisions.filter(circleBatch, collisionPairs);
+            else
+                circleBatch.filter(collisionPairs);
+        } else if(parallelCollisions != null) {
+            // Abfragen und genaue Prüfung auf mehrere Threads verteilen, Broadphase und Kreise werden dabei nur gelesen
+            parallelCollisions.findPairs(broadphase, dynamicObjects, circleBatch, collisionPairs);
+        } else {
+            // Für jedes GameObject mögliche Kollisionsobjekte holen(Nachbarn).
+            for (GameObject object : dynamicObjects) {
+                returnObjects.clear();
+                broadphase.retrieve(returnObjects, object);
+
+                // Jedes Paar nur einmal prüfen: nur Nachbarn mit höherer Id, dadurch auch keine Kollision mit sich selbst.
+                // Paare ohne Wirkung werden anhand der Kollisionskategorien vor der genauen Prüfung verworfen
+                for (GameObject returnObject : returnObjects) {
+                    if(returnObject.getId() > object.getId() && object.canCollide(returnObject)) {
+                        collisionPairs.add(object.getCollisionIndex(), returnObject.getCollisionIndex());
+                    }
+                }
+            }
+            returnObjects.clear();
 
-        // Quadtree leeren und alle aktuell vorhandenen Objekte neu einfügen
-        quad.clear();
-        for (GameObject gameObject : gameObjects) {
-            quad.insert(gameObject);
+            // Genaue Prüfung aller Kandidaten in einem Durchlauf über die Kreis-Arrays
+            circleBatch.filter(collisionPairs);
         }
 
-        // Datenstrukturen für Rückgabe und Kollisionspaare anlegen.
-        List<GameObject> returnObjects = new ArrayList();
-        Set<CollisionPair> collisionPairs = new HashSet<>(); // Set, da so doppelte Paare herausgefiltert werden. CollisionPair hat equals und hashCode Methoden.
+        // Paare zwischen bewegten und statischen Objekten ergänzen, statische Objekte untereinander werden nie geprüft
+        findStaticPairs();
 
-        // Für jedes GameObject mögliche Kollisionsobjekte holen(Nachbarn).
-        for (GameObject object : gameObjects) {
-            returnObjects.clear();
-            quad.retrieve(returnObjects, object);
+        // Methode zur Kollisionsauflösung aufrufen
+        resolveCollisions(gameObjects);
+        sortedObjects.clear();
+        dynamicObjects.clear();
+        staticObjects.clear();
+    }
 
-            // Für jeden Nachbarn auf echte Kollision prüfen und wenn vorhanden in collisionPairs-Set einfügen.
-            // Ein Set wird verwendet, da es unnötige Dopplungen durch implementierte Equals() und HashSet() Methoden von CollisionPair Dopplungen vermeidet
+    /**
+     * Baut die Broadphase der statischen Objekte neu auf, falls sich diese seit dem letzten Aufbau geändert haben.
+     * Beide Listen sind nach Id sortiert, bei gleichen Objekten stimmt also auch die Reihenfolge überein.
+     */
+    private void updateStaticBroadphase() {
+        if(staticObjects.size() == builtStaticObjects.size()) {
+            int i = 0;
+            while (i < staticObjects.size() && staticObjects.get(i) == builtStaticObjects.get(i)) {
+                i++;
+            }
+            if(i == staticObjects.size())
+                return;
+        }
+        staticBroadphase.update(staticObjects);
+        builtStaticObjects.clear();
+        builtStaticObjects.addAll(staticObjects);
+    }
+
+    /**
+     * Fragt die Broadphase der statischen Objekte für jedes bewegte Objekt ab und fügt die kollidierenden Paare den Kollisionspaaren hinzu.
+     */
+    private void findStaticPairs() {
+        if(staticObjects.isEmpty())
+            return;
+
+        staticCandidates.clear();
+        for (GameObject object : dynamicObjects) {
+            returnObjects.clear();
+            staticBroadphase.retrieve(returnObjects, object);
             for (GameObject returnObject : returnObjects) {
-                if(object.equals(returnObject)) continue;   // Kollision mit sich selbst ignorieren
-                if(object.intersects(returnObject)) {
-                    collisionPairs.add(new CollisionPair(object, returnObject)); // dem Set hinzufügen
-                }
+                if(object.canCollide(returnObject))
+                    staticCandidates.add(object.getCollisionIndex(), returnObject.getCollisionIndex());
             }
         }
+        returnObjects.clear();
 
-        // Methode zur Kollisionsauflösung aufrufen
-        resolveCollisions(collisionPairs);
+        circleBatch.filter(staticCandidates);
+        collisionPairs.addAll(staticCandidates);
     }
 
     /**
-     * Kollisionsauflösung.
-     * Löst alle Kollisionen aus dem übergebenen Set auf, berechnet neue Geschwindigkeiten und informiert die Spielobjekte über die Kollision.
-     * @param collisionPairs Set von Kollisionspaaren
-     */
-    private void resolveCollisions(Set<CollisionPair> collisionPairs){
-        for (CollisionPair collisionPair : collisionPairs) {
-
-            GameObject a = collisionPair.getFirst();
-            GameObject b = collisionPair.getSecond();
-
-            // Normale der Kollision berechnen
-            Vector2f normal = Math2D.normalize(Vector2f.sub(a.getPosition(), b.getPosition()));
-
-            // Relative Geschwindigkeit berechnen
-            Vector2f rv = Vector2f.sub(b.getVelocity(), a.getVelocity());
-
-            // Relative Geschwindkeit in Bezug auf Kollisionsnormale berechnen
-            float velAlongNormal = normal.x * rv.x + normal.y * rv.y;
-
-            // Kollision nicht lösen, wenn sich die Objekte auseinander Bewegen
-            if (velAlongNormal > 0) {
-
-                // Elastische Komponente berechnen
-                float e = Math.min(a.getRestitution(), b.getRestitution());
-                velAlongNormal = velAlongNormal * e;
-
-                // Geschwindigkeit in Richtung Normale Ausrichten - Kollisionsgeschwindigkeit
-                Vector2f resultingVel = Vector2f.mul(normal, velAlongNormal);
-
-                // Impulsgewichte berechnen
-                float collisionWeightA;
-                float collisionWeightB;
-                if (a.getMass() == 0) {
-                    collisionWeightA = 0;
-                    collisionWeightB = 2;
-                } else if (b.getMass() == 0) {
-                    collisionWeightA = 2;
-                    collisionWeightB = 0;
-                } else {
-                    float combinedMass = a.getMass() + b.getMass();
-                    collisionWeightA = 2 * b.getMass() / combinedMass;
-                    collisionWeightB = 2 * a.getMass() / combinedMass;
-                }
-                // resultierende Geschwindigkeiten berechnen
-                Vector2f velocityA = new Vector2f(a.getVelocity().x + collisionWeightA * resultingVel.x, a.getVelocity().y + collisionWeightA * resultingVel.y);
-                Vector2f velocityB = new Vector2f(b.getVelocity().x - collisionWeightB * resultingVel.x, b.getVelocity().y - collisionWeightB * resultingVel.y);
+     * Gibt alle Spielobjekte zurück, die das übergebene Rechteck überlappen.
+     * Die Abfrage verwendet die Broadphases der letzten Kollisionserkennung, es gelten also die Positionen nach dem letzten Simulationsschritt.
+     * Darf nur aus dem Simulationsthread aufgerufen werden.
+     * @param result Liste, der die gefundenen Spielobjekte hinzugefügt werden
+     * @param rect Rechteck in Weltkoordinaten
+     * @param categoryMask Bitmaske der gesuchten Kollisionskategorien, CollisionLayer.ALL für alle Spielobjekte
+     * @return Liste der Spielobjekte
+     */
+    public List<GameObject> queryRect(List<GameObject> result, FloatRect rect, int categoryMask){
+        float minX = rect.left;
+        float minY = rect.top;
+        float maxX = rect.left + rect.width;
+        float maxY = rect.top + rect.height;
+        retrieveCandidates(minX, minY, maxX, maxY, categoryMask);
+
+        for (GameObject object : queryObjects) {
+            if(object.getCollisionShape().intersectsRect(minX, minY, maxX, maxY))
+                result.add(object);
+        }
+        queryObjects.clear();
+        return result;
+    }
 
-                // Kollision an Objekte melden
-                a.resolveCollision(velocityA, b);
-                b.resolveCollision(velocityB, a);
+    /**
+     * Gibt alle Spielobjekte zurück, die den übergebenen Kreis überlappen.
+     * Die Abfrage verwendet die Broadphases der letzten Kollisionserkennung, es gelten also die Positionen nach dem letzten Simulationsschritt.
+     * Darf nur aus dem Simulationsthread aufgerufen werden.
+     * @param result Liste, der die gefundenen Spielobjekte hinzugefügt werden
+     * @param center Mittelpunkt in Weltkoordinaten
+     * @param radius Radius
+     * @param categoryMask Bitmaske der gesuchten Kollisionskategorien, CollisionLayer.ALL für alle Spielobjekte
+     * @return Liste der Spielobjekte
+     */
+    public List<GameObject> queryRadius(List<GameObject> result, Vector2f center, float radius, int categoryMask){
+        retrieveCandidates(center.x - radius, center.y - radius, center.x + radius, center.y + radius, categoryMask);
+
+        for (GameObject object : queryObjects) {
+            if(object.getCollisionShape().intersectsCircle(center.x, center.y, radius))
+                result.add(object);
+        }
+        queryObjects.clear();
+        return result;
+    }
+
+    /**
+     * Gibt alle Spielobjekte zurück, die von dem übergebenen Strahl getroffen werden, sortiert nach dem Abstand zum Startpunkt.
+     * Die Abfrage verwendet die Broadphases der letzten Kollisionserkennung, es gelten also die Positionen nach dem letzten Simulationsschritt.
+     * Darf nur aus dem Simulationsthread aufgerufen werden.
+     * @param result Liste, der die getroffenen Spielobjekte hinzugefügt werden; das erste hinzugefügte Objekt ist der nächste Treffer
+     * @param origin Startpunkt in Weltkoordinaten
+     * @param direction Richtung, muss nicht normiert sein
+     * @param maxDistance Länge des Strahls
+     * @param categoryMask Bitmaske der gesuchten Kollisionskategorien, CollisionLayer.ALL für alle Spielobjekte
+     * @return Liste der Spielobjekte
+     */
+    public List<GameObject> raycast(List<GameObject> result, Vector2f origin, Vector2f direction, float maxDistance, int categoryMask){
+        float length = (float) Math.sqrt(direction.x * direction.x + direction.y * direction.y);
+        if(length == 0)
+            return result;
+        float directionX = direction.x / length;
+        float directionY = direction.y / length;
+
+        // Kandidaten aus der BoundingBox des Strahls
+        float endX = origin.x + directionX * maxDistance;
+        float endY = origin.y + directionY * maxDistance;
+        retrieveCandidates(Math.min(origin.x, endX), Math.min(origin.y, endY), Math.max(origin.x, endX), Math.max(origin.y, endY), categoryMask);
+
+        // Treffer anhängen und nach Abstand einsortieren (Insertion Sort, meist nur wenige Treffer)
+        int start = result.size();
+        for (GameObject object : queryObjects) {
+            float distance = object.getCollisionShape().raycast(origin.x, origin.y, directionX, directionY, maxDistance);
+            if(distance < 0)
+                continue;
+
+            int hits = result.size() - start;
+            if(hits == hitDistances.length)
+                hitDistances = Arrays.copyOf(hitDistances, hits * 2);
+            int j = hits - 1;
+            result.add(object);
+            while (j >= 0 && hitDistances[j] > distance) {
+                hitDistances[j + 1] = hitDistances[j];
+                result.set(start + j + 1, result.get(start + j));
+                j--;
             }
+            hitDistances[j + 1] = distance;
+            result.set(start + j + 1, object);
+        }
+        queryObjects.clear();
+        return result;
+    }
+
+    /**
+     * Sammelt die Kandidaten eines Bereiches aus der Broadphase der bewegten und der der statischen Objekte in queryObjects.
+     * Bereits entfernte Spielobjekte und Spielobjekte anderer Kategorien werden verworfen.
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @param categoryMask Bitmaske der gesuchten Kollisionskategorien
+     */
+    private void retrieveCandidates(float minX, float minY, float maxX, float maxY, int categoryMask){
+        queryObjects.clear();
+        if(broadphase != null)
+            broadphase.retrieve(queryObjects, minX, minY, maxX, maxY);
+        staticBroadphase.retrieve(queryObjects, minX, minY, maxX, maxY);
+
+        int kept = 0;
+        for (int i = 0; i < queryObjects.size(); i++) {
+            GameObject object = queryObjects.get(i);
+            if(object.isAlive() && (object.getCollisionCategory() & categoryMask) != 0)
+                queryObjects.set(kept++, object);
+        }
+        queryObjects.subList(kept, queryObjects.size()).clear();
+    }
 
+    /**
+     * Kopiert die Spielobjekte nach Id sortiert in sortedObjects.
+     * Die Listen der Level sind nahezu nach Id sortiert (neue Objekte werden angehängt), daher genügt Insertion Sort.
+     * @param gameObjects Spielobjekte
+     */
+    private void sortById(List<GameObject> gameObjects){
+        sortedObjects.clear();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject object = gameObjects.get(i);
+            int j = i - 1;
+            sortedObjects.add(object);
+            while (j >= 0 && sortedObjects.get(j).getId() > object.getId()) {
+                sortedObjects.set(j + 1, sortedObjects.get(j));
+                j--;
+            }
+            sortedObjects.set(j + 1, object);
         }
     }
 
+    /**
+     * Kollisionsauflösung.
+     * Löst alle gefundenen Kollisionen auf, berechnet neue Geschwindigkeiten und informiert die Spielobjekte über die Kollision.
+     * Die Paare werden nach den Ids der Objekte sortiert, sodass das Ergebnis nicht von der Broadphase oder der Anzahl der Threads abhängt.
+     * @param gameObjects Spielobjekte, auf deren Indizes sich die Kollisionspaare beziehen
+     */
+    private void resolveCollisions(List<GameObject> gameObjects){
+        collisionPairs.sort();
+        collisionResolver.resolve(gameObjects, collisionPairs, collisionDispatcher);
+    }
+
     /**
      * Starte Level i und setzte es als aktuelles Level.
      * @param i Nummer des Levels.
      */
     public void startLevel(int i) {
         score = 0;
+        levelNumber = i;
+        commandBuffer.clear();      // Befehle des vorherigen Levels verwerfen
         switch (i){
             case 0: currentLevel = new Menu();
+                    collisionMatrix = null;
+                    collisionDispatcher = new CollisionDispatcher();
                     break;
             case 1: worldBounds = new Circle(3000, new Vector2i(0,0));
-                    currentLevel = new Level1(worldBounds);
-                    quad = new Quadtree(0, worldBounds.getSurroundingRect());
-
+                    startLevel(new Level1(worldBounds));
                 break;
+            case 2: worldBounds = new Circle(3000, new Vector2i(0,0));
+                    // Gravitationsfelder - Planet und schwere Asteroiden ziehen sich gegenseitig an, Hunderte Körper über Barnes-Hut
+                    startLevel(new Level1(worldBounds, 320, new GravityField(worldBounds.getSurroundingRect(), 500, 75)));
+                    break;
         }
 
     }
 
+    /**
+     * Setzt das übergebene Level als aktuelles Level und übernimmt die vom Level gewählte Broadphase, Kollisionsmatrix und Kollisionsbehandlungen.
+     * @param level neues Level, die Weltgrenzen müssen bereits gesetzt sein
+     */
+    private void startLevel(Level1 level) {
+        currentLevel = level;
+        broadphase = level.createBroadphase();
+        collisionMatrix = Level1.createCollisionMatrix();
+        collisionDispatcher = Level1.createCollisionDispatcher();
+    }
+
     /**
      * Öffne GameOver-Bildschirm
      */
     public void gameOver(){
+        // ohne Fenster gibt es keinen GameOver-Bildschirm, das Level wird neu gestartet
+        if(headless) {
+            startLevel(levelNumber);
+            return;
+        }
         currentLevel = new GameOver((int)score);
     }
 
@@ -512,12 +1022,149 @@ public class Game{
      * @return sichtbarer Ausschnitt
      */
     public IntRect getViewBounds() {
-        int left = (int) (view.getCenter().x - view.getSize().x / 2);
-        int top = (int) (view.getCenter().y - view.getSize().y / 2);
-        int width = (int) (view.getSize().x);
-        int height = (int) (view.getSize().y);
+        return viewBounds;
+    }
+
+    /**
+     * Berechnet den sichtbaren Ausschnitt neu.
+     * @param center Mittelpunkt des Ausschnitts
+     * @param size Größe des Ausschnitts
+     */
+    private void updateViewBounds(Vector2f center, Vector2f size) {
+        int left = (int) (center.x - size.x / 2);
+        int top = (int) (center.y - size.y / 2);
+        int width = (int) (size.x);
+        int height = (int) (size.y);
+
+        viewBounds = new IntRect(left, top, width, height);
+    }
+
+    /**
+     * Gibt den Interpolationsfaktor zwischen vorherigem und aktuellem Simulationszustand zurück.
+     * @return Faktor zwischen 0 (vorheriger Zustand) und 1 (aktueller Zustand).
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
 
-        return new IntRect(left, top, width, height);
+    /**
+     * Gibt die Länge eines festen Simulationsschrittes zurück.
+     * @return Zeitschritt
+     */
+    public Time getTimestep() {
+        return Time.getMicroseconds(1000000L / tickRate);
+    }
+
+    /**
+     * Schaltet die Simulation mit festem Zeitschritt an oder aus.
+     * Darf nur aufgerufen werden, solange die Simulation nicht in einem eigenen Thread läuft, da dieser Zeitschritt, Restzeit und Interpolation selbst verwaltet.
+     * @param fixedTimestep fester Zeitschritt an/aus
+     */
+    public void setFixedTimestep(boolean fixedTimestep) {
+        if(simulationThread != null)
+            throw new IllegalStateException("cannot change timestep while the simulation runs on its own thread");
+        this.fixedTimestep = fixedTimestep;
+        accumulator = Time.ZERO;
+        interpolationAlpha = 1;
+    }
+
+    /**
+     * Setzt die Frequenz der festen Simulationsschritte.
+     * @param tickRate Frequenz in Hz
+     */
+    public void setTickRate(int tickRate) {
+        if(tickRate <= 0)
+            throw new IllegalArgumentException("tickRate must be positive");
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * Setzt die maximale Anzahl an Simulationsschritten pro Frame.
+     * @param maxSteps maximale Anzahl Schritte
+     */
+    public void setMaxSteps(int maxSteps) {
+        if(maxSteps <= 0)
+            throw new IllegalArgumentException("maxSteps must be positive");
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Setzt die Broadphase der Kollisionserkennung für das aktuelle Level.
+     * Wird beim Start eines Levels automatisch gesetzt, kann aber z.B. zum Vergleich verschiedener Verfahren ausgetauscht werden.
+     * @param broadphase Broadphase
+     */
+    public void setBroadphase(Broadphase broadphase) {
+        this.broadphase = broadphase;
+    }
+
+    /**
+     * Setzt die Anzahl der Threads für die Kollisionserkennung.
+     * Bei mehr als einem Thread werden die Abfragen der Broadphase und die genaue Prüfung über einen ForkJoinPool verteilt. Das Ergebnis ist unabhängig von der Anzahl der Threads.
+     * @param threads Anzahl der Threads, 1 für sequentielle Berechnung
+     */
+    public void setCollisionThreads(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads must be positive");
+        if(parallelCollisions != null)
+            parallelCollisions.shutdown();
+        parallelCollisions = threads > 1 ? new ParallelCollisionPass(threads) : null;
+    }
+
+    /**
+     * Setzt die Anzahl der Threads für das Update der Spielobjekte.
+     * Bei mehr als einem Thread werden die Spielobjekte abschnittsweise über einen ForkJoinPool simuliert.
+     * @param threads Anzahl der Threads, 1 für sequentielle Berechnung
+     */
+    public void setUpdateThreads(int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("threads must be positive");
+        if(parallelUpdate != null)
+            parallelUpdate.shutdown();
+        parallelUpdate = threads > 1 ? new ParallelUpdatePass(threads) : null;
+    }
+
+    /**
+     * Simuliert alle Spielobjekte eines Levels, bei mehreren Threads parallel.
+     * Für jedes lebende Objekt wird der Zustand für die Interpolation gemerkt und, falls es nicht schläft, update() aufgerufen.
+     * Die Liste darf währenddessen nicht verändert werden, neue Objekte werden über den CommandBuffer aufgezeichnet.
+     * @param gameObjects Spielobjekte des Levels
+     * @param dt Zeit seit dem letzten Update
+     */
+    public void updateObjects(List<GameObject> gameObjects, Time dt) {
+        if(parallelUpdate != null) {
+            parallelUpdate.update(gameObjects, dt);
+        } else {
+            for (int i = 0; i < gameObjects.size(); i++) {
+                ParallelUpdatePass.update(gameObjects.get(i), dt);
+            }
+        }
+    }
+
+    /**
+     * Gibt den Puffer für neue Spielobjekte und Explosionen zurück.
+     * Spielobjekte zeichnen hier auf, statt das Level direkt zu verändern.
+     * @return CommandBuffer
+     */
+    public CommandBuffer getCommandBuffer() {
+        return commandBuffer;
+    }
+
+    /**
+     * Setzt die Kollisionsbehandlungen für das aktuelle Level.
+     * Wird beim Start eines Levels automatisch gesetzt.
+     * @param collisionDispatcher Kollisionsbehandlungen
+     */
+    public void setCollisionDispatcher(CollisionDispatcher collisionDispatcher) {
+        this.collisionDispatcher = collisionDispatcher;
+    }
+
+    /**
+     * Setzt die Kollisionsmatrix für das aktuelle Level.
+     * Wird beim Start eines Levels automatisch gesetzt.
+     * @param collisionMatrix Kollisionsmatrix, null wenn alle Spielobjekte miteinander kollidieren sollen
+     */
+    public void setCollisionMatrix(CollisionMatrix collisionMatrix) {
+        this.collisionMatrix = collisionMatrix;
     }
 
     /**
@@ -533,7 +1180,21 @@ public class Game{
      * @return Mausposition.
      */
     public Vector2f getMousePos(){
-        return rtex.mapPixelToCoords(Mouse.getPosition(window));
+        if(headless)
+            return scriptedInput.getMousePos();
+        return mousePos;
+    }
+
+    /**
+     * Prüft, ob die übergebene Taste gedrückt ist.
+     * Im Headless-Modus wird der Zustand aus dem Skript verwendet, sonst der der Tastatur.
+     * @param key Taste
+     * @return Taste gedrückt
+     */
+    public boolean isKeyPressed(Keyboard.Key key){
+        if(headless)
+            return scriptedInput.isKeyPressed(key);
+        return Keyboard.isKeyPressed(key);
     }
 
     /**
@@ -549,6 +1210,8 @@ public class Game{
      * @param type Soundtyp.
      */
     public void playSound(Soundtype type){
+        if(headless)
+            return;
         switch (type){
             case impact: impact.play();
                 break;
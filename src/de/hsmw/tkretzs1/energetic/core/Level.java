@@ -32,10 +32,18 @@ public interface Level extends Drawable {
 
     /**
      * Fügt Explosions-Partikelsystem hinzu.
-     * TODO: In zukünftiger Version Workaround anders lösen. U.u. Level von Menü's trennen.
+     * Wird nur vom CommandBuffer am Synchronisationspunkt aufgerufen, Spielobjekte zeichnen Explosionen über Game.getCommandBuffer() auf.
      * @param position Position der Explosion
      */
     public void addExplosion(Vector2f position);
 
+    /**
+     * Erzeugt einen unveränderlichen Schnappschuss des aktuellen Zustands zum Zeichnen.
+     * Wird benötigt, wenn die Simulation in einem eigenen Thread läuft. Der Renderthread zeichnet dann nur den Schnappschuss
+     * und greift nicht auf den sich verändernden Zustand des Levels zu.
+     * @return zeichenbarer Schnappschuss
+     */
+    public Drawable createSnapshot();
+
 
 }
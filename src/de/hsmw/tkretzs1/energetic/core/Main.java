@@ -1,14 +1,56 @@
 package de.hsmw.tkretzs1.energetic.core;
 
 
+import org.jsfml.system.Vector2f;
+import org.jsfml.window.Keyboard;
+import org.jsfml.window.Mouse;
+
 /**
  * Klasse zum Programmstart
+ * Mit dem Argument "-headless [ticks] [threads] [level]" wird ein Level (standardmäßig das erste) ohne Fenster mit skriptgesteuerten Eingaben simuliert
+ * und die erreichte Anzahl Simulationsschritte pro Sekunde ausgegeben. Optional werden Update und Kollisionserkennung auf mehrere Threads verteilt.
  * @author Tom Kretzschmar
  */
 public class Main {
 
     public static void main(String[] args) {
+        if(args.length > 0 && args[0].equals("-headless")) {
+            int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+            int level = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+            runHeadless(ticks, threads, level);
+            return;
+        }
+
         Game game = Game.getInstance(); // Erzeuge Game-Instanz
         game.start();                   // Starte das Spiel
     }
+
+    /**
+     * Simuliert ein Level ohne Fenster.
+     * Der Spieler fliegt dabei mit gedrückter W-Taste dem Mauszeiger hinterher, der den Planeten umkreist, und schießt regelmäßig.
+     * @param ticks Anzahl der Simulationsschritte
+     * @param threads Anzahl der Threads für Update und Kollisionserkennung
+     * @param level Nummer des Levels
+     */
+    private static void runHeadless(int ticks, int threads, int level) {
+        ScriptedInput input = new ScriptedInput() {
+            @Override
+            public void update(int tick) {
+                pressKey(Keyboard.Key.W);
+                double angle = tick * 0.01;
+                setMousePos(new Vector2f((float) Math.cos(angle) * 800, (float) Math.sin(angle) * 800));
+                if(tick % 30 == 0)
+                    click(Mouse.Button.LEFT);
+            }
+        };
+
+        Game game = Game.createHeadless(input, 1920, 1080);
+        if(level != 1)
+            game.startLevel(level);
+        game.setCollisionThreads(threads);
+        game.setUpdateThreads(threads);
+        double tps = game.runHeadless(ticks);
+        System.out.println(String.format("%d ticks, %.1f ticks/s", ticks, tps));
+    }
 }
@@ -0,0 +1,147 @@
+package de.hsmw.tkretzs1.energetic.core;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import org.jsfml.system.Time;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Paralleles Update der Spielobjekte über einen ForkJoinPool.
+ * Die Objektliste wird in eine feste Anzahl von Abschnitten aufgeteilt, die unabhängig voneinander simuliert werden.
+ *
+ * Voraussetzung ist, dass ein Spielobjekt in update() nur seinen eigenen Zustand verändert und den Zustand des Spiels nur liest.
+ * Neue Objekte und Explosionen werden über den CommandBuffer aufgezeichnet, die Objektliste selbst wird während des Updates nicht verändert.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.core.CommandBuffer
+ */
+public class ParallelUpdatePass {
+
+    /**
+     * Abschnitt des Updates, wird in jedem Frame wiederverwendet.
+     */
+    private class Chunk extends RecursiveAction {
+
+        /**
+         * Versionsnummer für die Serialisierung, Abschnitte werden nie serialisiert
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Nummer des Abschnittes
+         */
+        private final int index;
+
+        Chunk(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Simuliert die Spielobjekte des Abschnittes.
+         */
+        @Override
+        protected void compute() {
+            int from = begin(index, gameObjects.size());
+            int to = begin(index + 1, gameObjects.size());
+            for (int i = from; i < to; i++) {
+                update(gameObjects.get(i), dt);
+            }
+        }
+    }
+
+    /**
+     * Pool der Arbeitsthreads
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Abschnitte des Updates
+     */
+    private final Chunk[] chunks;
+
+    /**
+     * Wurzelaufgabe, die alle Abschnitte startet, wird in jedem Frame wiederverwendet
+     */
+    private final RecursiveAction root = new RecursiveAction() {
+        @Override
+        protected void compute() {
+            invokeAll(chunks);
+        }
+    };
+
+    /**
+     * Spielobjekte des aktuellen Updates
+     */
+    private List<GameObject> gameObjects;
+
+    /**
+     * Zeit seit dem letzten Update
+     */
+    private Time dt;
+
+    /**
+     * Konstruktor.
+     * @param threads Anzahl der Arbeitsthreads
+     */
+    public ParallelUpdatePass(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("threads must be positive");
+        pool = new ForkJoinPool(threads);
+        // mehrere Abschnitte je Thread, damit unterschiedlich aufwändige Objekte die Threads trotzdem auslasten
+        chunks = new Chunk[threads * 4];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(i);
+        }
+    }
+
+    /**
+     * Simuliert alle Spielobjekte parallel und kehrt zurück, wenn alle Abschnitte fertig sind.
+     * @param gameObjects Spielobjekte, die Liste darf währenddessen nicht verändert werden
+     * @param dt Zeit seit dem letzten Update
+     */
+    public void update(List<GameObject> gameObjects, Time dt) {
+        this.gameObjects = gameObjects;
+        this.dt = dt;
+        for (Chunk chunk : chunks) {
+            chunk.reinitialize();
+        }
+        root.reinitialize();
+        pool.invoke(root);
+        this.gameObjects = null;
+    }
+
+    /**
+     * Beendet die Arbeitsthreads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Simuliert ein einzelnes Spielobjekt: Zustand für die Interpolation merken, Update und Schlafzustand aktualisieren.
+     * Zerstörte Objekte werden übersprungen, schlafende Objekte erst nach dem Aufwecken wieder simuliert.
+     * @param gameObject Spielobjekt
+     * @param dt Zeit seit dem letzten Update
+     */
+    static void update(GameObject gameObject, Time dt) {
+        if (!gameObject.isAlive())
+            return;
+        gameObject.storeState();
+        if (!gameObject.isSleeping()) {
+            gameObject.update(dt);
+            gameObject.updateSleepState();
+        }
+    }
+
+    /**
+     * Gibt den ersten Index des Abschnittes zurück.
+     * @param chunk Nummer des Abschnittes
+     * @param size Anzahl der aufzuteilenden Elemente
+     * @return erster Index, für chunk = Anzahl Abschnitte die Anzahl der Elemente
+     */
+    private int begin(int chunk, int size) {
+        return (int) ((long) size * chunk / chunks.length);
+    }
+}
@@ -0,0 +1,43 @@
+package de.hsmw.tkretzs1.energetic.core;
+
+import org.jsfml.graphics.Drawable;
+import org.jsfml.graphics.RenderStates;
+import org.jsfml.graphics.RenderTarget;
+
+import java.util.List;
+
+/**
+ * Schnappschuss einer Szene.
+ * Fasst die Schnappschüsse aller Elemente eines Levels zusammen und zeichnet diese in der übergebenen Reihenfolge.
+ *
+ * @see de.hsmw.tkretzs1.energetic.core.Level#createSnapshot()
+ * @author Tom Kretzschmar
+ */
+public class SceneSnapshot implements Drawable {
+
+    /**
+     * Schnappschüsse aller Elemente in Zeichenreihenfolge
+     */
+    private final List<Drawable> drawables;
+
+    /**
+     * Konstruktor.
+     * Legt neuen Schnappschuss aus den übergebenen Elementen an. Die Liste darf danach nicht mehr verändert werden.
+     * @param drawables Schnappschüsse aller Elemente in Zeichenreihenfolge
+     */
+    public SceneSnapshot(List<Drawable> drawables) {
+        this.drawables = drawables;
+    }
+
+    /**
+     * Zeichnet alle Elemente der Szene auf das RenderTarget.
+     * @param renderTarget Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     */
+    @Override
+    public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+        for (Drawable drawable : drawables) {
+            renderTarget.draw(drawable, renderStates);
+        }
+    }
+}
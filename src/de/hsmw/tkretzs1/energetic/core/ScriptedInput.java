@@ -0,0 +1,107 @@
+package de.hsmw.tkretzs1.energetic.core;
+
+import org.jsfml.system.Vector2f;
+import org.jsfml.window.Keyboard;
+import org.jsfml.window.Mouse;
+import org.jsfml.window.event.Event;
+import org.jsfml.window.event.KeyEvent;
+import org.jsfml.window.event.MouseButtonEvent;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Skriptgesteuerte Eingaben für den Headless-Modus.
+ * Ersetzt Tastatur, Maus und Fensterevents, damit das Spiel ohne Fenster reproduzierbar simuliert werden kann.
+ * Das Skript wird durch Überschreiben der Methode update(int) festgelegt, welche vor jedem Simulationsschritt aufgerufen wird.
+ *
+ * @see de.hsmw.tkretzs1.energetic.core.Game#createHeadless(ScriptedInput, int, int)
+ * @author Tom Kretzschmar
+ */
+public class ScriptedInput {
+
+    /**
+     * aktuell gedrückte Tasten
+     */
+    private final EnumSet<Keyboard.Key> pressedKeys = EnumSet.noneOf(Keyboard.Key.class);
+
+    /**
+     * aktuelle Mausposition in Weltkoordinaten
+     */
+    private Vector2f mousePos = Vector2f.ZERO;
+
+    /**
+     * Events, die beim nächsten Simulationsschritt an das Level übergeben werden
+     */
+    private final List<Event> events = new ArrayList<>();
+
+    /**
+     * Update-Methode.
+     * Wird vor jedem Simulationsschritt aufgerufen und setzt die Eingaben für diesen Schritt. Standardmäßig keine Eingaben.
+     * @param tick Nummer des aktuellen Simulationsschrittes
+     */
+    public void update(int tick) {}
+
+    /**
+     * Drückt eine Taste und erzeugt das zugehörige Event.
+     * @param key Taste
+     */
+    public void pressKey(Keyboard.Key key) {
+        if(pressedKeys.add(key))
+            events.add(new KeyEvent(Event.Type.KEY_PRESSED.ordinal(), key.ordinal(), false, false, false, false));
+    }
+
+    /**
+     * Lässt eine Taste los und erzeugt das zugehörige Event.
+     * @param key Taste
+     */
+    public void releaseKey(Keyboard.Key key) {
+        if(pressedKeys.remove(key))
+            events.add(new KeyEvent(Event.Type.KEY_RELEASED.ordinal(), key.ordinal(), false, false, false, false));
+    }
+
+    /**
+     * Klickt mit der übergebenen Maustaste an der aktuellen Mausposition.
+     * @param button Maustaste
+     */
+    public void click(Mouse.Button button) {
+        events.add(new MouseButtonEvent(Event.Type.MOUSE_BUTTON_PRESSED.ordinal(), (int) mousePos.x, (int) mousePos.y, button.ordinal()));
+        events.add(new MouseButtonEvent(Event.Type.MOUSE_BUTTON_RELEASED.ordinal(), (int) mousePos.x, (int) mousePos.y, button.ordinal()));
+    }
+
+    /**
+     * Setzt die Mausposition.
+     * @param mousePos Mausposition in Weltkoordinaten
+     */
+    public void setMousePos(Vector2f mousePos) {
+        this.mousePos = mousePos;
+    }
+
+    /**
+     * Gibt die aktuelle Mausposition zurück.
+     * @return Mausposition in Weltkoordinaten
+     */
+    public Vector2f getMousePos() {
+        return mousePos;
+    }
+
+    /**
+     * Prüft, ob die übergebene Taste gedrückt ist.
+     * @param key Taste
+     * @return Taste gedrückt
+     */
+    public boolean isKeyPressed(Keyboard.Key key) {
+        return pressedKeys.contains(key);
+    }
+
+    /**
+     * Übergibt alle seit dem letzten Aufruf erzeugten Events an die Warteschlange.
+     * @param target Warteschlange, in die die Events eingereiht werden
+     */
+    void pollEvents(Queue<Event> target) {
+        target.addAll(events);
+        events.clear();
+    }
+}
@@ -0,0 +1,96 @@
+package de.hsmw.tkretzs1.energetic.core;
+
+import org.jsfml.system.Clock;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread, in dem die Simulation des aktuellen Levels (Update, Kollisionserkennung, Partikel) unabhängig vom Rendern läuft.
+ * Nach jedem Simulationsdurchlauf wird ein unveränderlicher Schnappschuss veröffentlicht, sofern der Renderthread den vorherigen bereits abgeholt hat.
+ * So wird immer ein Schnappschuss gezeichnet, während der nächste simuliert wird (Double Buffering).
+ *
+ * @see de.hsmw.tkretzs1.energetic.core.FrameSnapshot
+ * @author Tom Kretzschmar
+ */
+class SimulationThread extends Thread {
+
+    /**
+     * Referenz auf das Spiel, dessen Level simuliert wird
+     */
+    private final Game game;
+
+    /**
+     * Flag, gibt an ob der Thread läuft.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Zuletzt veröffentlichter Schnappschuss
+     */
+    private final AtomicReference<FrameSnapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Flag, gibt an ob der Renderthread einen neuen Schnappschuss benötigt.
+     */
+    private final AtomicBoolean snapshotRequested = new AtomicBoolean(true);
+
+    /**
+     * Konstruktor.
+     * Legt neuen Simulationsthread an.
+     * @param game zu simulierendes Spiel
+     */
+    SimulationThread(Game game) {
+        super("simulation");
+        this.game = game;
+        setDaemon(true);
+    }
+
+    /**
+     * Simulationsschleife.
+     * Simuliert das Spiel mit festem Zeitschritt und veröffentlicht Schnappschüsse für den Renderthread.
+     */
+    @Override
+    public void run() {
+        Clock clock = new Clock();
+        while (running) {
+            game.simulate(clock.restart());
+
+            // Nur dann einen neuen Schnappschuss erzeugen, wenn der vorherige abgeholt wurde
+            if (snapshotRequested.compareAndSet(true, false)) {
+                snapshot.set(game.createSnapshot());
+            }
+
+            // Bis zum nächsten fälligen Simulationsschritt warten, statt aktiv zu warten
+            long remaining = game.getTimestep().asMicroseconds() - clock.getElapsedTime().asMicroseconds();
+            if (remaining > 1000) {
+                try {
+                    Thread.sleep(remaining / 1000);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt den zuletzt veröffentlichten Schnappschuss zurück und fordert einen neuen an.
+     * @return Schnappschuss; null, wenn noch keiner veröffentlicht wurde.
+     */
+    FrameSnapshot takeSnapshot() {
+        snapshotRequested.set(true);
+        return snapshot.get();
+    }
+
+    /**
+     * Beendet den Thread und wartet auf das Ende des aktuellen Simulationsdurchlaufs.
+     */
+    void shutdown() {
+        running = false;
+        try {
+            join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
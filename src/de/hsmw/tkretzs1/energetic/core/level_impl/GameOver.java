@@ -111,6 +111,16 @@ public class GameOver implements Level {
 
     }
 
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen.
+     * Der GameOver-Bildschirm verändert beim Updaten keinen Zustand, der gezeichnet wird, daher kann es selbst gezeichnet werden.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        return this;
+    }
+
     /**
      * Hilfsmethode zum behandeln der übergebenen Events.
      * Verarbeitet Nutzereingaben zum Verlassen und Starten des Spiels.
@@ -1,15 +1,25 @@
 package de.hsmw.tkretzs1.energetic.core.level_impl;
 
+import de.hsmw.tkretzs1.energetic.collision.Broadphase;
+import de.hsmw.tkretzs1.energetic.collision.CollisionDispatcher;
+import de.hsmw.tkretzs1.energetic.collision.CollisionHandler;
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
+import de.hsmw.tkretzs1.energetic.collision.CollisionMatrix;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
+import de.hsmw.tkretzs1.energetic.collision.impl.SpatialHashGrid;
+import de.hsmw.tkretzs1.energetic.collision.impl.SweepAndPrune;
 import de.hsmw.tkretzs1.energetic.core.Game;
 import de.hsmw.tkretzs1.energetic.core.Level;
+import de.hsmw.tkretzs1.energetic.core.SceneSnapshot;
 import de.hsmw.tkretzs1.energetic.entities.*;
+import de.hsmw.tkretzs1.energetic.particles.QuadBatch;
 import de.hsmw.tkretzs1.energetic.particles.impl.BackgroundParticleSystem;
 import de.hsmw.tkretzs1.energetic.particles.impl.ExplosionParticleSystem;
+import de.hsmw.tkretzs1.energetic.physics.GravityField;
 import de.hsmw.tkretzs1.energetic.utils.Circle;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.graphics.*;
-import org.jsfml.system.Clock;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 import org.jsfml.system.Vector2i;
@@ -23,6 +33,9 @@ import java.util.List;
 /**
  * Das erste Level des Spiels.
  * Implementiert die Spiellogik und enthält alle Spielobjekte, die in diesem Level benötigt werden, steuert diese und zeichnet sie.
+ * Optional ziehen sich Planet und Asteroiden über ein Gravitationsfeld gegenseitig an (Level "Gravitationsfelder").
+ * Neue Objekte und Explosionen werden über den CommandBuffer des Spiels aufgezeichnet und erst am Ende des Simulationsschrittes eingefügt,
+ * sodass die Objektliste während Update und Kollisionsauflösung nie verändert wird.
  *
  * @author Tom Kretzschmar
  */
@@ -54,21 +67,68 @@ public class Level1 implements Level {
     private List<GameObject> objects;
 
     /**
-     * Counter zum Spawnen neuer Asteroiden
+     * Rand um den sichtbaren Ausschnitt, innerhalb dessen Spielobjekte noch gezeichnet werden. Deckt die Verschiebung durch die Interpolation ab.
      */
-    private Clock clock;
+    private static final float CULLING_MARGIN = 32;
+
+    /**
+     * Kantenlänge einer Zelle des Spatial Hash Grids, entspricht dem Durchmesser eines Asteroiden
+     */
+    private static final int GRID_CELL_SIZE = 100;
+
+    /**
+     * QuadBatch für die Partikel der Spielobjekte (Asteroiden, Triebwerk), wird vor den übrigen Teilen der Spielobjekte gezeichnet
+     */
+    private final QuadBatch objectBatch = new QuadBatch();
+
+    /**
+     * QuadBatch für die Partikel aller Explosionen, wird zuletzt gezeichnet
+     */
+    private final QuadBatch explosionBatch = new QuadBatch();
+
+    /**
+     * Spielobjekte im sichtbaren Ausschnitt, wird beim Zeichnen wiederverwendet
+     */
+    private final List<GameObject> visibleObjects = new ArrayList<>();
+
+    /**
+     * Verschiebung der sichtbaren Spielobjekte an ihre interpolierte Position - je Objekt x und y, wird beim Zeichnen wiederverwendet
+     */
+    private float[] visibleOffsets = new float[0];
+
+    /**
+     * Simulierte Zeit seit dem Spawnen des letzten Asteroiden
+     */
+    private Time spawnTime;
 
     /**
      * gesamte Spielzeit im Level
      */
     private Time gameTime;
 
+    /**
+     * Gravitationsfeld zwischen den Spielobjekten, null wenn keine Gravitation wirkt
+     */
+    private GravityField gravityField;
+
     /**
      * Konstruktor.
      * Legt neues Level an und initialisiert alle Spielobjekte.
      * @param worldbounds Begrenzung des Spielfeldes
      */
     public Level1(Circle worldbounds){
+        this(worldbounds, 80, null);
+    }
+
+    /**
+     * Konstruktor.
+     * Legt neues Level an und initialisiert alle Spielobjekte.
+     * @param worldbounds Begrenzung des Spielfeldes
+     * @param asteroids Anzahl der Asteroiden zu Beginn, zusätzlich ein Achtel davon als grüne Asteroiden
+     * @param gravityField Gravitationsfeld zwischen den Spielobjekten, null wenn keine Gravitation wirken soll
+     */
+    public Level1(Circle worldbounds, int asteroids, GravityField gravityField){
+        this.gravityField = gravityField;
         objects = new ArrayList<>();
         player = new Player();
         planet = new Planet();
@@ -78,10 +138,10 @@ public class Level1 implements Level {
         bgParticles.fill();
 
         // Asteroiden anlegen und auf dem Spielfeld verteilen, sowie Initialgeschwindigkeit festlegen.
-        for (int i = 0; i < 80; i++) {
+        for (int i = 0; i < asteroids; i++) {
             objects.add(new Asteroid(Math2D.rndPointOnDonut(worldbounds.radius*0.25f, worldbounds.radius), 75, new Vector2f(Math2D.randomInRange(-200,200), Math2D.randomInRange(-200,200))));
         }
-        for (int i = 0; i < 10; i++) {
+        for (int i = 0; i < asteroids / 8; i++) {
             objects.add(new greenAsteroid(Math2D.rndPointOnDonut(worldbounds.radius*0.25f, worldbounds.radius), 75, new Vector2f(Math2D.randomInRange(-200,200), Math2D.randomInRange(-200,200))));
         }
 
@@ -89,10 +149,97 @@ public class Level1 implements Level {
         objects.add(planet);
         objects.add(player);
 
-        clock = new Clock();
+        spawnTime = Time.ZERO;
         gameTime = Time.ZERO; // Spielzeit initialisieren
     }
 
+    /**
+     * Erzeugt die Broadphase der Kollisionserkennung für dieses Level.
+     * Ohne Gravitation bewegen sich die Asteroiden gleichmäßig, Sweep and Prune nutzt dann die Sortierung des vorherigen Frames.
+     * Im Gravitationsfeld werden die Asteroiden nahe dem Planeten stark beschleunigt und die Sortierung ändert sich in jedem Frame,
+     * das Spatial Hash Grid sortiert unabhängig davon in gleichgroße Zellen ein.
+     * @return Broadphase
+     */
+    public Broadphase createBroadphase() {
+        if (gravityField == null)
+            return new SweepAndPrune();
+        return new SpatialHashGrid(Game.getInstance().getWorldBounds().getSurroundingRect(), GRID_CELL_SIZE);
+    }
+
+    /**
+     * Erzeugt die Kollisionsmatrix des Levels.
+     * Freigegeben sind nur Paare, deren Kollisionsauflösung eine Wirkung hat. Pickups werden nur vom Spieler eingesammelt.
+     * @return Kollisionsmatrix
+     */
+    public static CollisionMatrix createCollisionMatrix() {
+        return new CollisionMatrix()
+                .enable(CollisionLayer.ASTEROID, CollisionLayer.ASTEROID | CollisionLayer.PLANET | CollisionLayer.PLAYER | CollisionLayer.PROJECTILE)
+                .enable(CollisionLayer.PROJECTILE, CollisionLayer.PROJECTILE)
+                .enable(CollisionLayer.PLAYER, CollisionLayer.PLANET | CollisionLayer.PICKUP);
+    }
+
+    /**
+     * Erzeugt die Kollisionsbehandlungen des Levels.
+     * Stöße zwischen Asteroiden, Planet und Spieler werden physikalisch aufgelöst. Treffer von Projektilen, das Einsammeln von Pickups
+     * und das Andocken am Planeten sind Auslöser ohne Stoßberechnung.
+     * @return Kollisionsbehandlungen
+     */
+    public static CollisionDispatcher createCollisionDispatcher() {
+        // Stoß - beide Objekte übernehmen ihre neue Geschwindigkeit
+        CollisionHandler bounce = new CollisionHandler() {
+            @Override
+            public void onContact(GameObject a, GameObject b, Vector2f velocityA, Vector2f velocityB) {
+                a.setVelocity(velocityA);
+                b.setVelocity(velocityB);
+            }
+        };
+
+        return new CollisionDispatcher()
+                .registerPhysical(ObjectType.ASTEROID, ObjectType.ASTEROID, bounce)
+                .registerPhysical(ObjectType.ASTEROID, ObjectType.PLAYER, new CollisionHandler() {
+                    @Override
+                    public void onContact(GameObject asteroid, GameObject player, Vector2f velocityA, Vector2f velocityB) {
+                        asteroid.setVelocity(velocityA);
+                        player.setVelocity(velocityB);
+                        ((Player) player).damage(30);
+                    }
+                })
+                .registerPhysical(ObjectType.ASTEROID, ObjectType.PLANET, new CollisionHandler() {
+                    @Override
+                    public void onContact(GameObject asteroid, GameObject planet, Vector2f velocityA, Vector2f velocityB) {
+                        asteroid.setVelocity(velocityA);
+                        ((Planet) planet).damage(30);
+                    }
+                })
+                .registerTrigger(ObjectType.ASTEROID, ObjectType.PROJECTILE, new CollisionHandler() {
+                    @Override
+                    public void onContact(GameObject asteroid, GameObject projectile, Vector2f velocityA, Vector2f velocityB) {
+                        asteroid.destroy();
+                        ((Projectile) projectile).impact();
+                    }
+                })
+                .registerPhysical(ObjectType.PROJECTILE, ObjectType.PROJECTILE, new CollisionHandler() {
+                    @Override
+                    public void onContact(GameObject a, GameObject b, Vector2f velocityA, Vector2f velocityB) {
+                        a.destroy();
+                        b.destroy();
+                    }
+                })
+                .registerTrigger(ObjectType.PLAYER, ObjectType.PICKUP, new CollisionHandler() {
+                    @Override
+                    public void onContact(GameObject player, GameObject pickup, Vector2f velocityA, Vector2f velocityB) {
+                        ((Player) player).collectPickup();
+                        pickup.destroy();
+                    }
+                })
+                .registerTrigger(ObjectType.PLAYER, ObjectType.PLANET, new CollisionHandler() {
+                    @Override
+                    public void onContact(GameObject player, GameObject planet, Vector2f velocityA, Vector2f velocityB) {
+                        ((Player) player).dock((Planet) planet);
+                    }
+                });
+    }
+
     /**
      * Update-Methode.
      * Zum Erzeugen von Asteroiden in Zeitintervallen und zum Updaten aller registrierter Spielobjekte.
@@ -105,10 +252,11 @@ public class Level1 implements Level {
         // Score und Spielzeit kontinuierlich inkrementieren
         Game.getInstance().addScore(dt.asSeconds());
         gameTime = Time.add(gameTime, dt);
+        spawnTime = Time.add(spawnTime, dt);
 
-        // In 2-sekündigen Intervallen neuen Asteroiden spawnen.
-        if(clock.getElapsedTime().asSeconds()>2){
-            clock.restart(); // Counter zurücksetzen
+        // In 2-sekündigen Intervallen (Simulationszeit) neuen Asteroiden spawnen.
+        if(spawnTime.asSeconds()>2){
+            spawnTime = Time.ZERO; // Counter zurücksetzen
 
             // Zufällige Position auf dem Spielfeld ermitteln
             Vector2f rndPoint = Math2D.rndPointOnDonut(Game.getInstance().getWorldBounds().radius*0.25f, Game.getInstance().getWorldBounds().radius);
@@ -129,9 +277,9 @@ public class Level1 implements Level {
 
             // 30% grüne Asteroiden, 70% normale Asteroiden
             if(Math2D.random() < 0.7)
-                objects.add(new Asteroid(rndPoint, 75, velocity));
+                Game.getInstance().getCommandBuffer().spawn(new Asteroid(rndPoint, 75, velocity));
             else
-                objects.add(new greenAsteroid(rndPoint, 75, velocity));
+                Game.getInstance().getCommandBuffer().spawn(new greenAsteroid(rndPoint, 75, velocity));
 
         }
 
@@ -143,16 +291,12 @@ public class Level1 implements Level {
             Game.getInstance().gameOver();
         }
 
-        // alle Objekte updaten und falls tot aus der Liste entfernen
-        Iterator<GameObject> it_o = objects.iterator();
-        GameObject currentObj;
-        while(it_o.hasNext()){
-            currentObj = it_o.next();
-            if(currentObj.isAlive())
-                currentObj.update(dt);
-            else
-                it_o.remove();
-        }
+        // Anziehung aus den Positionen des vorherigen Schrittes berechnen, bevor sich die Objekte bewegen
+        if(gravityField != null)
+            gravityField.apply(objects, dt);
+
+        // alle lebenden Objekte updaten, je nach Einstellung parallel - die Liste wird dabei nicht verändert
+        Game.getInstance().updateObjects(objects, dt);
 
         // Hintergrundpartikel aktualisieren (benötigen Spielerposition)
         bgParticles.setPlayerPosition(player.getPosition());
@@ -172,28 +316,102 @@ public class Level1 implements Level {
 
         // Kollisionserkennung starten
         Game.getInstance().detectCollisions(objects);
+
+        // Synchronisationspunkt: zerstörte Objekte entfernen, neue Objekte und Explosionen aus Update, Kollisionen und Eingaben übernehmen
+        Game.getInstance().getCommandBuffer().apply(objects, this);
     }
 
+    /**
+     * Gibt Kameraposition in Weltkoordinaten zurück.
+     * Die Kamera folgt der interpolierten Position des Spielers.
+     * @return Kamerposition
+     */
     @Override
     public Vector2f getCameraPos() {
-        return player.getPosition();
+        return player.getInterpolatedPosition(Game.getInstance().getInterpolationAlpha());
     }
 
     /**
      * Zeichnet das Level auf das RenderTarget.
      * Stellt alle Elemente des Levels in Abhängigkeit der implementierten Logik dar.
+     * Die Partikel der Spielobjekte (Asteroiden, Triebwerk) werden an ihrer interpolierten Position in einem QuadBatch gesammelt und mit einem Aufruf gezeichnet,
+     * ebenso die Partikel aller Explosionen. Die übrigen Teile der Spielobjekte (Raumschiff, Planet, Projektile) werden einzeln, um dieselbe Verschiebung versetzt gezeichnet.
+     * Spielobjekte und Explosionen außerhalb des sichtbaren Ausschnitts werden übersprungen, für sie werden auch keine Vertices berechnet.
      * @param target Das Renderziel, auf das gezeichnet werden soll.
      * @param renderStates aktuelle RenderStates
      */
     @Override
     public void draw(RenderTarget target, RenderStates renderStates) {
         target.draw(bgParticles);
+
+        // nur Spielobjekte und Explosionen im sichtbaren Ausschnitt zeichnen
+        IntRect view = Game.getInstance().getViewBounds();
+        float minX = view.left - CULLING_MARGIN;
+        float minY = view.top - CULLING_MARGIN;
+        float maxX = view.left + view.width + CULLING_MARGIN;
+        float maxY = view.top + view.height + CULLING_MARGIN;
+        visibleObjects.clear();
         for (GameObject object : objects) {
-            target.draw(object);
+            if(object.isVisibleIn(minX, minY, maxX, maxY))
+                visibleObjects.add(object);
+        }
+
+        // Spielobjekte um die Differenz zwischen interpolierter und aktueller Position verschoben zeichnen, die Verschiebung wird je Objekt einmal berechnet
+        float alpha = Game.getInstance().getInterpolationAlpha();
+        if(visibleOffsets.length < visibleObjects.size() * 2)
+            visibleOffsets = new float[visibleObjects.size() * 4];
+        objectBatch.clear();
+        for (int i = 0; i < visibleObjects.size(); i++) {
+            GameObject object = visibleObjects.get(i);
+            Vector2f position = object.getPosition();
+            Vector2f interpolated = object.getInterpolatedPosition(alpha);
+            visibleOffsets[i * 2] = interpolated.x - position.x;
+            visibleOffsets[i * 2 + 1] = interpolated.y - position.y;
+            object.addToBatch(objectBatch, visibleOffsets[i * 2], visibleOffsets[i * 2 + 1]);
+        }
+        target.draw(objectBatch);
+        for (int i = 0; i < visibleObjects.size(); i++) {
+            float offsetX = visibleOffsets[i * 2];
+            float offsetY = visibleOffsets[i * 2 + 1];
+            if(offsetX == 0 && offsetY == 0) {
+                visibleObjects.get(i).drawUnbatched(target, RenderStates.DEFAULT);
+            } else {
+                visibleObjects.get(i).drawUnbatched(target, new RenderStates(Transform.translate(Transform.IDENTITY, offsetX, offsetY)));
+            }
+        }
+        visibleObjects.clear();
+
+        explosionBatch.clear();
+        for (ExplosionParticleSystem explosion : explosions) {
+            if(explosion.isVisibleIn(minX, minY, maxX, maxY))
+                explosion.addToBatch(explosionBatch);
+        }
+        target.draw(explosionBatch);
+    }
+
+    /**
+     * Erzeugt einen unveränderlichen Schnappschuss aller sichtbaren Elemente des Levels in Zeichenreihenfolge.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        IntRect view = Game.getInstance().getViewBounds();
+        float minX = view.left - CULLING_MARGIN;
+        float minY = view.top - CULLING_MARGIN;
+        float maxX = view.left + view.width + CULLING_MARGIN;
+        float maxY = view.top + view.height + CULLING_MARGIN;
+
+        List<Drawable> drawables = new ArrayList<>();
+        drawables.add(bgParticles.createSnapshot());
+        for (GameObject object : objects) {
+            if(object.isVisibleIn(minX, minY, maxX, maxY))
+                drawables.add(object.createSnapshot());
         }
         for (ExplosionParticleSystem explosion : explosions) {
-            target.draw(explosion);
+            if(explosion.isVisibleIn(minX, minY, maxX, maxY))
+                drawables.add(explosion.createSnapshot());
         }
+        return new SceneSnapshot(drawables);
     }
 
     /**
@@ -206,7 +424,7 @@ public class Level1 implements Level {
 
             // wenn linke Maustaste gedrückt - neues Projektil erzeugen
             if(event.type == Event.Type.MOUSE_BUTTON_PRESSED && event.asMouseButtonEvent().button == Mouse.Button.LEFT){
-                objects.add(new Projectile(player.getPosition(), Math2D.normalize(Vector2f.sub(Game.getInstance().getMousePos(), player.getPosition())), 1000));
+                Game.getInstance().getCommandBuffer().spawn(new Projectile(player.getPosition(), Math2D.normalize(Vector2f.sub(Game.getInstance().getMousePos(), player.getPosition())), 1000));
                 player.addEnergy(-10);
                 Game.getInstance().playSound(Game.Soundtype.gunshot);
             }
@@ -226,18 +444,10 @@ public class Level1 implements Level {
 
     /**
      * Fügt Explosions-Partikelsystem hinzu, wenn Asteroid abgeschossen wird.
+     * Wird vom CommandBuffer am Synchronisationspunkt aufgerufen.
      * @param position Position der Explosion
      */
     public void addExplosion(Vector2f position){
         explosions.add(new ExplosionParticleSystem(position, Time.getSeconds(1)));
     }
-
-    /**
-     * Fügt dem Level neues Spielobjekt hinzu.
-     * Benötigt um durch Asteroiden EnergyPickups zu erzeugen.
-     * @param object Spielobjekt, dass hinzugefügt werden soll
-     */
-    public void addGameObject(GameObject object){
-        objects.add(object);
-    }
 }
@@ -96,9 +96,19 @@ public class Menu implements Level {
 
     }
 
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen.
+     * Das Menü verändert beim Updaten keinen Zustand, der gezeichnet wird, daher kann es selbst gezeichnet werden.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        return this;
+    }
+
     /**
      * Hilfsmethode zum behandeln der übergebenen Events.
-     * Verarbeitet Nutzereingaben zum Verlassen und Starten des Spiels.
+     * Verarbeitet Nutzereingaben zum Verlassen und Starten des Spiels. Mit G wird das Level mit Gravitationsfeldern gestartet.
      * @param events übergebene Events.
      */
     private void handleEvents(ArrayList<Event> events){
@@ -107,6 +117,9 @@ public class Menu implements Level {
                 if (event.asKeyEvent().key == Keyboard.Key.SPACE) {
                     Game.getInstance().startLevel(1);
                 }
+                if (event.asKeyEvent().key == Keyboard.Key.G) {
+                    Game.getInstance().startLevel(2);
+                }
                 if (event.asKeyEvent().key == Keyboard.Key.ESCAPE) {
                     Game.getInstance().exitGame();
                 }
@@ -1,9 +1,12 @@
 package de.hsmw.tkretzs1.energetic.entities;
 
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
 import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
 import de.hsmw.tkretzs1.energetic.utils.Circle;
 import de.hsmw.tkretzs1.energetic.core.Game;
+import de.hsmw.tkretzs1.energetic.particles.QuadBatch;
 import de.hsmw.tkretzs1.energetic.particles.impl.AsteroidParticleSystem;
 
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
@@ -54,7 +57,9 @@ public class Asteroid extends GameObject{
      * @param velocity Startgeschwindigkeit des Spielobjekts
      */
     public Asteroid(Vector2f position, int fragments, Vector2f velocity) {
-        super(new CircleCollider(position, 50));
+        super(new CircleCollider(50));
+        setCollisionCategory(CollisionLayer.ASTEROID);
+        setObjectType(ObjectType.ASTEROID);
         this.mass = 75;
         this.position = position;
         this.velocity = velocity;
@@ -83,9 +88,8 @@ public class Asteroid extends GameObject{
         Vector2f s = Vector2f.mul(velocity, dt.asSeconds());    // zurückgelegten Weg berechnen
         position = Vector2f.add(position, s);                   // Position berechnen
 
-        // Partikelsystem und Kollisionsbox an neue Position verschieben
+        // Partikelsystem an neue Position verschieben, die Kollisionsbox liest die Position selbst
         particleSystem.setPosition(s);
-        getCollisionShape().updatePosition(position);
     }
 
 
@@ -97,26 +101,67 @@ public class Asteroid extends GameObject{
      */
     @Override
     public void draw(RenderTarget target, RenderStates renderStates) {
-        target.draw(particleSystem);
+        target.draw(particleSystem, renderStates);
     }
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eine eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Fügt die Fragmente dem QuadBatch hinzu. Der Asteroid besteht nur aus seinem Partikelsystem und wird damit vollständig über den QuadBatch gezeichnet.
+     * @param batch QuadBatch des Levels
+     * @param offsetX Verschiebung an die gezeichnete Position - x
+     * @param offsetY Verschiebung an die gezeichnete Position - y
      */
     @Override
-    public void resolveCollision(Vector2f newVelocity, GameObject other) {
-        if(other instanceof Asteroid || other instanceof greenAsteroid){
-            this.velocity = newVelocity;
-        } else if(other instanceof Planet){
-            this.velocity = newVelocity;
-        } else if(other instanceof Player){
-            this.velocity = newVelocity;
-        } else if(other instanceof Projectile){
-            alive = false;
-        }
+    public void addToBatch(QuadBatch batch, float offsetX, float offsetY) {
+        particleSystem.addToBatch(batch, offsetX, offsetY);
+    }
+
+    /**
+     * Zeichnet nichts, der Asteroid wird vollständig über den QuadBatch gezeichnet.
+     * @param target Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     */
+    @Override
+    public void drawUnbatched(RenderTarget target, RenderStates renderStates) {
+    }
+
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen.
+     * Die Darstellung des Asteroiden erfolgt über das Partikelsystem, daher genügt dessen Schnappschuss.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        return particleSystem.createSnapshot();
+    }
+
+    /**
+     * Gibt zurück, ob der Asteroid schlafen gelegt werden darf.
+     * Innerhalb des Spielfeldes wirkt keine Beschleunigung auf den Asteroiden, außerhalb wird er zurückgelenkt.
+     * @return Asteroid befindet sich innerhalb des Spielfeldes
+     */
+    @Override
+    protected boolean canSleep() {
+        Circle worldbounds = Game.getInstance().getWorldBounds();
+        return Math2D.getLength(Vector2f.sub(new Vector2f(worldbounds.position), position)) <= worldbounds.radius;
+    }
+
+    /**
+     * Setzt die Geschwindigkeit des Asteroiden, z.B. nach einem Stoß.
+     * @param velocity neue Geschwindigkeit
+     */
+    @Override
+    public void setVelocity(Vector2f velocity) {
+        this.velocity = velocity;
+    }
+
+    /**
+     * Gibt zurück, wie weit die Darstellung höchstens über die Kollisionsform hinausragt.
+     * Die Fragmente liegen innerhalb des Radius der Kollisionsform und ragen um ihre Größe darüber hinaus.
+     * @return Überstand in Pixeln
+     */
+    @Override
+    protected float getDrawMargin() {
+        return 10;
     }
 
     /**
@@ -1,6 +1,8 @@
 package de.hsmw.tkretzs1.energetic.entities;
 
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
 import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
 import de.hsmw.tkretzs1.energetic.utils.FileLoader;
 import org.jsfml.graphics.*;
@@ -28,18 +30,14 @@ public class EnergyPickup extends GameObject{
 
     /**
      * Konstruktor.
-     * Legt neues EnergyPickup an, läd Ressourcen und initialisiert Werte.
+     * Legt neues EnergyPickup an und initialisiert Werte.
      * @param position
      */
     public EnergyPickup(Vector2f position) {
-        super(new CircleCollider(position, 20));
+        super(new CircleCollider(20));
+        setCollisionCategory(CollisionLayer.PICKUP);
+        setObjectType(ObjectType.PICKUP);
         this.position = position;
-
-        // Textur laden
-        Texture tex = FileLoader.loadTexture("res\\images\\energy.png");
-        sprite = new Sprite(tex);
-        sprite.setOrigin(tex.getSize().x/2,tex.getSize().y/2);
-        sprite.setPosition(0,0);
     }
 
     /**
@@ -52,14 +50,22 @@ public class EnergyPickup extends GameObject{
     public void update(Time dt) {}
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eine eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Energiekristalle bewegen sich nicht.
+     * @return statisch
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen.
+     * Die Position des Energiekristalls verändert sich nicht, daher kann er selbst gezeichnet werden.
+     * @return Schnappschuss
      */
     @Override
-    public void resolveCollision(Vector2f newVelocity, GameObject other) {
-        alive = false;
+    public Drawable createSnapshot() {
+        return this;
     }
 
     /**
@@ -89,6 +95,16 @@ public class EnergyPickup extends GameObject{
         return new Vector2f(0,0);
     }
 
+    /**
+     * Gibt zurück, wie weit die Darstellung höchstens über die Kollisionsform hinausragt.
+     * Das Sprite ist größer als die Kollisionsform und nicht mittig ausgerichtet.
+     * @return Überstand in Pixeln
+     */
+    @Override
+    protected float getDrawMargin() {
+        return 10;
+    }
+
     /**
      * Gibt aktuelle Position des Spielobjektes zurück.
      * @return aktuelle Position
@@ -106,8 +122,13 @@ public class EnergyPickup extends GameObject{
      */
     @Override
     public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+        // Textur erst beim ersten Zeichnen laden (im Headless-Modus wird nie gezeichnet)
+        if(sprite == null) {
+            Texture tex = FileLoader.loadTexture("res\\images\\energy.png");
+            sprite = new Sprite(tex);
+        }
         sprite.setOrigin(20,20);
         sprite.setPosition(position);
-        renderTarget.draw(sprite);
+        renderTarget.draw(sprite, renderStates);
     }
 }
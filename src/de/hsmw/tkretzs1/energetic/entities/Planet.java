@@ -1,6 +1,8 @@
 package de.hsmw.tkretzs1.energetic.entities;
 
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
 import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
 import de.hsmw.tkretzs1.energetic.utils.FileLoader;
 import org.jsfml.graphics.*;
@@ -48,13 +50,21 @@ public class Planet extends GameObject{
 
     /**
      * Konstuktor.
-     * Legt neuen Planeten an, läd Ressourcen, setzt Kollisionsbox und Standardwerte.
+     * Legt neuen Planeten an, setzt Kollisionsbox und Standardwerte.
      */
     public Planet() {
-        super(new CircleCollider(new Vector2f(0,0), 140));
+        super(new CircleCollider(140));
+        setCollisionCategory(CollisionLayer.PLANET);
+        setObjectType(ObjectType.PLANET);
         radius = 140;
         position = new Vector2f(0,0);
+    }
 
+    /**
+     * Läd die Ressourcen und erzeugt Sprite und Schild.
+     * Wird erst beim ersten Zeichnen aufgerufen, damit der Planet auch ohne Fenster (headless) simuliert werden kann.
+     */
+    private void createGraphics() {
         // Planetentextur laden
         Texture tex = FileLoader.loadTexture("res\\images\\planet.png");
         sprite = new Sprite(tex);
@@ -85,20 +95,24 @@ public class Planet extends GameObject{
     }
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eine eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Der Planet bewegt sich nicht, er wird aber weiterhin simuliert (Energieverbrauch).
+     * @return statisch
      */
     @Override
-    public void resolveCollision(Vector2f newVelocity, GameObject other) {
-        // wenn Asteroid: 30 Energie abziehen
-        if(other instanceof Asteroid || other instanceof greenAsteroid) {
-            energy -= 30;
-            if (energy <= 0){
-                energy = 0;
-                alive = false;
-            }
+    public boolean isStatic() {
+        return true;
+    }
+
+    /**
+     * Fügt dem Planeten Schaden zu, z.B. beim Einschlag eines Asteroiden.
+     * Ist keine Energie mehr vorhanden, wird der Planet zerstört.
+     * @param damage abzuziehende Energie
+     */
+    public void damage(int damage) {
+        energy -= damage;
+        if (energy <= 0){
+            energy = 0;
+            alive = false;
         }
     }
 
@@ -130,6 +144,16 @@ public class Planet extends GameObject{
         return new Vector2f(0,0);
     }
 
+    /**
+     * Gibt zurück, wie weit die Darstellung höchstens über die Kollisionsform hinausragt.
+     * Der Umriss des Schildes ragt um seine Linienstärke über die Kollisionsform hinaus.
+     * @return Überstand in Pixeln
+     */
+    @Override
+    protected float getDrawMargin() {
+        return 4;
+    }
+
     /**
      * Gibt aktuelle Position des Spielobjektes zurück.
      * @return aktuelle Position
@@ -147,11 +171,39 @@ public class Planet extends GameObject{
      */
     @Override
     public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+        render(renderTarget, renderStates, energy);
+    }
+
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen mit dem aktuellen Energiestand.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        final float energy = this.energy;
+        return new Drawable() {
+            @Override
+            public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+                render(renderTarget, renderStates, energy);
+            }
+        };
+    }
+
+    /**
+     * Hilfsmethode zum Zeichnen des Planeten mit dem übergebenen Energiestand.
+     * @param renderTarget Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     * @param energy Energiestand, bestimmt die Farbe des Schildes
+     */
+    private void render(RenderTarget renderTarget, RenderStates renderStates, float energy) {
+        if(sprite == null)
+            createGraphics();
+
         // Farbe des Schildes abhängig vom Energiestand setzen
         shield.setOutlineColor(new Color((int)(255- energy/4), (int) energy/4,0));
 
-        renderTarget.draw(sprite);
-        renderTarget.draw(shield);
+        renderTarget.draw(sprite, renderStates);
+        renderTarget.draw(shield, renderStates);
     }
 
     /**
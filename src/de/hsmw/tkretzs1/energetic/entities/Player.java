@@ -1,8 +1,11 @@
 package de.hsmw.tkretzs1.energetic.entities;
 
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
-import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
+import de.hsmw.tkretzs1.energetic.collision.impl.PolygonCollider;
 import de.hsmw.tkretzs1.energetic.core.Game;
+import de.hsmw.tkretzs1.energetic.particles.QuadBatch;
 import de.hsmw.tkretzs1.energetic.particles.impl.EngineParticleSystem;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.graphics.*;
@@ -51,6 +54,12 @@ public class Player extends GameObject{
      */
     private final float MAXSPEED = 700f;
 
+    /**
+     * Radius des dargestellten Schildes.
+     * Maßeinheit in px
+     */
+    private final int SHIELD_RADIUS = 30;
+
     /**
      * Trägheitsdämpfer an/aus
      * Standarfwert: an
@@ -77,6 +86,11 @@ public class Player extends GameObject{
      */
     private Vector2f position;
 
+    /**
+     * aktueller Drehwinkel des Raumschiffs in Grad (Ausrichtung zur Mausposition)
+     */
+    private float angle;
+
     /**
      * Darstellung (Shape) des Raumschiffs
      */
@@ -130,7 +144,10 @@ public class Player extends GameObject{
      * Erzeugt neues Spielerobjekt respektive Raumschiff und setzt Standardwerte.
      */
     public Player(){
-        super(new CircleCollider(new Vector2f(0,0),30));
+        // Kollisionsmodell entspricht dem Dreieck der Darstellung
+        super(new PolygonCollider(new Vector2f(25, 0), new Vector2f(-15, 20), new Vector2f(-15, -20)));
+        setCollisionCategory(CollisionLayer.PLAYER);
+        setObjectType(ObjectType.PLAYER);
 
         // Partikelsystem für Triebwerk anlegen
         particleSystem = new EngineParticleSystem(10000, 3.5f, 100.0f, Time.getSeconds(0.1f), 500, new Color(10,80,160));
@@ -139,12 +156,11 @@ public class Player extends GameObject{
         acceleration = new Vector2f(0,0);
         velocity = new Vector2f(0,0);
         velocity_world = new Vector2f(0,0);
-
-        createPlayerShape();
     }
 
     /**
      * Hilfsmethode zur Erstellung der Shapes zur Darstellung des Raumschiffs und dessen Komponenten.
+     * Wird erst beim ersten Zeichnen aufgerufen, damit das Raumschiff auch ohne Fenster (headless) simuliert werden kann.
      */
     private void createPlayerShape(){
         // Raumschiff
@@ -158,10 +174,9 @@ public class Player extends GameObject{
         shape.setFillColor(Color.GREEN);
         shape.setOutlineColor(Color.WHITE);
 
-        // Kollisionsbox anlegen
-        CircleCollider circleCollider = ((CircleCollider)getCollisionShape());
-        shield = new CircleShape(circleCollider.radius, 64);
-        shield.setOrigin(circleCollider.radius, circleCollider.radius);
+        // Schild anlegen
+        shield = new CircleShape(SHIELD_RADIUS, 64);
+        shield.setOrigin(SHIELD_RADIUS, SHIELD_RADIUS);
         shield.setFillColor(Color.TRANSPARENT);
         shield.setOutlineColor(new Color(0,220,255,100));
         shield.setOutlineThickness(2);
@@ -188,16 +203,16 @@ public class Player extends GameObject{
         Vector2f direction = Vector2f.sub(mousePos, position);  // Abstands/Richtungsvektor zwischen Mausposition und Spielerposition berechnen
         direction = Math2D.normalize(direction);                // Richtungsvektor normalisieren
 
-        float angle = Math2D.getAngle(direction);               // Winkel des Vektors in Bezug auf x-Achse bestimmen (Achtung! y-Achse ist nach unten gerichtet - Winkel im Uhrzeigersinn gemessen)
+        angle = Math2D.getAngle(direction);                     // Winkel des Vektors in Bezug auf x-Achse bestimmen (Achtung! y-Achse ist nach unten gerichtet - Winkel im Uhrzeigersinn gemessen)
         velocity = Math2D.rotate(velocity_world, -angle);       // aktuellen Geschwindigkeitsvektor in lokales Koordinatensystem transformieren (drehen)
 
         float ax = 0.0f;
         float ay = 0.0f;
 
         // Eingaben abfragen - x-Richtung (lokal!)
-        if (Keyboard.isKeyPressed(Keyboard.Key.W)) {            // wenn Spieler w drückt
+        if (Game.getInstance().isKeyPressed(Keyboard.Key.W)) {            // wenn Spieler w drückt
             ax = ACC_F;                                             // Beschleunigung nach vorn setzen
-        } else if (Keyboard.isKeyPressed(Keyboard.Key.S)) {     // wenn Spieler s drückt
+        } else if (Game.getInstance().isKeyPressed(Keyboard.Key.S)) {     // wenn Spieler s drückt
             ax = ACC_B;                                             // Beschleunigung nach hinten setzen
         } else if (damping) {                                   // wenn Spieler nichts drückt und Trägheitsdämpfer an ist
             if (velocity.x > 5) {                                   // Bewegung vorwärts vorhanden und größer einem Schwellenwert (low pass)
@@ -210,9 +225,9 @@ public class Player extends GameObject{
         }
 
         // Eingaben abfragen - x-Richtung (lokal!)
-        if (Keyboard.isKeyPressed(Keyboard.Key.D)) {           // siehe oben für Rechts/Links
+        if (Game.getInstance().isKeyPressed(Keyboard.Key.D)) {           // siehe oben für Rechts/Links
             ay = ACC_L;
-        } else if (Keyboard.isKeyPressed(Keyboard.Key.A)) {
+        } else if (Game.getInstance().isKeyPressed(Keyboard.Key.A)) {
             ay = ACC_R;
         } else if (damping) {
             if (velocity.y > 5) {
@@ -240,10 +255,6 @@ public class Player extends GameObject{
         position = Vector2f.add(position, s);                       // Weg zur Position addieren - neue Position berechnen
 
 
-        shape.setRotation(angle);       // Raumschiff in Bewegungsrichtung drehen
-        shape.setPosition(position);    // Raumschiff an neue Position setzen
-
-
         // Energieverbrauch berechnen
         float power = Math2D.getLength(acceleration) * 0.002f + 0.3f;
         if(energy > 0) {
@@ -252,52 +263,57 @@ public class Player extends GameObject{
             alive = false;  // wenn Energie unter 0 - GameOver (wird automatisch aufgerufen sobald alive=false
         }
 
-        // Position der Pickup-Shapes aktualisieren
-        for (int i = 0; i < maxPickups; i++) {
-            pickupCircles.get(i).setPosition(position.x + (i * 6) - maxPickups * 5 / 2, position.y + 40);
-        }
-
         // Position des Triebwerks-Partikelsystem aktualisieren
         particleSystem.setPosition(Vector2f.sub(position, Vector2f.mul(direction, 10)));
         particleSystem.setAngle(angle+180);
         particleSystem.setVelocity(acceleration.x > 0 ? EngineParticleSystem.VELOCITY_BOOST : EngineParticleSystem.VELOCITY_IDLE);  // je nachdem ob der Spieler beschleunigt oder nicht, Geschwindigkeit des Partikelsystems setzen
         particleSystem.update(dt);  // Partikelsystem updaten
+    }
 
-        getCollisionShape().updatePosition(position);   // Kollisionsmodell an neue Position setzen
+    /**
+     * Fügt dem Spieler Schaden zu, z.B. bei der Kollision mit einem Asteroiden.
+     * Ist keine Energie mehr vorhanden, wird der Spieler zerstört.
+     * @param damage abzuziehende Energie
+     */
+    public void damage(int damage) {
+        energy -= damage;
+        if (energy <= 0){
+            energy = 0;
+            alive = false;
+        }
     }
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eine eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Nimmt ein EnergyPickup auf, wenn noch Platz ist.
      */
-    @Override
-    public void resolveCollision(Vector2f newVelocity, GameObject other) {
-        // wenn Asteroid: 30 Energie abziehen
-        if(other instanceof Asteroid || other instanceof greenAsteroid){
-            this.velocity_world = newVelocity;
-            energy -= 30;
-            if (energy <= 0){
-                energy = 0;
-                alive = false;
-            }
-        // wenn EnergyPickup: zur Anzahl Pickups hinzufügen, wenn nicht voll
-        } else if(other instanceof EnergyPickup){
-            if(energyPickupCount < maxPickups){
-                energyPickupCount++;
-            }
-        // wenn Planet, Pickups auf diesen übertragen
-        } else if(other instanceof Planet){
-            ((Planet)other).addEnergy(energyPickupCount*100);
-            energyPickupCount = 0;
-
-            int max = 255 - (int)energy;
-            energy += max;
-            ((Planet)other).addEnergy(-max);
+    public void collectPickup() {
+        if(energyPickupCount < maxPickups){
+            energyPickupCount++;
         }
     }
 
+    /**
+     * Dockt am Planeten an: Die aufgenommenen Pickups werden auf den Planeten übertragen und der Spieler mit Energie des Planeten aufgeladen.
+     * @param planet Planet
+     */
+    public void dock(Planet planet) {
+        planet.addEnergy(energyPickupCount*100);
+        energyPickupCount = 0;
+
+        int max = 255 - (int)energy;
+        energy += max;
+        planet.addEnergy(-max);
+    }
+
+    /**
+     * Setzt die Geschwindigkeit des Spielers, z.B. nach einem Stoß.
+     * @param velocity neue Geschwindigkeit
+     */
+    @Override
+    public void setVelocity(Vector2f velocity) {
+        this.velocity_world = velocity;
+    }
+
     /**
      * Gibt Masse des Spielobjektes zurück.
      * @return Masse
@@ -333,27 +349,98 @@ public class Player extends GameObject{
      */
     @Override
     public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+        render(renderTarget, renderStates, position, angle, energy, energyPickupCount, particleSystem);
+    }
+
+    /**
+     * Fügt die Partikel des Triebwerks dem QuadBatch hinzu.
+     * @param batch QuadBatch des Levels
+     * @param offsetX Verschiebung an die gezeichnete Position - x
+     * @param offsetY Verschiebung an die gezeichnete Position - y
+     */
+    @Override
+    public void addToBatch(QuadBatch batch, float offsetX, float offsetY) {
+        particleSystem.addToBatch(batch, offsetX, offsetY);
+    }
+
+    /**
+     * Zeichnet das Raumschiff ohne das Triebwerk, das über den QuadBatch gezeichnet wird.
+     * @param renderTarget Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     */
+    @Override
+    public void drawUnbatched(RenderTarget renderTarget, RenderStates renderStates) {
+        render(renderTarget, renderStates, position, angle, energy, energyPickupCount, null);
+    }
+
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen mit dem aktuellen Zustand des Raumschiffs und des Triebwerks.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        final Vector2f position = this.position;
+        final float angle = this.angle;
+        final float energy = this.energy;
+        final int energyPickupCount = this.energyPickupCount;
+        final Drawable engine = particleSystem.createSnapshot();
+        return new Drawable() {
+            @Override
+            public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+                render(renderTarget, renderStates, position, angle, energy, energyPickupCount, engine);
+            }
+        };
+    }
+
+    /**
+     * Hilfsmethode zum Zeichnen des Raumschiffs mit dem übergebenen Zustand.
+     * @param renderTarget Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     * @param position Position des Raumschiffs
+     * @param angle Drehwinkel des Raumschiffs
+     * @param energy Energiestand, bestimmt die Farbe des Raumschiffs
+     * @param energyPickupCount Anzahl aufgenommener Pickups
+     * @param engine Darstellung des Triebwerks, null wenn das Triebwerk separat gezeichnet wird
+     */
+    private void render(RenderTarget renderTarget, RenderStates renderStates, Vector2f position, float angle, float energy, int energyPickupCount, Drawable engine) {
+        if(shape == null)
+            createPlayerShape();
+
+        shape.setRotation(angle);       // Raumschiff in Bewegungsrichtung drehen
+        shape.setPosition(position);    // Raumschiff an Position setzen
         shield.setPosition(position);
 
         // Farbe des Raumschiffs abhängig vom Energiestand setzen
         shape.setFillColor(new Color((int)(255- energy), (int) energy,0));
 
-        renderTarget.draw(particleSystem);
-        renderTarget.draw(shape);
-        renderTarget.draw(shield);
+        if(engine != null)
+            renderTarget.draw(engine, renderStates);
+        renderTarget.draw(shape, renderStates);
+        renderTarget.draw(shield, renderStates);
 
         // Anzeige der Aufgesammelten Pickups
         for (int i = 0; i < maxPickups; i++) {
             CircleShape temp = pickupCircles.get(i);
+            temp.setPosition(position.x + (i * 6) - maxPickups * 5 / 2, position.y + 40);
             if(i<energyPickupCount)
                 temp.setFillColor(Color.GREEN);
             else
                 temp.setFillColor(Color.RED);
 
-            renderTarget.draw(temp);
+            renderTarget.draw(temp, renderStates);
         }
     }
 
+    /**
+     * Gibt zurück, wie weit die Darstellung höchstens über die Kollisionsform hinausragt.
+     * Der Triebwerksstrahl, der Schild und die Anzeige der Pickups ragen über die Kollisionsform hinaus.
+     * @return Überstand in Pixeln
+     */
+    @Override
+    protected float getDrawMargin() {
+        return 100;
+    }
+
     /**
      * Gibt aktuelle Position des Spielobjektes zurück.
      * @return aktuelle Position
@@ -362,6 +449,15 @@ public class Player extends GameObject{
         return position;
     }
 
+    /**
+     * Gibt den Drehwinkel des Raumschiffes zurück, das Kollisionsmodell wird entsprechend gedreht.
+     * @return Winkel in Grad
+     */
+    @Override
+    public float getRotation() {
+        return angle;
+    }
+
     /**
      * Schaltet den Trägheitsdämpfer um
      */
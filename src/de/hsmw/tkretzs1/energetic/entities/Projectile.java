@@ -1,6 +1,8 @@
 package de.hsmw.tkretzs1.energetic.entities;
 
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
 import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
 import de.hsmw.tkretzs1.energetic.core.Game;
 import org.jsfml.graphics.*;
@@ -49,23 +51,17 @@ public class Projectile extends GameObject{
      * @param speed Geschwindigkeit (Skalar)
      */
     public Projectile(Vector2f position, Vector2f direction, float speed) {
-        super(new CircleCollider(position, 10));
+        super(new CircleCollider(10, true));  // Kollisionsbox über die zurückgelegte Strecke prüfen, damit das Projektil nicht durch Asteroiden hindurchfliegt
+        setCollisionCategory(CollisionLayer.PROJECTILE);
+        setObjectType(ObjectType.PROJECTILE);
         this.direction = direction;
         this.position = position;
         this.speed = speed;
-
-        // Form erzeugen
-        shape = new RectangleShape(new Vector2f(10,10));
-        shape.setOrigin(5,5);
-        shape.setPosition(position);
-        shape.setFillColor(Color.TRANSPARENT);
-        shape.setOutlineColor(Color.WHITE);
-        shape.setOutlineThickness(1);
         lifetime = Time.getSeconds(2);
     }
 
     /**
-     * Simuliert die Bewegung des Projektils und aktualisiert die Positionen der Kollisionsbox sowie die Lebenszeit.
+     * Simuliert die Bewegung des Projektils sowie die Lebenszeit.
      *
      * @param dt Zeit seit dem letzten Aufruf (deltaTime)
      */
@@ -74,9 +70,6 @@ public class Projectile extends GameObject{
         // Bewegung simulieren
         position = Vector2f.add(position, Vector2f.mul(direction, speed * dt.asSeconds()));
 
-        // Kollisionsbox aktualisieren
-        getCollisionShape().updatePosition(position);
-
         // Lebenszeit simulieren
         lifetime = Time.sub(lifetime, dt);
         if(lifetime.asSeconds() < 0){
@@ -85,22 +78,13 @@ public class Projectile extends GameObject{
     }
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eine eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Trifft einen Asteroiden: Sound abspielen, Explosion hinzufügen, Score hinzufügen und Projektil entfernen.
      */
-    @Override
-    public void resolveCollision(Vector2f newVelocity, GameObject other) {
-        // wenn Asteroid: Sound abspielen, Explosion hinzufügen, Asteroid entfernen und Score hinzufügen
-        if(other instanceof Asteroid || other instanceof greenAsteroid){
-            Game.getInstance().playSound(Game.Soundtype.impact );
-            Game.getInstance().getCurrentLevel().addExplosion(this.position);
-            Game.getInstance().addScore(5);
-            alive = false;
-        } else if(other instanceof Projectile){
-            alive = false;
-        }
+    public void impact() {
+        Game.getInstance().playSound(Game.Soundtype.impact );
+        Game.getInstance().getCommandBuffer().explode(this.position);
+        Game.getInstance().addScore(5);
+        alive = false;
     }
 
     /**
@@ -146,7 +130,40 @@ public class Projectile extends GameObject{
      */
     @Override
     public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+        render(renderTarget, renderStates, position);
+    }
+
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen mit der aktuellen Position.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        final Vector2f position = this.position;
+        return new Drawable() {
+            @Override
+            public void draw(RenderTarget renderTarget, RenderStates renderStates) {
+                render(renderTarget, renderStates, position);
+            }
+        };
+    }
+
+    /**
+     * Hilfsmethode zum Zeichnen des Projektils an der übergebenen Position.
+     * @param renderTarget Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     * @param position Position des Projektils
+     */
+    private void render(RenderTarget renderTarget, RenderStates renderStates, Vector2f position) {
+        // Form erst beim ersten Zeichnen erzeugen (im Headless-Modus wird nie gezeichnet)
+        if(shape == null) {
+            shape = new RectangleShape(new Vector2f(10,10));
+            shape.setOrigin(5,5);
+            shape.setFillColor(Color.TRANSPARENT);
+            shape.setOutlineColor(Color.WHITE);
+            shape.setOutlineThickness(1);
+        }
         shape.setPosition(position);
-        renderTarget.draw(shape);
+        renderTarget.draw(shape, renderStates);
     }
 }
@@ -1,13 +1,16 @@
 package de.hsmw.tkretzs1.energetic.entities;
 
+import de.hsmw.tkretzs1.energetic.collision.CollisionLayer;
 import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.ObjectType;
 import de.hsmw.tkretzs1.energetic.collision.impl.CircleCollider;
 import de.hsmw.tkretzs1.energetic.core.Game;
-import de.hsmw.tkretzs1.energetic.core.level_impl.Level1;
+import de.hsmw.tkretzs1.energetic.particles.QuadBatch;
 import de.hsmw.tkretzs1.energetic.particles.impl.AsteroidParticleSystem;
 import de.hsmw.tkretzs1.energetic.utils.Circle;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.graphics.Color;
+import org.jsfml.graphics.Drawable;
 import org.jsfml.graphics.RenderStates;
 import org.jsfml.graphics.RenderTarget;
 import org.jsfml.system.Time;
@@ -58,7 +61,9 @@ public class greenAsteroid extends GameObject{
      * @param velocity Startgeschwindigkeit des Spielobjekts
      */
     public greenAsteroid(Vector2f position, int fragments, Vector2f velocity) {
-        super(new CircleCollider(position, 50));    // Position und Radius setzen
+        super(new CircleCollider(50));    // Position und Radius setzen
+        setCollisionCategory(CollisionLayer.ASTEROID);
+        setObjectType(ObjectType.ASTEROID);
         this.mass = 75;
         this.position = position;
         this.velocity = velocity;
@@ -87,9 +92,8 @@ public class greenAsteroid extends GameObject{
         Vector2f s = Vector2f.mul(velocity, dt.asSeconds());    // zurückgelegten Weg berechnen
         position = Vector2f.add(position, s);                   // Position berechnen
 
-        // Partikelsystem und Kollisionsbox an neue Position verschieben
+        // Partikelsystem an neue Position verschieben, die Kollisionsbox liest die Position selbst
         particleSystem.setPosition(s);
-        getCollisionShape().updatePosition(position);
     }
 
 
@@ -101,27 +105,76 @@ public class greenAsteroid extends GameObject{
      */
     @Override
     public void draw(RenderTarget target, RenderStates renderStates) {
-        target.draw(particleSystem);
+        target.draw(particleSystem, renderStates);
     }
 
     /**
-     * Behandelt Kollisionsereignis.
-     * Methodenaufruf signalisiert eine eingetretene Kollision mit einem anderen Spielobjekt.
-     * @param newVelocity neue Geschwindigkeit nach der Kollision.
-     * @param other Spielobjekt, mit dem kollidiert wurde.
+     * Fügt die Fragmente dem QuadBatch hinzu. Der Asteroid besteht nur aus seinem Partikelsystem und wird damit vollständig über den QuadBatch gezeichnet.
+     * @param batch QuadBatch des Levels
+     * @param offsetX Verschiebung an die gezeichnete Position - x
+     * @param offsetY Verschiebung an die gezeichnete Position - y
      */
     @Override
-    public void resolveCollision(Vector2f newVelocity, GameObject other) {
-        if(other instanceof Asteroid || other instanceof greenAsteroid){    // Kollision mit Asteroid
-            this.velocity = newVelocity;
-        } else if(other instanceof Planet){ // Kollision mit Planet
-            this.velocity = newVelocity;
-        } else if(other instanceof Player){ // Kollision mit Spieler
-            this.velocity = newVelocity;
-        } else if(other instanceof Projectile){ // Kollision mit Projektil
-            alive = false;
-            ((Level1) Game.getInstance().getCurrentLevel()).addGameObject(new EnergyPickup(position)); // EnergyPickup spawnen
-        }
+    public void addToBatch(QuadBatch batch, float offsetX, float offsetY) {
+        particleSystem.addToBatch(batch, offsetX, offsetY);
+    }
+
+    /**
+     * Zeichnet nichts, der Asteroid wird vollständig über den QuadBatch gezeichnet.
+     * @param target Das Renderziel, auf das gezeichnet werden soll.
+     * @param renderStates aktuelle RenderStates
+     */
+    @Override
+    public void drawUnbatched(RenderTarget target, RenderStates renderStates) {
+    }
+
+    /**
+     * Erzeugt Schnappschuss zum Zeichnen.
+     * Die Darstellung des Asteroiden erfolgt über das Partikelsystem, daher genügt dessen Schnappschuss.
+     * @return Schnappschuss
+     */
+    @Override
+    public Drawable createSnapshot() {
+        return particleSystem.createSnapshot();
+    }
+
+    /**
+     * Gibt zurück, ob der Asteroid schlafen gelegt werden darf.
+     * Innerhalb des Spielfeldes wirkt keine Beschleunigung auf den Asteroiden, außerhalb wird er zurückgelenkt.
+     * @return Asteroid befindet sich innerhalb des Spielfeldes
+     */
+    @Override
+    protected boolean canSleep() {
+        Circle worldbounds = Game.getInstance().getWorldBounds();
+        return Math2D.getLength(Vector2f.sub(new Vector2f(worldbounds.position), position)) <= worldbounds.radius;
+    }
+
+    /**
+     * Setzt die Geschwindigkeit des Asteroiden, z.B. nach einem Stoß.
+     * @param velocity neue Geschwindigkeit
+     */
+    @Override
+    public void setVelocity(Vector2f velocity) {
+        this.velocity = velocity;
+    }
+
+    /**
+     * Zerstört den Asteroiden und hinterlässt an seiner Position ein EnergyPickup.
+     */
+    @Override
+    public void destroy() {
+        alive = false;
+        Game.getInstance().getCommandBuffer().spawn(new EnergyPickup(position)); // EnergyPickup am Ende des Simulationsschrittes spawnen
+    }
+
+    /**
+     * Gibt zurück, wie weit die Darstellung höchstens über die Kollisionsform hinausragt.
+     * Die Fragmente liegen innerhalb des Radius der Kollisionsform und ragen um ihre Größe darüber hinaus.
+     * @return Überstand in Pixeln
+     */
+    @Override
+    protected float getDrawMargin() {
+        return 10;
     }
 
     /**
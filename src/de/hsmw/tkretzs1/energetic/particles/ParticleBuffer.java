@@ -0,0 +1,254 @@
+package de.hsmw.tkretzs1.energetic.particles;
+
+import org.jsfml.graphics.Color;
+
+import java.util.Arrays;
+
+/**
+ * Speicher für die Partikel eines Partikelsystems.
+ * Die Eigenschaften der Partikel liegen nicht in je einem Objekt, sondern spaltenweise in primitiven Arrays (Structure of Arrays).
+ * Das Partikel i besteht aus den Einträgen x[i], y[i], vx[i] usw. Die Partikel 0 bis size()-1 sind lebendig.
+ *
+ * Ein Update ist damit eine flache Schleife über Arrays, die keine Objekte anlegt.
+ * Tote Partikel werden durch das letzte Partikel ersetzt (swap-remove), die Reihenfolge der Partikel bleibt dabei nicht erhalten.
+ * Farben werden als RGBA in einem int gespeichert, siehe pack(Color).
+ *
+ * Welche Spalten ein Partikelsystem nutzt, legt es selbst fest, nicht genutzte Spalten bleiben 0.
+ * Die Arrays werden bei Bedarf bis zur maximalen Anzahl an Partikeln vergrößert und dabei ersetzt,
+ * Referenzen auf die Arrays dürfen also nicht über einen Aufruf von add() hinweg gehalten werden.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem
+ */
+public class ParticleBuffer {
+
+    /**
+     * Anfangskapazität der Arrays
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * x-Koordinaten
+     */
+    public float[] x;
+
+    /**
+     * y-Koordinaten
+     */
+    public float[] y;
+
+    /**
+     * x-Komponenten der Geschwindigkeit
+     */
+    public float[] vx;
+
+    /**
+     * y-Komponenten der Geschwindigkeit
+     */
+    public float[] vy;
+
+    /**
+     * x-Koordinaten der Ausgangsposition, bei add() die Position
+     */
+    public float[] originX;
+
+    /**
+     * y-Koordinaten der Ausgangsposition, bei add() die Position
+     */
+    public float[] originY;
+
+    /**
+     * Größen (halbe Kantenlänge)
+     */
+    public float[] size;
+
+    /**
+     * verbleibende Lebenszeit in Sekunden
+     */
+    public float[] lifetime;
+
+    /**
+     * anfängliche Lebenszeit in Sekunden
+     */
+    public float[] maxLifetime;
+
+    /**
+     * Streuwinkel in Grad
+     */
+    public float[] spread;
+
+    /**
+     * aktuelle Farben als RGBA
+     */
+    public int[] color;
+
+    /**
+     * Ausgangsfarben als RGBA, bei add() die Farbe
+     */
+    public int[] baseColor;
+
+    /**
+     * Anzahl lebendiger Partikel
+     */
+    private int count;
+
+    /**
+     * Maximale Anzahl von Partikeln
+     */
+    private final int maxParticles;
+
+    /**
+     * Konstruktor.
+     * @param maxParticles Maximale Anzahl von Partikeln
+     */
+    public ParticleBuffer(int maxParticles) {
+        if (maxParticles < 0)
+            throw new IllegalArgumentException("maxParticles must not be negative");
+        this.maxParticles = maxParticles;
+        allocate(Math.min(maxParticles, INITIAL_CAPACITY));
+    }
+
+    /**
+     * Fügt ein neues Partikel ohne Geschwindigkeit und Lebenszeit an.
+     * Ausgangsposition und Ausgangsfarbe werden auf Position und Farbe gesetzt.
+     *
+     * @param x x-Koordinate
+     * @param y y-Koordinate
+     * @param size Größe
+     * @param color Farbe als RGBA
+     * @return Index des neuen Partikels, -1 wenn die maximale Anzahl erreicht ist
+     */
+    public int add(float x, float y, float size, int color) {
+        if (count == maxParticles)
+            return -1;
+        if (count == this.x.length)
+            allocate(Math.min(maxParticles, count * 2));
+
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        vx[i] = 0;
+        vy[i] = 0;
+        originX[i] = x;
+        originY[i] = y;
+        this.size[i] = size;
+        lifetime[i] = 0;
+        maxLifetime[i] = 0;
+        spread[i] = 0;
+        this.color[i] = color;
+        baseColor[i] = color;
+        return i;
+    }
+
+    /**
+     * Entfernt ein Partikel, indem es durch das letzte Partikel ersetzt wird.
+     * Bei einer Schleife über alle Partikel muss der Index i nach dem Entfernen erneut betrachtet werden.
+     * @param i Index des Partikels
+     */
+    public void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        originX[i] = originX[last];
+        originY[i] = originY[last];
+        size[i] = size[last];
+        lifetime[i] = lifetime[last];
+        maxLifetime[i] = maxLifetime[last];
+        spread[i] = spread[last];
+        color[i] = color[last];
+        baseColor[i] = baseColor[last];
+    }
+
+    /**
+     * Entfernt alle Partikel.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Anzahl lebendiger Partikel zurückgeben.
+     * @return Anzahl
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Maximale Anzahl von Partikeln zurückgeben.
+     * @return maximale Anzahl
+     */
+    public int getMaxParticles() {
+        return maxParticles;
+    }
+
+    /**
+     * Vergrößert alle Arrays und übernimmt die lebendigen Partikel.
+     * @param capacity neue Kapazität
+     */
+    private void allocate(int capacity) {
+        x = x == null ? new float[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new float[capacity] : Arrays.copyOf(y, capacity);
+        vx = vx == null ? new float[capacity] : Arrays.copyOf(vx, capacity);
+        vy = vy == null ? new float[capacity] : Arrays.copyOf(vy, capacity);
+        originX = originX == null ? new float[capacity] : Arrays.copyOf(originX, capacity);
+        originY = originY == null ? new float[capacity] : Arrays.copyOf(originY, capacity);
+        size = size == null ? new float[capacity] : Arrays.copyOf(size, capacity);
+        lifetime = lifetime == null ? new float[capacity] : Arrays.copyOf(lifetime, capacity);
+        maxLifetime = maxLifetime == null ? new float[capacity] : Arrays.copyOf(maxLifetime, capacity);
+        spread = spread == null ? new float[capacity] : Arrays.copyOf(spread, capacity);
+        color = color == null ? new int[capacity] : Arrays.copyOf(color, capacity);
+        baseColor = baseColor == null ? new int[capacity] : Arrays.copyOf(baseColor, capacity);
+    }
+
+    /**
+     * Packt eine Farbe als RGBA in ein int.
+     * @param color Farbe
+     * @return Farbe als RGBA
+     */
+    public static int pack(Color color) {
+        return pack(color.r, color.g, color.b, color.a);
+    }
+
+    /**
+     * Packt eine Farbe als RGBA in ein int. Die Komponenten werden auf 0 bis 255 begrenzt.
+     * @param r Rotanteil
+     * @param g Grünanteil
+     * @param b Blauanteil
+     * @param a Deckkraft
+     * @return Farbe als RGBA
+     */
+    public static int pack(int r, int g, int b, int a) {
+        return clamp(r) << 24 | clamp(g) << 16 | clamp(b) << 8 | clamp(a);
+    }
+
+    /**
+     * Ersetzt die Deckkraft einer gepackten Farbe.
+     * @param rgba Farbe als RGBA
+     * @param a neue Deckkraft
+     * @return Farbe als RGBA
+     */
+    public static int withAlpha(int rgba, int a) {
+        return (rgba & 0xFFFFFF00) | clamp(a);
+    }
+
+    /**
+     * Erzeugt aus einer gepackten Farbe wieder eine Farbe.
+     * @param rgba Farbe als RGBA
+     * @return Farbe
+     */
+    public static Color unpack(int rgba) {
+        return new Color(rgba >>> 24, (rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, rgba & 0xFF);
+    }
+
+    /**
+     * Begrenzt eine Farbkomponente auf 0 bis 255.
+     * @param value Farbkomponente
+     * @return begrenzte Farbkomponente
+     */
+    private static int clamp(int value) {
+        return value < 0 ? 0 : value > 255 ? 255 : value;
+    }
+}
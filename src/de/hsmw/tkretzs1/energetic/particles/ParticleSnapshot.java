@@ -0,0 +1,77 @@
+package de.hsmw.tkretzs1.energetic.particles;
+
+import org.jsfml.graphics.*;
+import org.jsfml.system.Vector2f;
+
+import java.util.Arrays;
+
+/**
+ * Unveränderlicher Schnappschuss eines Partikelsystems.
+ * Enthält Kopien von Position, Größe und Farbe aller Partikel. Die Vertices werden erst beim Zeichnen, also im Renderthread, erzeugt.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem
+ */
+public class ParticleSnapshot implements Drawable {
+
+    /**
+     * x-Koordinaten der Partikel
+     */
+    private final float[] x;
+
+    /**
+     * y-Koordinaten der Partikel
+     */
+    private final float[] y;
+
+    /**
+     * Größen der Partikel
+     */
+    private final float[] size;
+
+    /**
+     * Farben der Partikel als RGBA
+     */
+    private final int[] colors;
+
+    /**
+     * Transformation von den Koordinaten der Partikel in Weltkoordinaten
+     */
+    private final Transform transform;
+
+    /**
+     * Konstruktor.
+     * Kopiert den aktuellen Zustand der übergebenen Partikel.
+     * @param particles Partikel des Systems
+     * @param transform Transformation von den Koordinaten der Partikel in Weltkoordinaten
+     */
+    ParticleSnapshot(ParticleBuffer particles, Transform transform) {
+        int count = particles.size();
+        x = Arrays.copyOf(particles.x, count);
+        y = Arrays.copyOf(particles.y, count);
+        size = Arrays.copyOf(particles.size, count);
+        colors = Arrays.copyOf(particles.color, count);
+        this.transform = transform;
+    }
+
+    /**
+     * Zeichnet alle Partikel des Schnappschusses auf das übergebene RenderTarget.
+     * @param target RenderTarget auf welches die Partikel gezeichnet werden sollen.
+     * @param renderStates Einstellungen mit denen gezeichnet wird.
+     */
+    @Override
+    public void draw(RenderTarget target, RenderStates renderStates) {
+        if (x.length == 0)
+            return;
+        // Array in passender Größe direkt zeichnen, ohne Umweg über VertexArray, das beim Zeichnen erneut in ein Array kopiert wird
+        Vertex[] vertices = new Vertex[x.length * 4];
+        for (int i = 0; i < x.length; i++) {
+            Color color = ParticleBuffer.unpack(colors[i]);
+            vertices[i * 4] = new Vertex(new Vector2f(x[i] - size[i], y[i] - size[i]), color);
+            vertices[i * 4 + 1] = new Vertex(new Vector2f(x[i] + size[i], y[i] - size[i]), color);
+            vertices[i * 4 + 2] = new Vertex(new Vector2f(x[i] + size[i], y[i] + size[i]), color);
+            vertices[i * 4 + 3] = new Vertex(new Vector2f(x[i] - size[i], y[i] + size[i]), color);
+        }
+        target.draw(vertices, PrimitiveType.QUADS, ParticleSystem.transformed(renderStates, transform));
+    }
+}
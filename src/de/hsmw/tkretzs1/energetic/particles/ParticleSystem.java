@@ -4,31 +4,69 @@ import org.jsfml.graphics.*;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Basisklasse für Partikelsystem.
- * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion. Hält Referenzen zu allen Partikeln des Systems.
+ * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion. Die Partikel des Systems liegen in einem ParticleBuffer.
  *
  * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.particles.ParticleBuffer
  */
 public abstract class ParticleSystem implements Drawable
 {
+    /**
+     * unsichtbarer Eckpunkt für Partikelplätze ohne Partikel
+     */
+    static final Vertex EMPTY_VERTEX = new Vertex(Vector2f.ZERO, Color.TRANSPARENT);
+
     /**
      * Maximale Anzahl von Partikeln im System.
      */
     protected int maxParticles;
 
     /**
-     * Liste mit Referenzen zu allen Partikeln.
+     * Speicher aller Partikel.
+     */
+    protected final ParticleBuffer particles;
+
+    /**
+     * Eckpunkte aller Partikel, ein Partikel wird durch ein Quadrat mit 4 Eckpunkten beschrieben.
+     * Das Array wird über alle Frames wiederverwendet und nur vergrößert, wenn die Kapazität des ParticleBuffers wächst.
+     * Plätze ohne Partikel werden mit unsichtbaren Eckpunkten gefüllt, da JSFML immer das gesamte Array zeichnet.
+     */
+    private Vertex[] vertices;
+
+    /**
+     * Position und Größe, aus denen die Eckpunkte eines Partikelplatzes zuletzt berechnet wurden
      */
-    protected List<Particle> particleList;
+    private float[] vertexX, vertexY, vertexSize;
 
     /**
-     * VertexArray zum optimierten Zeichnen aller Partikel.
+     * Farbe als RGBA, aus der die Eckpunkte eines Partikelplatzes zuletzt berechnet wurden
      */
-    private VertexArray vertexArray;
+    private int[] vertexColor;
+
+    /**
+     * Anzahl der Partikelplätze, deren Eckpunkte beim letzten Zeichnen ein Partikel dargestellt haben
+     */
+    private int vertexCount;
+
+    /**
+     * Eckpunkte in Weltkoordinaten für den QuadBatch, um den Ursprung und eine Verschiebung versetzt.
+     * Werden nur neu angelegt, wenn sich die Verschiebung oder die Eckpunkte seit dem letzten Hinzufügen geändert haben.
+     */
+    private Vertex[] batchVertices = new Vertex[0];
+
+    /**
+     * Verschiebung, mit der die Eckpunkte für den QuadBatch zuletzt berechnet wurden - x und y
+     */
+    private float batchX, batchY;
+
+    /**
+     * Flag ob sich die Eckpunkte seit der letzten Berechnung der Eckpunkte für den QuadBatch geändert haben
+     */
+    private boolean verticesChanged = true;
 
     /**
      * Konstruktor.
@@ -38,8 +76,12 @@ public abstract class ParticleSystem implements Drawable
      */
     public ParticleSystem(int maxParticles)
     {
-        this.particleList = new ArrayList<>();
-        this.vertexArray = new VertexArray(PrimitiveType.QUADS);    // legt neues VertexArray an - ein Partikel wird durch ein Quadrat mit 4 Eckpunkten beschrieben.
+        this.particles = new ParticleBuffer(maxParticles);
+        this.vertices = new Vertex[0];
+        this.vertexX = new float[0];
+        this.vertexY = new float[0];
+        this.vertexSize = new float[0];
+        this.vertexColor = new int[0];
         this.maxParticles = maxParticles;
     }
 
@@ -70,38 +112,159 @@ public abstract class ParticleSystem implements Drawable
     public void draw(RenderTarget target, RenderStates renderStates)
     {
         computeVertices();
-        target.draw(this.vertexArray);
+        if (this.vertexCount > 0)
+            target.draw(this.vertices, PrimitiveType.QUADS, transformed(renderStates, getTransform()));
+    }
+
+    /**
+     * Fügt alle Partikel an ihrer aktuellen Position dem QuadBatch hinzu, statt sie selbst zu zeichnen.
+     *
+     * @param batch QuadBatch, mit dem die Partikel gezeichnet werden
+     * @see #addToBatch(QuadBatch, float, float)
+     */
+    public void addToBatch(QuadBatch batch)
+    {
+        addToBatch(batch, 0, 0);
+    }
+
+    /**
+     * Fügt alle Partikel um die übergebene Verschiebung versetzt dem QuadBatch hinzu, statt sie selbst zu zeichnen, z.B. an der interpolierten Position.
+     * Liegen die Partikel in Weltkoordinaten und wird nicht verschoben (Explosionen, Triebwerk), werden die Eckpunkte nur als Referenzen übernommen.
+     * Sonst werden sie um Ursprung und Verschiebung versetzt in Weltkoordinaten umgerechnet. Das geschieht nur, wenn sich die Verschiebung oder die Partikel
+     * seit dem letzten Aufruf geändert haben, ruhende Asteroiden kosten daher nichts, bewegte einen neuen Eckpunkt je Ecke und Frame.
+     *
+     * @param batch QuadBatch, mit dem die Partikel gezeichnet werden
+     * @param offsetX Verschiebung - x
+     * @param offsetY Verschiebung - y
+     */
+    public void addToBatch(QuadBatch batch, float offsetX, float offsetY)
+    {
+        computeVertices();
+        Vector2f origin = getOrigin();
+        float x = origin.x + offsetX;
+        float y = origin.y + offsetY;
+        if (x == 0 && y == 0)
+        {
+            batch.add(this.vertices, this.vertexCount * 4);
+            return;
+        }
+
+        int count = this.vertexCount * 4;
+        if (this.verticesChanged || x != this.batchX || y != this.batchY || this.batchVertices.length < count)
+        {
+            if (this.batchVertices.length < count)
+                this.batchVertices = new Vertex[this.vertices.length];
+            for (int i = 0; i < count; i++)
+            {
+                Vertex vertex = this.vertices[i];
+                this.batchVertices[i] = new Vertex(new Vector2f(vertex.position.x + x, vertex.position.y + y), vertex.color);
+            }
+            this.batchX = x;
+            this.batchY = y;
+            this.verticesChanged = false;
+        }
+        batch.add(this.batchVertices, count);
+    }
+
+    /**
+     * Erzeugt einen unveränderlichen Schnappschuss aller Partikel.
+     * Der Schnappschuss kann in einem anderen Thread gezeichnet werden, während das Partikelsystem weiter simuliert wird.
+     * @return Schnappschuss
+     */
+    public ParticleSnapshot createSnapshot()
+    {
+        return new ParticleSnapshot(this.particles, getTransform());
+    }
+
+    /**
+     * Gibt den Ursprung der Koordinaten der Partikel in Weltkoordinaten zurück.
+     * Standardmäßig liegen die Partikel bereits in Weltkoordinaten. Partikelsysteme, deren Partikel sich nicht gegeneinander bewegen,
+     * können die Partikel in lokalen Koordinaten halten und nur den Ursprung verschieben, die Vertices bleiben dann unverändert.
+     * @return Ursprung, Vector2f.ZERO für Partikel in Weltkoordinaten
+     */
+    protected Vector2f getOrigin()
+    {
+        return Vector2f.ZERO;
+    }
+
+    /**
+     * Gibt die Transformation von den Koordinaten der Partikel in Weltkoordinaten zurück, eine Verschiebung an den Ursprung.
+     * @return Transformation, Transform.IDENTITY für Partikel in Weltkoordinaten
+     */
+    protected Transform getTransform()
+    {
+        Vector2f origin = getOrigin();
+        if (origin.x == 0 && origin.y == 0)
+            return Transform.IDENTITY;
+        return Transform.translate(Transform.IDENTITY, origin.x, origin.y);
+    }
+
+    /**
+     * Verknüpft die Transformation der RenderStates mit einer weiteren Transformation.
+     * @param renderStates Einstellungen mit denen gezeichnet wird.
+     * @param transform Transformation der Partikel
+     * @return Einstellungen mit verknüpfter Transformation
+     */
+    static RenderStates transformed(RenderStates renderStates, Transform transform)
+    {
+        if (transform == Transform.IDENTITY)
+            return renderStates;
+        return new RenderStates(renderStates, Transform.combine(renderStates.transform, transform));
     }
 
     /**
      * Berechnung der Vertices aus den aktuellen Positionen der Partikel.
+     * Da Vertices in JSFML unveränderlich sind, werden nur die Eckpunkte der Partikel neu angelegt, deren Position, Größe oder Farbe
+     * sich seit dem letzten Zeichnen geändert hat. Bei den Sternen des Hintergrundes sind das in den meisten Frames nur wenige.
      */
     private void computeVertices()
     {
-        // VertexArray leeren und jedes Partikel mit aktueller Position neu einfügen.
-        this.vertexArray.clear();
-        for (Particle particle : this.particleList)
+        int count = this.particles.size();
+        if (this.vertices.length < count * 4)
+            grow(this.particles.x.length);
+
+        float[] x = this.particles.x, y = this.particles.y, size = this.particles.size;
+        int[] color = this.particles.color;
+        for (int i = 0; i < count; i++)
+        {
+            // Eckpunkte nur neu anlegen, wenn sich das Partikel auf diesem Platz geändert hat
+            if (i < this.vertexCount && x[i] == this.vertexX[i] && y[i] == this.vertexY[i] && size[i] == this.vertexSize[i] && color[i] == this.vertexColor[i])
+                continue;
+
+            Color c = i < this.vertexCount && color[i] == this.vertexColor[i] ? this.vertices[i * 4].color : ParticleBuffer.unpack(color[i]);
+            float half = size[i];
+            this.vertices[i * 4] = new Vertex(new Vector2f(x[i] - half, y[i] - half), c);
+            this.vertices[i * 4 + 1] = new Vertex(new Vector2f(x[i] + half, y[i] - half), c);
+            this.vertices[i * 4 + 2] = new Vertex(new Vector2f(x[i] + half, y[i] + half), c);
+            this.vertices[i * 4 + 3] = new Vertex(new Vector2f(x[i] - half, y[i] + half), c);
+            this.vertexX[i] = x[i];
+            this.vertexY[i] = y[i];
+            this.vertexSize[i] = half;
+            this.vertexColor[i] = color[i];
+            this.verticesChanged = true;
+        }
+
+        // Plätze von inzwischen entfernten Partikeln leeren
+        if (count < this.vertexCount)
         {
-            Vector2f half = new Vector2f(particle.size, particle.size);
-            Vector2f pos = particle.position;
-            Color c = particle.color;
-
-            addVertex(pos.x - half.x, pos.y - half.y, c);
-            addVertex(pos.x + half.x, pos.y - half.y, c);
-            addVertex(pos.x + half.x, pos.y + half.y, c);
-            addVertex(pos.x - half.x, pos.y + half.y, c);
+            Arrays.fill(this.vertices, count * 4, this.vertexCount * 4, EMPTY_VERTEX);
+            this.verticesChanged = true;
         }
+        this.vertexCount = count;
     }
 
     /**
-     * Hilfsmethode zum einfügen von Vertices in das Vertexarray
-     * @param worldX x-Koordinate
-     * @param worldY y-Koordinate
-     * @param color Farbe
+     * Vergrößert das Array der Eckpunkte und übernimmt die bisherigen Eckpunkte, neue Plätze werden mit unsichtbaren Eckpunkten gefüllt.
+     * @param capacity neue Anzahl an Partikelplätzen
      */
-    private void addVertex(float worldX, float worldY, Color color)
+    private void grow(int capacity)
     {
-        Vertex vertex = new Vertex(new Vector2f(worldX, worldY), color);
-        this.vertexArray.add(vertex);
+        int old = this.vertices.length;
+        this.vertices = Arrays.copyOf(this.vertices, capacity * 4);
+        Arrays.fill(this.vertices, old, this.vertices.length, EMPTY_VERTEX);
+        this.vertexX = Arrays.copyOf(this.vertexX, capacity);
+        this.vertexY = Arrays.copyOf(this.vertexY, capacity);
+        this.vertexSize = Arrays.copyOf(this.vertexSize, capacity);
+        this.vertexColor = Arrays.copyOf(this.vertexColor, capacity);
     }
 }
@@ -0,0 +1,94 @@
+package de.hsmw.tkretzs1.energetic.particles;
+
+import org.jsfml.graphics.*;
+
+import java.util.Arrays;
+
+/**
+ * Sammelt die Quadrate mehrerer Partikelsysteme in einem Vertex-Array, das mit einem einzigen Aufruf gezeichnet wird.
+ * Alle gesammelten Partikelsysteme werden mit denselben RenderStates gezeichnet. Statt eines Aufrufes je Explosion genügt so einer je QuadBatch.
+ *
+ * Das Level sammelt so die Partikel aller Explosionen in einem und die Fragmente der Asteroiden zusammen mit dem Triebwerk in einem zweiten QuadBatch.
+ * Eckpunkte in Weltkoordinaten ohne Verschiebung (Explosionen, ruhendes Triebwerk) werden als Referenzen übernommen. Partikelsysteme in lokalen Koordinaten
+ * wie die Asteroiden und an die interpolierte Position verschobene Partikelsysteme legen ihre Eckpunkte in Weltkoordinaten an, allerdings nur, wenn sie sich bewegt haben.
+ *
+ * Der QuadBatch wird in jedem Frame mit clear() geleert und neu gefüllt, das Array wird dabei wiederverwendet und nur bei Bedarf vergrößert.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem#addToBatch(QuadBatch, float, float)
+ */
+public class QuadBatch implements Drawable {
+
+    /**
+     * Anfangskapazität in Eckpunkten
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * gesammelte Eckpunkte, Plätze ab count sind unsichtbar
+     */
+    private Vertex[] vertices = new Vertex[0];
+
+    /**
+     * Anzahl der im aktuellen Frame gesammelten Eckpunkte
+     */
+    private int count;
+
+    /**
+     * Anzahl der Plätze, die beim letzten Zeichnen sichtbare Eckpunkte enthielten
+     */
+    private int drawnCount;
+
+    /**
+     * Entfernt alle gesammelten Eckpunkte, z.B. zu Beginn eines Frames.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Übernimmt Eckpunkte in Weltkoordinaten.
+     * @param source Eckpunkte, je 4 bilden ein Quadrat
+     * @param length Anzahl der zu übernehmenden Eckpunkte
+     */
+    void add(Vertex[] source, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(source, 0, vertices, count, length);
+        count += length;
+    }
+
+    /**
+     * Anzahl der gesammelten Quadrate zurückgeben.
+     * @return Anzahl
+     */
+    public int getQuadCount() {
+        return count / 4;
+    }
+
+    /**
+     * Zeichnet alle gesammelten Quadrate mit einem Aufruf.
+     * @param target RenderTarget auf welches gezeichnet werden soll.
+     * @param renderStates Einstellungen mit denen gezeichnet wird.
+     */
+    @Override
+    public void draw(RenderTarget target, RenderStates renderStates) {
+        // Plätze, die im letzten Frame noch belegt waren, unsichtbar machen - JSFML zeichnet immer das gesamte Array
+        if (count < drawnCount)
+            Arrays.fill(vertices, count, drawnCount, ParticleSystem.EMPTY_VERTEX);
+        drawnCount = count;
+        if (count > 0)
+            target.draw(vertices, PrimitiveType.QUADS, renderStates);
+    }
+
+    /**
+     * Vergrößert das Array bei Bedarf auf mindestens die übergebene Anzahl an Eckpunkten.
+     * @param capacity benötigte Anzahl an Eckpunkten
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= vertices.length)
+            return;
+        int old = vertices.length;
+        vertices = Arrays.copyOf(vertices, Math.max(capacity, Math.max(INITIAL_CAPACITY, old * 2)));
+        Arrays.fill(vertices, old, vertices.length, ParticleSystem.EMPTY_VERTEX);
+    }
+}
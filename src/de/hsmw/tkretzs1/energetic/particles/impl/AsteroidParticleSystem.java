@@ -1,20 +1,20 @@
 package de.hsmw.tkretzs1.energetic.particles.impl;
 
-import de.hsmw.tkretzs1.energetic.particles.Particle;
+import de.hsmw.tkretzs1.energetic.particles.ParticleBuffer;
 import de.hsmw.tkretzs1.energetic.particles.ParticleSystem;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.graphics.Color;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 
-import java.util.Iterator;
-
 /**
  * Partikelsystem für Asteroiden.
- * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für das Spielobjekt Asteroid und greenAsteroid. Hält Referenzen zu allen Partikeln des Systems.
+ * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für das Spielobjekt Asteroid und greenAsteroid.
+ * Die Partikel (Fragmente) bewegen sich nicht gegeneinander. Sie liegen daher in lokalen Koordinaten um den Mittelpunkt des Asteroiden,
+ * ihre Vertices werden nur einmal berechnet und beim Zeichnen über eine Transformation an die aktuelle Position verschoben,
+ * für den QuadBatch des Levels nur bei Bewegung in Weltkoordinaten umgerechnet.
  *
  * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem
- * @see de.hsmw.tkretzs1.energetic.particles.impl.AsteroidParticle
  *
  * @author Tom Kretzschmar
  */
@@ -58,14 +58,14 @@ public class AsteroidParticleSystem extends ParticleSystem {
     }
 
     /**
-     * Erzeugt zufällige Partikel innerhalb des Radius und füllt das Partikelsystem.
+     * Erzeugt zufällige Partikel innerhalb des Radius um den lokalen Ursprung und füllt das Partikelsystem.
      */
     private void fill(){
         for (int i = 0; i < fragments; i++) {
             Color temp = Color.mul(color, Math2D.random()); // Farbvariation
 
-            AsteroidParticle p = new AsteroidParticle(Vector2f.add(Math2D.rndPointOnDisc(radius),position), temp, 10); // Erzeugen an zufälliger Position
-            particleList.add(p);
+            Vector2f p = Math2D.rndPointOnDisc(radius); // Erzeugen an zufälliger Position
+            particles.add(p.x, p.y, 10, ParticleBuffer.pack(temp));
         }
     }
 
@@ -81,21 +81,21 @@ public class AsteroidParticleSystem extends ParticleSystem {
     /**
      * Hilfsmethode zum aktualisieren der Position des gesamten Partikelsystems.
      * Wird hier benötigt, da sich die Partikel nicht eigenständig Bewegen sondern immer im gleichen Abstand zueiander bleiben.
-     * Entfernt Partikel, wenn diese tot sind.
+     * Verschiebt nur den Ursprung, die Partikel selbst bleiben in lokalen Koordinaten unverändert.
      *
      * @param s zurückgelegt
      */
     public void setPosition(Vector2f s){
         this.position = Vector2f.add(position, s);
-        Iterator<Particle> it = particleList.iterator();
-        AsteroidParticle particle;
-        while(it.hasNext()){
-            particle = (AsteroidParticle)it.next();
-            if(particle.isAlive())
-                particle.setPosition(s);
-            else
-                it.remove();
-        }
+    }
+
+    /**
+     * Gibt die aktuelle Position als Ursprung der Partikel zurück.
+     * @return Ursprung
+     */
+    @Override
+    protected Vector2f getOrigin() {
+        return position;
     }
 
     /**
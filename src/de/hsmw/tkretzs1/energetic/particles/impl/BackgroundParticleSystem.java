@@ -1,28 +1,38 @@
 package de.hsmw.tkretzs1.energetic.particles.impl;
 
 import de.hsmw.tkretzs1.energetic.core.Game;
-import de.hsmw.tkretzs1.energetic.particles.Particle;
+import de.hsmw.tkretzs1.energetic.particles.ParticleBuffer;
 import de.hsmw.tkretzs1.energetic.particles.ParticleSystem;
+import de.hsmw.tkretzs1.energetic.utils.Circle;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.graphics.Color;
 import org.jsfml.graphics.IntRect;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 
-import java.util.Iterator;
-
 /**
  * Partikelsystem für den Hintergrund des Spielfeldes.
- * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für die Darstellung der Sterne im Hintergrund. Hält Referenzen zu allen Partikeln des Systems.
+ * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für die Darstellung der Sterne im Hintergrund.
+ * Jeder Stern merkt sich seine Ausgangsposition und Ausgangsfarbe, damit er nach dem Wegschieben durch den Spieler zurückkehren
+ * und außerhalb des Spielfeldes rot eingefärbt werden kann.
  *
  * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem
- * @see de.hsmw.tkretzs1.energetic.particles.impl.BackgroundParticle
  *
  * @author Tom Kretzschmar
  */
 public class BackgroundParticleSystem extends ParticleSystem
 {
 
+    /**
+     * minimaler Abstand der Sterne zum Spieler
+     */
+    private static final float DISTANCE = 150.0F;
+
+    /**
+     * Farbe der Sterne außerhalb des Spielfeldes als RGBA
+     */
+    private static final int OUTSIDE_COLOR = ParticleBuffer.pack(Color.RED);
+
     /**
      * aktuelle Position des Spieler-Raumschiffs
      */
@@ -73,33 +83,88 @@ public class BackgroundParticleSystem extends ParticleSystem
         for (int i = 0; i < this.maxParticles; i++)
         {
             Vector2f position = new Vector2f(Math2D.randomInRange(viewBounds.left, viewBounds.left + viewBounds.width), Math2D.randomInRange(viewBounds.top, viewBounds.top + viewBounds.height));
-            BackgroundParticle particle = new BackgroundParticle(position, new Color(Color.mul(this.color, Math2D.random(255)), (int)(Math2D.random(140))), this.size * Math2D.random(), 150.0F); // neues Partikel mit zufälliger Farbe ausgehend von der übergebenen Farbe
-            this.particleList.add(particle);
+            Color color = new Color(Color.mul(this.color, Math2D.random(255)), (int)(Math2D.random(140))); // zufällige Farbe ausgehend von der übergebenen Farbe
+            this.particles.add(position.x, position.y, this.size * Math2D.random(), ParticleBuffer.pack(color));
         }
     }
 
     /**
      * Update-Methode.
-     * Aktualisiert alle Partikel und entfernt diese, wenn tot.
+     * Verschiebt die Sterne in Bezug auf die sichtbare Spielfläche, die Position des Spielers und färbt sie in Bezug auf die Spielflächenbegrenzung.
+     * Dadurch muss nicht das gesamte Spielfeld, sondern nur der sichtbare Bereich gefüllt werden, was zu einer erheblichen Minimierung der Anzahl der Partikel führt.
+     * Sterne die den Bildschirmausschnitt verlassen, werden auf die andere Seite verschoben und dort neu gezeichnet. Sterne die außerhalb des Spielfeldes sind werden rot gezeichnet
+     * und Sterne die zu nahe am Spieler sind, von diesem weggeschoben.
      *
      * @param dt DeltaTime - Zeit seit letztem Aufruf
      */
     @Override
     public void update(Time dt)
     {
-        Iterator<Particle> it = this.particleList.iterator();
-        while (it.hasNext())
+        float seconds = dt.asSeconds();
+        IntRect viewBounds = Game.getInstance().getViewBounds();
+        Circle worldBounds = Game.getInstance().getWorldBounds();
+        float worldX = worldBounds.position.x;
+        float worldY = worldBounds.position.y;
+        float worldRadiusSq = (float) worldBounds.radius * worldBounds.radius;
+
+        float[] x = this.particles.x, y = this.particles.y, originX = this.particles.originX, originY = this.particles.originY;
+        int[] colors = this.particles.color, baseColors = this.particles.baseColor;
+        for (int i = 0; i < this.particles.size(); i++)
         {
-            BackgroundParticle particle = (BackgroundParticle)it.next();
-            if (particle.isAlive().booleanValue())
+            // Verschieben an den Bildschirmrändern
+            boolean wrapped = false;
+            if (x[i] < viewBounds.left)
+            {
+                x[i] += viewBounds.width;
+                wrapped = true;
+            }
+            else if (x[i] > viewBounds.left + viewBounds.width)
             {
-                particle.setPlayerPosition(this.playerPosition);
-                particle.update(dt);
+                x[i] -= viewBounds.width;
+                wrapped = true;
             }
-            else
+            if (y[i] < viewBounds.top)
             {
-                it.remove();
+                y[i] += viewBounds.height;
+                wrapped = true;
             }
+            else if (y[i] > viewBounds.top + viewBounds.height)
+            {
+                y[i] -= viewBounds.height;
+                wrapped = true;
+            }
+            if (wrapped)
+            {
+                originX[i] = x[i];
+                originY[i] = y[i];
+            }
+
+            // Bewegungsrichtung berechnen
+            float dx = x[i] - this.playerPosition.x;
+            float dy = y[i] - this.playerPosition.y;
+            float length = (float) Math.sqrt(dx * dx + dy * dy);
+
+            // Wenn kleiner der Distanz zum Spieler - Wegschieben
+            if (length < DISTANCE)
+            {
+                if (length != 0)
+                {
+                    float push = 30 / length * seconds * 1000 / length;   // Wegschieben erfolgt langsam, in einer beschleunigten Bewegung
+                    x[i] += dx * push;
+                    y[i] += dy * push;
+                }
+            }
+            // Wenn größer - zurück zur Originalposition
+            else if (x[i] != originX[i] || y[i] != originY[i])
+            {
+                x[i] += (originX[i] - x[i]) * 5 * seconds;
+                y[i] += (originY[i] - y[i]) * 5 * seconds;
+            }
+
+            // Wenn außerhalb des Spielfeldes - rot einfärben
+            float wx = x[i] - worldX;
+            float wy = y[i] - worldY;
+            colors[i] = wx * wx + wy * wy > worldRadiusSq ? OUTSIDE_COLOR : baseColors[i];
         }
     }
 
@@ -1,20 +1,18 @@
 package de.hsmw.tkretzs1.energetic.particles.impl;
 
-import de.hsmw.tkretzs1.energetic.particles.Particle;
+import de.hsmw.tkretzs1.energetic.particles.ParticleBuffer;
 import de.hsmw.tkretzs1.energetic.particles.ParticleSystem;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
 import org.jsfml.graphics.Color;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 
-import java.util.Iterator;
-
 /**
  * Partikelsystem für das Triebwerk des Spielerraumschiffs.
- * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für die Darstellung des Triebwerks. Hält Referenzen zu allen Partikeln des Systems.
+ * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für die Darstellung des Triebwerks.
+ * Jedes Partikel hat Geschwindigkeit, Streuwinkel und Lebenszeit und verblasst mit abnehmender Lebenszeit.
  *
  * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem
- * @see de.hsmw.tkretzs1.energetic.particles.impl.EngineParticle
  *
  * @author Tom Kretzschmar
  */
@@ -66,9 +64,9 @@ public class EngineParticleSystem extends ParticleSystem{
     private int respawnCount;
 
     /**
-     * Farbe der Partikel
+     * Farbe der Partikel als RGBA
      */
-    private Color color;
+    private int color;
 
     /**
      * Simpler Konstuktor.
@@ -108,7 +106,7 @@ public class EngineParticleSystem extends ParticleSystem{
         this.maxSpread = maxSpread;
         this.lifetime = lifetime;
         this.respawnCount = respawnCount;
-        this.color = color;
+        this.color = ParticleBuffer.pack(color);
     }
 
     /**
@@ -120,33 +118,61 @@ public class EngineParticleSystem extends ParticleSystem{
      */
     @Override
     public void update(Time dt) {
+        float seconds = dt.asSeconds();
+
         // wenn Kapazität nicht überschritten - Partikel emittieren
-        if(particleList.size()<maxParticles){
+        if(particles.size()<maxParticles){
 
             // Anzahl zu emittierender Partikel anhand Partikel pro Sekunde und DeltaTime berechnen
-            for (int i = 0; i < respawnCount*dt.asSeconds(); i++) {
+            for (int i = 0; i < respawnCount*seconds; i++) {
 
                 // Streuwinkel zufällig bestimmen
                 float t_spread = (float) Math.random()*maxSpread-(maxSpread/2);
 
                 // Geschwindigkeit zufällig bestimmen
-                Vector2f t_velocity = Math2D.rotate(new Vector2f((float) Math.random() * velocity / 2 *Math2D.randomInRange(0.9f,1.1f) + velocity * 0.2f*Math2D.randomInRange(0.9f,1.1f), 0), angle);
-
-                // Neues Partikel erzeugen und hinzufügen
-                EngineParticle p = new EngineParticle(position, t_velocity, t_spread, color, particleSize, lifetime);
-                particleList.add(p);
+                float t_velocity = (float) Math.random() * velocity / 2 *Math2D.randomInRange(0.9f,1.1f) + velocity * 0.2f*Math2D.randomInRange(0.9f,1.1f);
+
+                // Neues Partikel erzeugen, Geschwindigkeitsvektor um Emitterwinkel und Streuwinkel drehen
+                int p = particles.add(position.x, position.y, particleSize, color);
+                if (p < 0)
+                    break;
+                double rad = Math.toRadians(angle + t_spread);
+                particles.vx[p] = (float) (t_velocity * Math.cos(rad));
+                particles.vy[p] = (float) (t_velocity * Math.sin(rad));
+                particles.spread[p] = t_spread;
+                particles.lifetime[p] = lifetime.asSeconds();
+                particles.maxLifetime[p] = lifetime.asSeconds();
             }
         }
 
         // Partikel updaten und löschen wenn nötig
-        Iterator<Particle> it = particleList.iterator();
-        Particle particle;
-        while(it.hasNext()){
-            particle = it.next();
-            if(particle.isAlive())
-                particle.update(dt);
-            else
-                it.remove();
+        float[] x = particles.x, y = particles.y, vx = particles.vx, vy = particles.vy;
+        float[] life = particles.lifetime, maxLife = particles.maxLifetime, spread = particles.spread;
+        int[] colors = particles.color;
+        int i = 0;
+        while (i < particles.size()) {
+            life[i] -= seconds;  // aktuelle Lebenszeit berechnen
+            if (life[i] <= 0) {  // wenn Lebenszeit abgelaufen: Partikel wird entfernt, an Stelle i steht danach das letzte Partikel
+                particles.remove(i);
+                continue;
+            }
+
+            // s = v * dt + s0 | Position berechnen
+            x[i] += vx[i] * seconds;
+            y[i] += vy[i] * seconds;
+
+            float ratio = life[i] / maxLife[i];  // Anteil der Lebenszeit für Farbveränderung
+            colors[i] = ParticleBuffer.withAlpha(colors[i], (int) (255 * ratio));
+            if (spread[i] != 0 && ratio < 0.5) {   // Streuwinkel nach halber Lebenszeit umkehren um Form des Partikelsystems zu erreichen
+                double rad = Math.toRadians(-spread[i] * 2);
+                float cos = (float) Math.cos(rad);
+                float sin = (float) Math.sin(rad);
+                float tx = vx[i];
+                vx[i] = tx * cos - vy[i] * sin;
+                vy[i] = tx * sin + vy[i] * cos;
+                spread[i] = 0;  // Streuwinkel nur einmal umkehren
+            }
+            i++;
         }
     }
 
@@ -1,25 +1,32 @@
 package de.hsmw.tkretzs1.energetic.particles.impl;
 
-import de.hsmw.tkretzs1.energetic.particles.Particle;
+import de.hsmw.tkretzs1.energetic.particles.ParticleBuffer;
 import de.hsmw.tkretzs1.energetic.particles.ParticleSystem;
 import de.hsmw.tkretzs1.energetic.utils.Math2D;
-import org.jsfml.graphics.Color;
 import org.jsfml.system.Time;
 import org.jsfml.system.Vector2f;
 
-import java.util.Iterator;
-
 /**
  * Partikelsystem für Explosionen.
- * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für die Darstellung der Explosionen bei Zerstörung eines Asteroiden. Hält Referenzen zu allen Partikeln des Systems.
+ * Repräsentiert ein Partikelsystem mit Update- und Zeichenfunktion für die Darstellung der Explosionen bei Zerstörung eines Asteroiden.
+ * Jedes Partikel fliegt mit konstanter Geschwindigkeit und wird nach Ablauf seiner Lebenszeit entfernt.
  *
  * @see de.hsmw.tkretzs1.energetic.particles.ParticleSystem
- * @see de.hsmw.tkretzs1.energetic.particles.impl.EngineParticle
  *
  * @author Tom Kretzschmar
  */
 public class ExplosionParticleSystem extends ParticleSystem {
 
+    /**
+     * Lebenszeit der einzelnen Partikel in Sekunden
+     */
+    private static final float PARTICLE_LIFETIME = 0.3f;
+
+    /**
+     * maximale Entfernung eines Partikels vom Emitter: höchste Geschwindigkeit * Lebenszeit + Größe
+     */
+    private static final float REACH = 220 * PARTICLE_LIFETIME + 4.0f;
+
     /**
      * Anzahl der Partikel des Systems, die pro Sekunde emittiert werden
      */
@@ -72,21 +79,43 @@ public class ExplosionParticleSystem extends ParticleSystem {
         if(lifetime.asSeconds()>0.8) {
             for (int i = 0; i < respawnCount * dt.asSeconds(); i++) {
                 Vector2f velocity = Math2D.rndPointOnDonut(150, 220); // Zufällige Geschwindigkeit bestimmen
-                particleList.add(new ExplosionParticle(position, new Color(255,(int)Math2D.randomInRange(50,255),1), 4.0f, velocity)); // neues Partikel erzeugen und hinzufügen
+                int p = particles.add(position.x, position.y, 4.0f, ParticleBuffer.pack(255, (int) Math2D.randomInRange(50, 255), 1, 255)); // neues Partikel erzeugen und hinzufügen
+                if (p < 0)
+                    break;
+                particles.vx[p] = velocity.x;
+                particles.vy[p] = velocity.y;
+                particles.lifetime[p] = PARTICLE_LIFETIME;
             }
         }
 
         // Partikel updaten und löschen wenn nötig
-        Iterator<Particle> it = particleList.iterator();
-        Particle particle;
-        while(it.hasNext()){
-            particle = it.next();
-            if(particle.isAlive())
-                particle.update(dt);
-            else
-                it.remove();
+        float seconds = dt.asSeconds();
+        float[] x = particles.x, y = particles.y, vx = particles.vx, vy = particles.vy, life = particles.lifetime;
+        int i = 0;
+        while (i < particles.size()) {
+            life[i] -= seconds; // aktuelle Lebenszeit berechnen
+            if (life[i] < 0) {  // wenn Lebenszeit < 0: Partikel wird entfernt, an Stelle i steht danach das letzte Partikel
+                particles.remove(i);
+                continue;
+            }
+
+            // s = v * dt + s0 | Position berechnen
+            x[i] += vx[i] * seconds;
+            y[i] += vy[i] * seconds;
+            i++;
         }
+    }
 
+    /**
+     * Prüft, ob die Partikel der Explosion das übergebene Rechteck überlappen können, z.B. um nicht sichtbare Explosionen nicht zu zeichnen.
+     * @param minX linke Kante
+     * @param minY obere Kante
+     * @param maxX rechte Kante
+     * @param maxY untere Kante
+     * @return Partikel überlappen das Rechteck möglicherweise
+     */
+    public boolean isVisibleIn(float minX, float minY, float maxX, float maxY) {
+        return position.x + REACH >= minX && position.x - REACH <= maxX && position.y + REACH >= minY && position.y - REACH <= maxY;
     }
 
     /**
@@ -0,0 +1,101 @@
+package de.hsmw.tkretzs1.energetic.physics;
+
+import de.hsmw.tkretzs1.energetic.collision.GameObject;
+import de.hsmw.tkretzs1.energetic.collision.impl.Quadtree;
+import org.jsfml.graphics.IntRect;
+import org.jsfml.system.Time;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gravitationsfeld zwischen den Spielobjekten eines Levels.
+ * Alle Spielobjekte ab einer Mindestmasse (der Planet und schwere Asteroiden) ziehen alle beweglichen Spielobjekte an.
+ * Die anziehenden Objekte werden je Simulationsschritt in einen Quadtree eingefügt, dessen Knoten Gesamtmasse und Schwerpunkt halten.
+ * Die Anziehung wird nach Barnes-Hut angenähert, sodass auch Hunderte Körper in O(n log n) statt O(n²) simuliert werden.
+ *
+ * @author Tom Kretzschmar
+ * @see de.hsmw.tkretzs1.energetic.collision.impl.Quadtree
+ */
+public class GravityField {
+
+    /**
+     * Genauigkeit der Barnes-Hut-Näherung: Verhältnis von Knotengröße zu Abstand, ab dem ein Knoten als ein Körper gerechnet wird
+     */
+    private static final float THETA = 0.5f;
+
+    /**
+     * Glättungslänge, entspricht etwa dem Radius eines Asteroiden. Verhindert unbegrenzte Beschleunigung bei sehr kleinen Abständen.
+     */
+    private static final float SOFTENING = 50;
+
+    /**
+     * Quadtree über dem Spielfeld, wird je Simulationsschritt mit den anziehenden Objekten neu befüllt
+     */
+    private final Quadtree quadtree;
+
+    /**
+     * Gravitationskonstante in Pixel³ / (Masse * Sekunde²)
+     */
+    private final float gravitationalConstant;
+
+    /**
+     * Masse, ab der ein Spielobjekt andere anzieht
+     */
+    private final int minimumMass;
+
+    /**
+     * anziehende Spielobjekte des aktuellen Simulationsschrittes, wird wiederverwendet
+     */
+    private final List<GameObject> attractors = new ArrayList<>();
+
+    /**
+     * Anziehung auf den aktuellen Körper - x und y, wird für alle Körper wiederverwendet
+     */
+    private final float[] acceleration = new float[2];
+
+    /**
+     * Konstruktor.
+     * @param bounds Spielfeld, das vom Quadtree überdeckt wird
+     * @param gravitationalConstant Gravitationskonstante
+     * @param minimumMass Masse, ab der ein Spielobjekt andere anzieht
+     */
+    public GravityField(IntRect bounds, float gravitationalConstant, int minimumMass) {
+        this.quadtree = new Quadtree(bounds, true);
+        this.gravitationalConstant = gravitationalConstant;
+        this.minimumMass = minimumMass;
+    }
+
+    /**
+     * Beschleunigt alle beweglichen Spielobjekte um die Anziehung aller anziehenden Objekte über die Dauer des Simulationsschrittes.
+     * Statische Objekte wie der Planet ziehen an, werden aber nicht bewegt. Schlafende Objekte sammeln die Anziehung und werden erst geweckt,
+     * wenn die gesammelte Geschwindigkeitsänderung GameObject.SLEEP_VELOCITY übersteigt (siehe GameObject.accelerate()).
+     * Muss vor dem Update der Spielobjekte aufgerufen werden, die Positionen stammen dann alle aus dem vorherigen Schritt.
+     *
+     * @param gameObjects alle Spielobjekte des Levels
+     * @param dt Dauer des Simulationsschrittes
+     */
+    public void apply(List<GameObject> gameObjects, Time dt) {
+        attractors.clear();
+        for (GameObject gameObject : gameObjects) {
+            if (gameObject.isAlive() && gameObject.getMass() >= minimumMass)
+                attractors.add(gameObject);
+        }
+        if (attractors.isEmpty())
+            return;
+
+        quadtree.update(attractors);
+        quadtree.computeMassDistribution();
+
+        float factor = gravitationalConstant * dt.asSeconds();
+        for (GameObject gameObject : gameObjects) {
+            if (!gameObject.isAlive() || gameObject.isStatic())
+                continue;
+
+            quadtree.getGravity(gameObject, THETA, SOFTENING, acceleration);
+            gameObject.accelerate(acceleration[0] * factor, acceleration[1] * factor);
+        }
+        attractors.clear();
+        quadtree.clear();
+    }
+}
@@ -137,6 +137,14 @@ public class Math2D {
         return random.nextFloat();
     }
 
+    /**
+     * Setzt den Startwert des Zufallsgenerators, z.B. für reproduzierbare Benchmarks.
+     * @param seed Startwert
+     */
+    public static void setSeed(long seed){
+        random.setSeed(seed);
+    }
+
     //endregion
 
 }